@@ -9,7 +9,7 @@ public abstract class Account {
     protected List<Transaction> transactions; // List of all transactions involving the account
     private final String accountID; // Unique account ID
     private static int nextAccountID = 0; // Stores the next accountID so all account IDs are unique
-    private float balance; // The balance of the account
+    private long balance; // The balance of the account, in cents
     private String accountType; // The type of account, either chequing or saving account
 
 
@@ -24,7 +24,7 @@ public abstract class Account {
         nextAccountID++;
     }
     // Constructor with customer, account type, and also balance
-        public Account(Customer customer, String accountType, float balance) {
+        public Account(Customer customer, String accountType, long balance) {
         this.customer = customer;
         this.transactions = new ArrayList<>();
         this.balance = balance;
@@ -42,7 +42,7 @@ public abstract class Account {
         return accountID;
     }
 
-    public float getBalance(){
+    public long getBalance(){
         return balance;
     }
 
@@ -59,15 +59,15 @@ public abstract class Account {
         this.accountType = accountType;
     }
 
-    public void setBalance(float balance){
+    public void setBalance(long balance){
         this.balance = balance;
     }
 
-    public void deposit(float deposit){ 
+    public void deposit(long deposit){ 
         this.balance += deposit;
     }
 
-    public void withdraw(float withdraw){
+    public void withdraw(long withdraw){
         this.balance -= withdraw;
     }
 
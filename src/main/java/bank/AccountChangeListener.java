@@ -0,0 +1,24 @@
+package bank;
+
+import java.util.Collection;
+
+/**
+ * Receives notifications after account rows have been written.
+ * <p>
+ * Like {@link UserChangeListener}, listeners are called on the writing thread after the
+ * change is committed, and must be quick and must not call back into the database manager.
+ * </p>
+ */
+public interface AccountChangeListener {
+
+    /**
+     * An account was created or replaced by {@link DatabaseManager#saveAccount}.
+     */
+    void accountSaved(String accountId, String ownerUsername);
+
+    /**
+     * The balances of these accounts may have changed. Reported by every code path that
+     * writes {@code accounts.balance_cents}, through {@link DatabaseManager#balancesChanged}.
+     */
+    void balancesChanged(Collection<String> accountIds);
+}
@@ -0,0 +1,81 @@
+package bank;
+
+/**
+ * An open-addressing hash map from account ID to a dense integer handle, used by
+ * {@link MemoryLedger} to index its balance array.
+ * <p>
+ * Keys and handles live in two parallel arrays probed linearly, so a lookup costs one
+ * hash and a few array reads and no entry objects are allocated. Entries are never
+ * removed. The table is kept at most half full, so every probe sequence reaches an
+ * empty slot. Not thread-safe: the ledger guards it with its own lock.
+ * </p>
+ */
+final class AccountHandleMap {
+    private String[] keys;
+    private int[] handles;
+    private int size;
+
+    /**
+     * @param expected The number of accounts expected; the table grows past it as needed.
+     */
+    AccountHandleMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) << 1;
+        keys = new String[capacity];
+        handles = new int[capacity];
+    }
+
+    /**
+     * Returns the account's handle, or -1 if it has none.
+     */
+    int get(String accountId) {
+        String[] k = keys;
+        int mask = k.length - 1;
+        for (int i = slot(accountId, mask); ; i = (i + 1) & mask) {
+            String key = k[i];
+            if (key == null) return -1;
+            if (key.equals(accountId)) return handles[i];
+        }
+    }
+
+    /**
+     * Maps an account ID that has no handle yet to the given handle.
+     */
+    void put(String accountId, int handle) {
+        if ((size + 1) * 2 > keys.length) resize(keys.length * 2);
+        int mask = keys.length - 1;
+        int i = slot(accountId, mask);
+        while (keys[i] != null) {
+            if (keys[i].equals(accountId)) throw new IllegalStateException("Account already mapped: " + accountId);
+            i = (i + 1) & mask;
+        }
+        handles[i] = handle;
+        keys[i] = accountId;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        String[] oldKeys = keys;
+        int[] oldHandles = handles;
+        String[] newKeys = new String[capacity];
+        int[] newHandles = new int[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == null) continue;
+            int i = slot(oldKeys[j], mask);
+            while (newKeys[i] != null) i = (i + 1) & mask;
+            newKeys[i] = oldKeys[j];
+            newHandles[i] = oldHandles[j];
+        }
+        keys = newKeys;
+        handles = newHandles;
+    }
+
+    private static int slot(String accountId, int mask) {
+        int h = accountId.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,12 @@
+package bank;
+
+/**
+ * An account row as returned by searches.
+ *
+ * @param accountId     The account number.
+ * @param ownerUsername The username of the owning customer.
+ * @param type          The account type, e.g. Chequing.
+ * @param balanceCents  The balance in cents at the time of the search.
+ */
+public record AccountRecord(String accountId, String ownerUsername, String type, long balanceCents) {
+}
@@ -0,0 +1,303 @@
+package bank;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Non-blocking access to the {@link UIManager} facade for the Swing pages.
+ * <p>
+ * Each method runs the matching facade call on a small I/O pool and returns a
+ * {@link CompletableFuture} at once, so the event dispatch thread never waits on SQLite.
+ * The pool has {@code bank.async.threads} threads (4, the size of the connection pool;
+ * more would only queue for a connection) and holds at most {@code bank.async.queue} (256)
+ * waiting calls. When it is full the call fails at once with a
+ * {@link RejectedExecutionException} instead of piling up behind a slow disk.
+ * </p>
+ * <p>
+ * Independent lookups can be combined so that they run side by side, as
+ * {@link #loadAccountView(String)} does. Pages receive the results on the event dispatch
+ * thread through {@link #onEdt(CompletableFuture, Consumer, Consumer)}.
+ * </p>
+ */
+public class AsyncUIManager {
+    /** Runs callbacks on the Swing event dispatch thread. */
+    public static final Executor EDT = SwingUtilities::invokeLater;
+
+    private final UIManager uiManager;
+    private final ThreadPoolExecutor executor;
+
+    // Metrics
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Creates the facade with the pool sized from the {@code bank.async.threads} (4)
+     * and {@code bank.async.queue} (256) system properties.
+     */
+    public AsyncUIManager(UIManager uiManager) {
+        this(uiManager, Integer.getInteger("bank.async.threads", 4), Integer.getInteger("bank.async.queue", 256));
+    }
+
+    /**
+     * @param threads       Number of I/O threads.
+     * @param queueCapacity Calls that may wait for a thread before new ones are rejected.
+     */
+    public AsyncUIManager(UIManager uiManager, int threads, int queueCapacity) {
+        if (threads <= 0) throw new IllegalArgumentException("Thread count must be positive");
+        if (queueCapacity <= 0) throw new IllegalArgumentException("Queue capacity must be positive");
+        this.uiManager = uiManager;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "ui-io-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    // --- Authentication ---
+
+    /**
+     * Logs the desktop GUI in.
+     *
+     * @return Completes with the user's dashboard type, as {@link UIManager#getDashboardType(String)}
+     *         returns it, or null if the credentials were rejected.
+     * @see UIManager#handleLogin(String, String)
+     */
+    public CompletableFuture<String> handleLogin(String username, String password) {
+        return supply(() -> uiManager.handleLogin(username, password) ? uiManager.getDashboardType(username) : null);
+    }
+
+    // --- Accounts ---
+
+    /**
+     * @see UIManager#getAccountBalance(String)
+     */
+    public CompletableFuture<Long> getAccountBalance(String accountId) {
+        return supply(() -> uiManager.getAccountBalance(accountId));
+    }
+
+    public CompletableFuture<String> getFormattedBalance(String accountId) {
+        return getAccountBalance(accountId).thenApply(Money::format);
+    }
+
+    /**
+     * @see UIManager#getAccountHistoryPage(String, String)
+     */
+    public CompletableFuture<HistoryPage> getAccountHistoryPage(String accountId, String cursor) {
+        return supply(() -> uiManager.getAccountHistoryPage(accountId, cursor));
+    }
+
+    /**
+     * Loads an account's balance and the first page of its history in parallel.
+     */
+    public CompletableFuture<AccountView> loadAccountView(String accountId) {
+        return getAccountBalance(accountId)
+                .thenCombine(getAccountHistoryPage(accountId, null), AccountView::new);
+    }
+
+    /**
+     * Returns the desktop user's accounts.
+     *
+     * @see UIManager#getUserAccounts()
+     */
+    public CompletableFuture<List<String[]>> getUserAccounts() {
+        return supply(uiManager::getUserAccounts);
+    }
+
+    public CompletableFuture<List<String[]>> getCustomerAccounts(String username) {
+        return supply(() -> uiManager.getCustomerAccounts(username));
+    }
+
+    /**
+     * @see UIManager#getCustomerOverview(String)
+     */
+    public CompletableFuture<CustomerOverview> getCustomerOverview(String username) {
+        return supply(() -> uiManager.getCustomerOverview(username));
+    }
+
+    // --- Data Management ---
+
+    /**
+     * Completes with false if a customer with the same username already exists.
+     *
+     * @see UIManager#createCustomerAccount(String, String, String, String, String, String)
+     */
+    public CompletableFuture<Boolean> createCustomerAccount(String name, String dob, String type, String phone, String email, String password) {
+        return supply(() -> uiManager.createCustomerAccount(name, dob, type, phone, email, password));
+    }
+
+    public CompletableFuture<Void> createNewAccount(String username, String type, long initialBalanceCents) {
+        return run(() -> uiManager.createNewAccount(username, type, initialBalanceCents));
+    }
+
+    public CompletableFuture<Void> createEmployee(String username, String password) {
+        return run(() -> uiManager.createEmployee(username, password));
+    }
+
+    public CompletableFuture<Boolean> removeEmployee(String username) {
+        return supply(() -> uiManager.removeEmployee(username));
+    }
+
+    public CompletableFuture<Boolean> activateEmployee(String username) {
+        return supply(() -> uiManager.activateEmployee(username));
+    }
+
+    // --- Search ---
+
+    public CompletableFuture<SearchResults<UserRecord>> searchCustomers(String criteria, String keyword, String cursor) {
+        return supply(() -> uiManager.searchCustomers(criteria, keyword, cursor));
+    }
+
+    public CompletableFuture<SearchResults<UserRecord>> searchEmployees(String criteria, String keyword, String cursor) {
+        return supply(() -> uiManager.searchEmployees(criteria, keyword, cursor));
+    }
+
+    public CompletableFuture<SearchResults<AccountRecord>> searchAccounts(String criteria, String keyword, String cursor) {
+        return supply(() -> uiManager.searchAccounts(criteria, keyword, cursor));
+    }
+
+    public CompletableFuture<FederatedSearchResults> searchAll(String keyword) {
+        return supply(() -> uiManager.searchAll(keyword));
+    }
+
+    public CompletableFuture<List<String>> suggestUsernames(String prefix) {
+        return supply(() -> uiManager.suggestUsernames(prefix));
+    }
+
+    public CompletableFuture<List<String>> suggestAccountIds(String prefix) {
+        return supply(() -> uiManager.suggestAccountIds(prefix));
+    }
+
+    // --- Transactions ---
+
+    /**
+     * Completes with the same status string as {@link UIManager#processDeposit(String, String)}.
+     */
+    public CompletableFuture<String> processDeposit(String accountId, String amountStr) {
+        return supply(() -> uiManager.processDeposit(accountId, amountStr));
+    }
+
+    /**
+     * Completes with the same status string as {@link UIManager#processWithdrawal(String, String)}.
+     */
+    public CompletableFuture<String> processWithdrawal(String accountId, String amountStr) {
+        return supply(() -> uiManager.processWithdrawal(accountId, amountStr));
+    }
+
+    /**
+     * Completes with the same status string as {@link UIManager#performTransfer(String, String, String)}.
+     */
+    public CompletableFuture<String> performTransfer(String fromId, String toId, String amountStr) {
+        return supply(() -> uiManager.performTransfer(fromId, toId, amountStr));
+    }
+
+    // --- Review ---
+
+    public CompletableFuture<List<String[]>> getPendingTransactions() {
+        return supply(uiManager::getPendingTransactions);
+    }
+
+    /**
+     * Completes with the same status string as {@link UIManager#approveTransaction(String)}.
+     */
+    public CompletableFuture<String> approveTransaction(String transactionID) {
+        return supply(() -> uiManager.approveTransaction(transactionID));
+    }
+
+    /**
+     * Completes with whether the transaction was still pending and is now cancelled.
+     */
+    public CompletableFuture<Boolean> denyTransaction(String transactionID) {
+        return supply(() -> uiManager.denyTransaction(transactionID));
+    }
+
+    // --- Callbacks ---
+
+    /**
+     * Delivers the outcome of a call on the event dispatch thread. The error passed to
+     * {@code onError} is the call's own exception, not the {@link CompletionException} around it.
+     */
+    public static <T> void onEdt(CompletableFuture<T> future, Consumer<? super T> onResult, Consumer<? super Throwable> onError) {
+        future.whenCompleteAsync((value, error) -> {
+            if (error == null) {
+                onResult.accept(value);
+            } else {
+                onError.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            }
+        }, EDT);
+    }
+
+    /**
+     * Stops accepting calls and waits briefly for the running ones, so that a posting
+     * submitted just before shutdown still reaches the ledger. Called by {@link UIManager#close()}.
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> task) {
+        try {
+            CompletableFuture<T> future = CompletableFuture.supplyAsync(task, executor);
+            submitted.incrementAndGet();
+            return future;
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<Void> run(Runnable task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    // --- Metrics ---
+
+    public long getSubmittedCount() { return submitted.get(); }
+
+    public long getRejectedCount() { return rejected.get(); }
+
+    /** Calls waiting for an I/O thread. */
+    public int getQueuedCount() { return executor.getQueue().size(); }
+
+    @Override
+    public String toString() {
+        return String.format("AsyncUIManager[submitted=%d, rejected=%d, queued=%d, active=%d]",
+                getSubmittedCount(), getRejectedCount(), getQueuedCount(), executor.getActiveCount());
+    }
+
+    /**
+     * An account's balance and the newest page of its history, loaded together.
+     *
+     * @param balanceCents The balance in cents.
+     * @param firstPage    The first page of history, newest first.
+     */
+    public record AccountView(long balanceCents, HistoryPage firstPage) {
+
+        public String formattedBalance() {
+            return Money.format(balanceCents);
+        }
+    }
+}
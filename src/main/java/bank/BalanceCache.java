@@ -0,0 +1,137 @@
+package bank;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded in-process cache of account balances, in cents.
+ * <p>
+ * Balances are loaded on a miss by {@link DatabaseManager#getBalance} and kept until
+ * they are evicted (least recently used first) or invalidated. Every code path that
+ * writes {@code accounts.balance_cents} must call {@link #invalidate} for the accounts
+ * it touched <em>after</em> its transaction commits.
+ * </p>
+ * <p>
+ * A reader that misses takes a {@link #stamp()} before querying the database and only
+ * stores the loaded value if no invalidation happened in between
+ * ({@link #putIfUnchanged}). This prevents a slow reader from re-inserting a balance
+ * that a concurrent posting has already replaced.
+ * </p>
+ */
+public class BalanceCache {
+    private final int capacity;
+
+    // Access-ordered so the least recently read balance is evicted first; guarded by this
+    private final LinkedHashMap<String, Long> balances = new LinkedHashMap<>(16, 0.75f, true);
+    private long invalidations;
+
+    // Metrics
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a cache sized by the {@code bank.cache.balance.size} system property (10000).
+     * A size of 0 disables caching.
+     */
+    public BalanceCache() {
+        this(Integer.getInteger("bank.cache.balance.size", 10000));
+    }
+
+    /**
+     * @param capacity Maximum number of balances kept; 0 disables caching.
+     */
+    public BalanceCache(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity must not be negative");
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the cached balance, or null if the account is not cached.
+     */
+    public synchronized Long get(String accountId) {
+        Long balance = balances.get(accountId);
+        if (balance != null) hits.incrementAndGet();
+        else misses.incrementAndGet();
+        return balance;
+    }
+
+    /**
+     * Returns the current invalidation stamp. Take it before loading a balance from the
+     * database and pass it to {@link #putIfUnchanged}.
+     */
+    public synchronized long stamp() {
+        return invalidations;
+    }
+
+    /**
+     * Caches a freshly loaded balance unless an invalidation happened since {@code stamp}.
+     *
+     * @param accountId    The account the balance belongs to.
+     * @param balanceCents The balance read from the database.
+     * @param stamp        The value of {@link #stamp()} taken before the database read.
+     */
+    public synchronized void putIfUnchanged(String accountId, long balanceCents, long stamp) {
+        if (capacity == 0 || stamp != invalidations) return;
+        balances.put(accountId, balanceCents);
+        if (balances.size() > capacity) {
+            Iterator<Map.Entry<String, Long>> eldest = balances.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drops the cached balance of each given account. Null IDs are ignored.
+     */
+    public synchronized void invalidate(String... accountIds) {
+        invalidations++;
+        for (String accountId : accountIds) {
+            if (accountId != null) balances.remove(accountId);
+        }
+    }
+
+    /**
+     * Drops the cached balances of all given accounts.
+     */
+    public synchronized void invalidate(Collection<String> accountIds) {
+        invalidations++;
+        balances.keySet().removeAll(accountIds);
+    }
+
+    /**
+     * Drops every cached balance.
+     */
+    public synchronized void clear() {
+        invalidations++;
+        balances.clear();
+    }
+
+    // --- Metrics ---
+
+    public synchronized int size() { return balances.size(); }
+
+    public long getHitCount() { return hits.get(); }
+
+    public long getMissCount() { return misses.get(); }
+
+    public long getEvictionCount() { return evictions.get(); }
+
+    public synchronized long getInvalidationCount() { return invalidations; }
+
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BalanceCache[size=%d/%d, hits=%d, misses=%d, hitRatio=%.2f, evictions=%d, invalidations=%d]",
+                size(), capacity, getHitCount(), getMissCount(), getHitRatio(), getEvictionCount(), getInvalidationCount());
+    }
+}
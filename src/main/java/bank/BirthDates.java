@@ -0,0 +1,130 @@
+package bank;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import bank.SchemaMigrator.Backfill;
+
+/**
+ * Normalizes dates of birth and parses date-of-birth search keywords.
+ * <p>
+ * Dates of birth are entered as free text. Besides the text, each user row stores the
+ * date as a sortable ISO string ({@code users.dob_iso}, e.g. {@code 1980-05-07}), or
+ * an empty string if the text is not a date, and an index over it answers exact and
+ * range searches with a seek. Dates are read year first, with {@code -}, {@code /} or
+ * {@code .} between the parts and one- or two-digit months and days.
+ * </p>
+ * <p>
+ * A search keyword starts with a day, month or year, optionally followed by a second
+ * one after {@code -}, {@code –}, {@code ..} or {@code to}, and then by an optional name
+ * fragment: {@code 1980-05-07}, {@code 1980-05}, {@code 1980-1985}, or
+ * {@code 1980 to 1985-06 tanaka}. A partial date covers the whole month or year.
+ * </p>
+ */
+public final class BirthDates {
+    private static final String DATE = "(\\d{4})(?:[-/.](\\d{1,2})(?:[-/.](\\d{1,2}))?)?(?!\\d)";
+    private static final Pattern STORED = Pattern.compile("\\s*" + DATE + "\\s*");
+    private static final Pattern QUERY = Pattern.compile(
+            "\\s*" + DATE + "(?:\\s*(?:-|–|—|\\.\\.|\\bto\\b)\\s*" + DATE + ")?(?:\\s+(.*))?\\s*",
+            Pattern.CASE_INSENSITIVE);
+
+    private BirthDates() {
+    }
+
+    /**
+     * A date-of-birth search: an inclusive range of ISO dates plus an optional name fragment.
+     *
+     * @param from The first date of birth matched, e.g. {@code 1980-01-01}.
+     * @param to   The last date of birth matched, e.g. {@code 1985-12-31}.
+     * @param name A name fragment the full name must contain, or an empty string.
+     */
+    public record Query(String from, String to, String name) {
+    }
+
+    /**
+     * Returns the stored date of birth as {@code yyyy-MM-dd}, or an empty string if the
+     * text is not a complete, valid date.
+     */
+    public static String normalize(String dateOfBirth) {
+        if (dateOfBirth == null) return "";
+        Matcher m = STORED.matcher(dateOfBirth);
+        if (!m.matches() || m.group(3) == null) return "";
+        try {
+            return LocalDate.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)), Integer.parseInt(m.group(3))).toString();
+        } catch (DateTimeException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Parses a date-of-birth search keyword, or returns null if it does not start with
+     * a valid date, month or year.
+     */
+    public static Query parseQuery(String keyword) {
+        Matcher m = QUERY.matcher(keyword);
+        if (!m.matches()) return null;
+        try {
+            LocalDate from = firstDay(m.group(1), m.group(2), m.group(3));
+            LocalDate to = m.group(4) != null ? lastDay(m.group(4), m.group(5), m.group(6)) : lastDay(m.group(1), m.group(2), m.group(3));
+            if (to.isBefore(from)) return null;
+            String name = m.group(7) == null ? "" : m.group(7).strip();
+            return new Query(from.toString(), to.toString(), name);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static LocalDate firstDay(String year, String month, String day) {
+        return LocalDate.of(Integer.parseInt(year),
+                month == null ? 1 : Integer.parseInt(month),
+                day == null ? 1 : Integer.parseInt(day));
+    }
+
+    private static LocalDate lastDay(String year, String month, String day) {
+        int y = Integer.parseInt(year);
+        if (month == null) return LocalDate.of(y, 12, 31);
+        YearMonth ym = YearMonth.of(y, Integer.parseInt(month));
+        return day == null ? ym.atEndOfMonth() : ym.atDay(Integer.parseInt(day));
+    }
+
+    /**
+     * Fills {@code dob_iso} for users saved before the column existed; rows still NULL are pending.
+     */
+    static Backfill backfill() {
+        return new Backfill() {
+            // Batches resume after the last user done, so none rescans the users already filled
+            private long lastRowId = Long.MIN_VALUE;
+
+            @Override
+            public int runBatch(Connection conn, int limit) throws SQLException {
+                int rows = 0;
+                try (PreparedStatement select = conn.prepareStatement(
+                             "SELECT rowid, date_of_birth FROM users WHERE rowid > ? AND dob_iso IS NULL ORDER BY rowid LIMIT ?");
+                     PreparedStatement update = conn.prepareStatement("UPDATE users SET dob_iso = ? WHERE rowid = ?")) {
+                    select.setLong(1, lastRowId);
+                    select.setInt(2, limit);
+                    long last = lastRowId;
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) {
+                            last = rs.getLong(1);
+                            update.setString(1, normalize(rs.getString(2)));
+                            update.setLong(2, last);
+                            update.addBatch();
+                            rows++;
+                        }
+                    }
+                    update.executeBatch();
+                    lastRowId = last;
+                }
+                return rows;
+            }
+        };
+    }
+}
@@ -0,0 +1,271 @@
+package bank;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Imports end-of-day transaction files in bulk.
+ * <p>
+ * The file is streamed line by line in CSV form: {@code type,amount,from_account,to_account}
+ * where type is DEPOSIT, WITHDRAWAL or TRANSFER and unused account columns are left empty.
+ * Blank lines, {@code #} comments and a leading header row are skipped. Every row is
+ * validated and risk-checked through {@link RiskVerification}; high-value rows are recorded
+ * as PENDING_REVIEW exactly like teller postings.
+ * </p>
+ * <p>
+ * Rows are applied in chunks. Within a chunk, balances are tracked in memory so rows see the
+ * effect of earlier rows, then the transaction inserts and the final balance of each touched
+ * account are written with JDBC batches and committed once. Rejected rows never reach the
+ * database and are listed in the {@link Report}.
+ * </p>
+ */
+public class BulkImporter {
+    private static final String INSERT_SQL = "INSERT INTO transactions(id, type, amount_cents, from_acc, to_acc, status, timestamp) VALUES(?,?,?,?,?,?,?)";
+    private static final String BALANCE_SQL = "SELECT balance_cents FROM accounts WHERE account_id = ?";
+    private static final String UPDATE_SQL = "UPDATE accounts SET balance_cents = ? WHERE account_id = ?";
+
+    /** Rejection messages kept in the report; the count is always exact. */
+    private static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    private final DatabaseManager database;
+    private final RiskVerification riskManager;
+    private final int chunkSize;
+
+    /**
+     * @param database    The database to post into.
+     * @param riskManager The risk rules deciding which rows need manual review.
+     * @param chunkSize   Number of input rows committed per database transaction.
+     */
+    public BulkImporter(DatabaseManager database, RiskVerification riskManager, int chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("Chunk size must be at least 1");
+        this.database = database;
+        this.riskManager = riskManager;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Streams and posts every row of the file.
+     *
+     * @param file The CSV file to import.
+     * @return Counts, throughput and rejected lines.
+     * @throws IOException if the file cannot be read.
+     */
+    public Report importFile(Path file) throws IOException {
+        Report report = new Report();
+        long start = System.nanoTime();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            String line;
+            long lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                Row row = parse(line, lineNo, report);
+                if (row == null) continue;
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    postChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) postChunk(chunk, report);
+        }
+
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    /**
+     * Parses and validates one line, returning null for skipped or rejected lines.
+     */
+    private Row parse(String line, long lineNo, Report report) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) return null;
+        if (lineNo == 1 && trimmed.toLowerCase().startsWith("type")) return null;
+
+        report.rowsRead++;
+        String[] fields = trimmed.split(",", -1);
+        if (fields.length != 4) {
+            report.reject(lineNo, "expected 4 fields but found " + fields.length);
+            return null;
+        }
+
+        String type = fields[0].trim().toUpperCase();
+        String from = emptyToNull(fields[2]);
+        String to = emptyToNull(fields[3]);
+        long amount;
+        try {
+            amount = Money.parseCents(fields[1]);
+        } catch (NumberFormatException e) {
+            report.reject(lineNo, e.getMessage());
+            return null;
+        }
+        if (amount <= 0) {
+            report.reject(lineNo, "amount must be positive");
+            return null;
+        }
+
+        boolean valid = switch (type) {
+            case "DEPOSIT" -> from == null && to != null;
+            case "WITHDRAWAL" -> from != null && to == null;
+            case "TRANSFER" -> from != null && to != null;
+            default -> false;
+        };
+        if (!valid) {
+            report.reject(lineNo, "invalid type/account combination for '" + type + "'");
+            return null;
+        }
+        return new Row(lineNo, type, amount, from, to);
+    }
+
+    private static String emptyToNull(String field) {
+        String value = field.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Applies one chunk of rows and commits it as a single transaction.
+     */
+    private void postChunk(List<Row> chunk, Report report) {
+        try (Connection conn = database.connect()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement balanceStmt = conn.prepareStatement(BALANCE_SQL);
+                 PreparedStatement insertStmt = conn.prepareStatement(INSERT_SQL);
+                 PreparedStatement updateStmt = conn.prepareStatement(UPDATE_SQL)) {
+
+                // Running balances of the accounts touched by this chunk; long[1] avoids boxing
+                Map<String, long[]> balances = new HashMap<>();
+                int posted = 0;
+                int pending = 0;
+                List<Rejection> rejected = new ArrayList<>();
+                String timestamp = LocalDateTime.now().toString();
+
+                for (Row row : chunk) {
+                    long[] fromBal = row.from != null ? loadBalance(balanceStmt, balances, row.from) : null;
+                    long[] toBal = row.to != null ? loadBalance(balanceStmt, balances, row.to) : null;
+                    if ((row.from != null && fromBal == null) || (row.to != null && toBal == null)) {
+                        rejected.add(new Rejection(row.lineNo, "unknown account"));
+                        continue;
+                    }
+
+                    String status = riskManager.getTransactionStatus(row.amount);
+                    if ("COMPLETED".equals(status)) {
+                        if (fromBal != null && fromBal[0] < row.amount) {
+                            rejected.add(new Rejection(row.lineNo, "insufficient funds in " + row.from));
+                            continue;
+                        }
+                        if (fromBal != null) fromBal[0] -= row.amount;
+                        if (toBal != null) toBal[0] += row.amount;
+                        posted++;
+                    } else {
+                        pending++;
+                    }
+
+                    insertStmt.setString(1, UUID.randomUUID().toString());
+                    insertStmt.setString(2, row.type);
+                    insertStmt.setLong(3, row.amount);
+                    insertStmt.setString(4, row.from);
+                    insertStmt.setString(5, row.to);
+                    insertStmt.setString(6, status);
+                    insertStmt.setString(7, timestamp);
+                    insertStmt.addBatch();
+                }
+
+                for (Map.Entry<String, long[]> entry : balances.entrySet()) {
+                    updateStmt.setLong(1, entry.getValue()[0]);
+                    updateStmt.setString(2, entry.getKey());
+                    updateStmt.addBatch();
+                }
+                insertStmt.executeBatch();
+                updateStmt.executeBatch();
+                conn.commit();
+                database.balancesChanged(balances.keySet());
+
+                report.rowsPosted += posted;
+                report.rowsPending += pending;
+                for (Rejection r : rejected) report.reject(r.lineNo, r.reason);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            for (Row row : chunk) report.reject(row.lineNo, "chunk rolled back: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the running balance holder for an account, loading it on first use.
+     * Returns null if the account does not exist.
+     */
+    private long[] loadBalance(PreparedStatement balanceStmt, Map<String, long[]> balances, String accountId) throws SQLException {
+        long[] balance = balances.get(accountId);
+        if (balance != null) return balance;
+
+        balanceStmt.setString(1, accountId);
+        try (ResultSet rs = balanceStmt.executeQuery()) {
+            if (!rs.next()) return null;
+            balance = new long[]{rs.getLong("balance_cents")};
+        }
+        balances.put(accountId, balance);
+        return balance;
+    }
+
+    private record Row(long lineNo, String type, long amount, String from, String to) {
+    }
+
+    private record Rejection(long lineNo, String reason) {
+    }
+
+    /**
+     * The outcome of an import run.
+     */
+    public static final class Report {
+        private long rowsRead;
+        private long rowsPosted;
+        private long rowsPending;
+        private long rowsRejected;
+        private long elapsedNanos;
+        private final List<String> rejections = new ArrayList<>();
+
+        private void reject(long lineNo, String reason) {
+            rowsRejected++;
+            if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                rejections.add("line " + lineNo + ": " + reason);
+            }
+        }
+
+        public long getRowsRead() { return rowsRead; }
+
+        public long getRowsPosted() { return rowsPosted; }
+
+        public long getRowsPending() { return rowsPending; }
+
+        public long getRowsRejected() { return rowsRejected; }
+
+        /** The first rejected lines with their reasons (capped at 1000 entries). */
+        public List<String> getRejections() { return rejections; }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : rowsRead / (elapsedNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Imported %d rows in %.2fs (%.0f rows/sec): %d posted, %d pending review, %d rejected",
+                    rowsRead, elapsedNanos / 1e9, getRowsPerSecond(), rowsPosted, rowsPending, rowsRejected);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package bank;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A bounded pool of reusable JDBC connections for the SQLite database.
+ * <p>
+ * Connections handed out by {@link #borrow()} are lightweight wrappers around a
+ * long-lived physical connection. Calling {@code close()} on them (for example at
+ * the end of a try-with-resources block) returns the physical connection to the
+ * pool instead of closing it, so callers keep the usual JDBC idiom.
+ * </p>
+ * <p>
+ * The pool validates connections when they are borrowed, evicts connections that
+ * have been idle for too long, reports connections that are held longer than the
+ * leak threshold, and records how long callers waited for a connection.
+ * </p>
+ */
+public class ConnectionPool implements AutoCloseable {
+    private final String url;
+    private final StorageProfile profile;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int statementCacheSize;
+    // Capturing a stack trace on every borrow is expensive, so it is opt-in
+    private final boolean traceBorrowers = Boolean.getBoolean("bank.db.pool.traceLeaks");
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> inUse = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+    private volatile Consumer<String> statementObserver; // Sees the SQL of every prepared statement
+
+    // Metrics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+
+    /**
+     * Creates a new pool. Physical connections are opened lazily on demand.
+     *
+     * @param url                 The JDBC URL of the database.
+     * @param profile             The storage profile applied to every new connection.
+     * @param maxSize             Maximum number of physical connections.
+     * @param borrowTimeoutMillis How long {@link #borrow()} waits for a free connection.
+     * @param idleTimeoutMillis   Idle connections older than this are closed.
+     * @param leakThresholdMillis Connections held longer than this are reported as leaks.
+     * @param statementCacheSize  Prepared statements cached per connection (0 disables caching).
+     */
+    public ConnectionPool(String url, StorageProfile profile, int maxSize, long borrowTimeoutMillis,
+                          long idleTimeoutMillis, long leakThresholdMillis, int statementCacheSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("Pool size must be at least 1");
+        this.url = url;
+        this.profile = profile;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMillis, leakThresholdMillis) / 2);
+        housekeeper.scheduleAtFixedRate(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a pool configured from system properties, falling back to defaults:
+     * {@code bank.db.pool.size} (4), {@code bank.db.pool.borrowTimeoutMs} (5000),
+     * {@code bank.db.pool.idleTimeoutMs} (60000), {@code bank.db.pool.leakThresholdMs} (10000)
+     * and {@code bank.db.statementCacheSize} (64).
+     * Set {@code bank.db.pool.traceLeaks=true} to record the borrower's stack trace for leak reports.
+     *
+     * @param url     The JDBC URL of the database.
+     * @param profile The storage profile applied to every new connection.
+     * @return A configured connection pool.
+     */
+    public static ConnectionPool fromSystemProperties(String url, StorageProfile profile) {
+        return new ConnectionPool(url, profile,
+                Integer.getInteger("bank.db.pool.size", 4),
+                Long.getLong("bank.db.pool.borrowTimeoutMs", 5000L),
+                Long.getLong("bank.db.pool.idleTimeoutMs", 60000L),
+                Long.getLong("bank.db.pool.leakThresholdMs", 10000L),
+                Integer.getInteger("bank.db.statementCacheSize", 64));
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if none is idle.
+     * The returned connection must be closed to give it back to the pool.
+     *
+     * @return A validated connection.
+     * @throws SQLException if the pool is closed, exhausted for longer than the
+     *                      borrow timeout, or a new connection cannot be opened.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled = takeIdleOrCreate();
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowerThread = Thread.currentThread().getName();
+            pooled.borrower = traceBorrowers ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            inUse.add(pooled);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes the most recently used idle connection that is still valid, or opens a new one.
+     */
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled.physical)) return pooled;
+            closePhysical(pooled);
+        }
+        createdCount.incrementAndGet();
+        return new PooledConnection(openPhysical());
+    }
+
+    /**
+     * Opens a new physical connection to the database and applies the storage profile.
+     * <p>
+     * Explicit transactions start in IMMEDIATE mode: every transaction this application
+     * opens writes, and taking the write lock up front means a transaction that reads
+     * before writing (settlement, bulk import) waits for other writers instead of
+     * failing when it upgrades its lock.
+     * </p>
+     */
+    protected Connection openPhysical() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("transaction_mode", "IMMEDIATE");
+        Connection conn = DriverManager.getConnection(url, props);
+        try {
+            profile.apply(conn);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+
+    private boolean isUsable(Connection conn) {
+        try {
+            return !conn.isClosed() && conn.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a physical connection to the idle set after resetting any transaction state.
+     */
+    private void release(PooledConnection pooled) {
+        inUse.remove(pooled);
+        pooled.borrower = null;
+        pooled.borrowerThread = null;
+        try {
+            if (closed || pooled.physical.isClosed()) {
+                closePhysical(pooled);
+                return;
+            }
+            pooled.statements.releaseAll();
+            if (!pooled.physical.getAutoCommit()) {
+                // Discard anything the borrower left uncommitted
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            closePhysical(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void closePhysical(PooledConnection pooled) {
+        pooled.statements.closeAll();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.out.println("Failed to close pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Periodic maintenance: evicts stale idle connections and reports suspected leaks.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        // Idle connections are kept most-recent-first, so stale ones sit at the tail.
+        // Always keep one warm connection around.
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && idle.size() > 1) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastUsed > idleTimeoutMillis && idle.remove(pooled)) {
+                closePhysical(pooled);
+                evictedCount.incrementAndGet();
+            }
+        }
+
+        for (PooledConnection pooled : inUse) {
+            String thread = pooled.borrowerThread;
+            if (!pooled.leakReported && thread != null && now - pooled.borrowedAt > leakThresholdMillis) {
+                pooled.leakReported = true;
+                leakCount.incrementAndGet();
+                System.out.println("Possible connection leak: connection held by thread '" + thread
+                        + "' for " + (now - pooled.borrowedAt) + " ms");
+                Throwable borrower = pooled.borrower;
+                if (borrower != null) borrower.printStackTrace(System.out);
+            }
+        }
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeper. Connections that are
+     * currently borrowed are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closePhysical(pooled);
+        }
+    }
+
+    /**
+     * Passes the SQL of every statement prepared through this pool to the observer, e.g. so
+     * that a test can check the query plan of each statement the application runs.
+     *
+     * @param observer The observer, or null to stop observing.
+     */
+    void observeStatements(Consumer<String> observer) {
+        this.statementObserver = observer;
+    }
+
+    // --- Metrics ---
+
+    public StorageProfile getProfile() { return profile; }
+
+    public int getMaxSize() { return maxSize; }
+
+    public int getActiveCount() { return inUse.size(); }
+
+    public int getIdleCount() { return idle.size(); }
+
+    public long getBorrowCount() { return borrowCount.get(); }
+
+    public long getCreatedCount() { return createdCount.get(); }
+
+    public long getEvictedCount() { return evictedCount.get(); }
+
+    public long getLeakCount() { return leakCount.get(); }
+
+    public long getStatementCacheHits() { return statementHits.get(); }
+
+    public long getStatementCacheMisses() { return statementMisses.get(); }
+
+    public double getStatementCacheHitRatio() {
+        long hits = statementHits.get();
+        long total = hits + statementMisses.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public double getAverageBorrowWaitMillis() {
+        long count = borrowCount.get();
+        return count == 0 ? 0.0 : totalWaitNanos.get() / (count * 1_000_000.0);
+    }
+
+    public double getMaxBorrowWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPool[profile=%s, active=%d, idle=%d, max=%d, borrows=%d, created=%d, evicted=%d, leaks=%d, avgWait=%.3fms, maxWait=%.3fms, stmtHitRatio=%.2f]",
+                profile, getActiveCount(), getIdleCount(), maxSize, getBorrowCount(), getCreatedCount(),
+                getEvictedCount(), getLeakCount(), getAverageBorrowWaitMillis(), getMaxBorrowWaitMillis(),
+                getStatementCacheHitRatio());
+    }
+
+    /**
+     * Book-keeping for one physical connection owned by the pool.
+     */
+    private final class PooledConnection {
+        final Connection physical;
+        final StatementCache statements;
+        volatile long lastUsed = System.currentTimeMillis();
+        volatile long borrowedAt;
+        volatile String borrowerThread;
+        volatile Throwable borrower;
+        volatile boolean leakReported;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = new StatementCache(physical, statementCacheSize, statementHits, statementMisses);
+        }
+
+        /**
+         * Creates a single-use handle whose {@code close()} returns this connection to the pool.
+         */
+        Connection newHandle() {
+            AtomicBoolean handleClosed = new AtomicBoolean();
+            InvocationHandler handler = (proxy, method, args) -> invoke(proxy, handleClosed, method, args);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, handler);
+        }
+
+        private Object invoke(Object proxy, AtomicBoolean handleClosed, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (handleClosed.compareAndSet(false, true)) release(this);
+                    return null;
+                case "isClosed":
+                    return handleClosed.get() || physical.isClosed();
+                case "prepareStatement":
+                    Consumer<String> observer = statementObserver;
+                    if (observer != null) observer.accept((String) args[0]);
+                    if (args.length == 1 && !handleClosed.get()) {
+                        return statements.prepare((String) args[0], (Connection) proxy);
+                    }
+                    break;
+                case "toString":
+                    return "Pooled" + physical;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return args[0] == proxy;
+                default:
+                    break;
+            }
+            if (handleClosed.get()) throw new SQLException("Connection has been returned to the pool");
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
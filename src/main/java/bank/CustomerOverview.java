@@ -0,0 +1,19 @@
+package bank;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything a teller sees about one customer, loaded in a single pass by
+ * {@link DatabaseManager#loadCustomerOverview}.
+ *
+ * @param profile        The customer's user row.
+ * @param accounts       The customer's accounts with their balances, ordered by account ID.
+ * @param recentActivity The latest transactions of each account, keyed by account ID, newest
+ *                       first, as {@code [Type, Amount, To_Acc, Timestamp]} rows like
+ *                       {@link DatabaseManager#getTransactionHistory}. Accounts without
+ *                       transactions map to an empty list.
+ */
+public record CustomerOverview(UserRecord profile, List<AccountRecord> accounts,
+                               Map<String, List<String[]>> recentActivity) {
+}
@@ -1,14 +1,20 @@
 package bank;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
 
 /**
  * Handles all direct interactions with the SQLite database.
@@ -21,30 +27,105 @@ import java.util.List;
 public class DatabaseManager {
     private static final String URL = "jdbc:sqlite:bank.db";
 
+    private final ConnectionPool pool;
+    private final BalanceCache balanceCache = new BalanceCache();
+    private final List<UserChangeListener> userListeners = new CopyOnWriteArrayList<>();
+    private final List<AccountChangeListener> accountListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Initializes the database manager with the storage profile configured
+     * through the {@code bank.storage.profile} system property.
+     */
+    public DatabaseManager() {
+        this(StorageProfile.fromSystemProperties());
+    }
+
     /**
      * Initializes the database manager by creating the database file
      * and ensuring all necessary tables exist.
+     *
+     * @param profile The SQLite tuning profile applied to every connection.
      */
-    public DatabaseManager() {
+    public DatabaseManager(StorageProfile profile) {
+        this(URL, profile);
+    }
+
+    /**
+     * Opens the database at the given JDBC URL instead of {@code bank.db}, e.g. a temporary
+     * file for tests and benchmarks.
+     *
+     * @param url     The JDBC URL of the SQLite database.
+     * @param profile The SQLite tuning profile applied to every connection.
+     */
+    DatabaseManager(String url, StorageProfile profile) {
+        this.pool = ConnectionPool.fromSystemProperties(url, profile);
         createNewDatabase();
         createTables();
     }
 
     /**
-     * Establishes a connection to the SQLite database.
+     * Borrows a connection from the connection pool.
+     * Closing the returned connection hands it back to the pool.
      *
      * @return A Connection object or null if connection fails.
      */
-    private Connection connect() {
+    Connection connect() {
         Connection conn = null;
         try {
-            conn = DriverManager.getConnection(URL);
+            conn = pool.borrow();
         } catch (SQLException e) {
             System.out.println("Connection failed: " + e.getMessage());
         }
         return conn;
     }
 
+    /**
+     * Returns the connection pool backing this manager, e.g. for reporting its metrics.
+     */
+    public ConnectionPool getConnectionPool() {
+        return pool;
+    }
+
+    /**
+     * Returns the cache of account balances read through {@link #getBalance}.
+     * Code that writes balances on its own connection invalidates it through {@link #balancesChanged}.
+     */
+    public BalanceCache getBalanceCache() {
+        return balanceCache;
+    }
+
+    /**
+     * Registers a listener that is notified after every successful user write.
+     */
+    public void addUserChangeListener(UserChangeListener listener) {
+        userListeners.add(listener);
+    }
+
+    /**
+     * Registers a listener that is notified after accounts are saved or their balances change.
+     */
+    public void addAccountChangeListener(AccountChangeListener listener) {
+        accountListeners.add(listener);
+    }
+
+    /**
+     * Drops the cached balances of the given accounts and notifies account listeners.
+     * Code that writes balances on its own connection must call this after committing.
+     */
+    void balancesChanged(Collection<String> accountIds) {
+        balanceCache.invalidate(accountIds);
+        for (AccountChangeListener listener : accountListeners) {
+            listener.balancesChanged(accountIds);
+        }
+    }
+
+    /**
+     * Closes all pooled connections. The manager must not be used afterwards.
+     */
+    public void close() {
+        pool.close();
+    }
+
     /**
      * Creates the 'bank.db' file if it does not already exist.
      */
@@ -59,49 +140,18 @@ public class DatabaseManager {
     }
 
     /**
-     * Defines and creates the table schema for the banking application.
-     * Includes tables for Users, Accounts, and Transactions.
+     * Brings the schema up to date by applying any pending versioned migrations.
+     * See {@link Migrations} for the full list of schema changes.
+     *
+     * @throws IllegalStateException if a migration fails; the rest of the code relies on
+     *                               the current schema, so the database cannot be used.
      */
     private void createTables() {
-        // 1. Users Table: Stores authentication and profile data
-        String sqlUsers = "CREATE TABLE IF NOT EXISTS users ("
-                + "username TEXT PRIMARY KEY,"
-                + "password TEXT NOT NULL,"
-                + "role TEXT NOT NULL,"
-                + "full_name TEXT,"
-                + "date_of_birth TEXT,"
-                + "phone TEXT,"
-                + "email TEXT,"
-                + "is_active INTEGER DEFAULT 1"
-                + ");";
-
-        // 2. Accounts Table: Stores financial ledgers linked to users
-        String sqlAccounts = "CREATE TABLE IF NOT EXISTS accounts ("
-                + "account_id TEXT PRIMARY KEY,"
-                + "owner_username TEXT NOT NULL,"
-                + "type TEXT NOT NULL,"
-                + "balance REAL,"
-                + "FOREIGN KEY (owner_username) REFERENCES users(username)"
-                + ");";
-
-        // 3. Transactions Table: Logs history of all financial movements
-        String sqlTransactions = "CREATE TABLE IF NOT EXISTS transactions ("
-                + "id TEXT PRIMARY KEY,"
-                + "type TEXT NOT NULL,"
-                + "amount REAL,"
-                + "from_acc TEXT,"
-                + "to_acc TEXT,"
-                + "status TEXT,"
-                + "timestamp TEXT"
-                + ");";
-
-        try (Connection conn = this.connect();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sqlUsers);
-            stmt.execute(sqlAccounts);
-            stmt.execute(sqlTransactions);
+        try {
+            new SchemaMigrator(pool).migrate(Migrations.all());
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            pool.close();
+            throw new IllegalStateException("Schema migration failed: " + e.getMessage(), e);
         }
     }
 
@@ -119,43 +169,70 @@ public class DatabaseManager {
      * @param email Contact email address.
      */
     public void saveUser(String username, String password, String role, String fullName, String dob, String phone, String email) {
-        String sql = "INSERT OR REPLACE INTO users(username, password, role, full_name, date_of_birth, phone, email, is_active) VALUES(?,?,?,?,?,?,?,1)";
-        try (Connection conn = this.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            pstmt.setString(2, password);
-            pstmt.setString(3, role);
-            pstmt.setString(4, fullName);
-            pstmt.setString(5, dob);
-            pstmt.setString(6, phone);
-            pstmt.setString(7, email);
-            pstmt.executeUpdate();
+        // Upsert rather than INSERT OR REPLACE: REPLACE deletes the row without firing the
+        // delete trigger, which would leave a stale entry in the users_fts search index
+        String sql = "INSERT INTO users(username, password, role, full_name, date_of_birth, dob_iso, phone, email, is_active) VALUES(?,?,?,?,?,?,?,?,1) "
+                + "ON CONFLICT(username) DO UPDATE SET password = excluded.password, role = excluded.role, "
+                + "full_name = excluded.full_name, date_of_birth = excluded.date_of_birth, dob_iso = excluded.dob_iso, "
+                + "phone = excluded.phone, email = excluded.email, is_active = 1 RETURNING id";
+        try (Connection conn = this.connect()) {
+            // The fuzzy name keys commit together with the name they were computed from
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, username);
+                pstmt.setString(2, password);
+                pstmt.setString(3, role);
+                pstmt.setString(4, fullName);
+                pstmt.setString(5, dob);
+                pstmt.setString(6, BirthDates.normalize(dob));
+                pstmt.setString(7, phone);
+                pstmt.setString(8, email);
+                long userId;
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    userId = rs.getLong(1);
+                }
+                NameKeys.store(conn, userId, fullName);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             System.out.println(e.getMessage());
+            return;
+        }
+        for (UserChangeListener listener : userListeners) {
+            listener.userSaved(username, role, fullName, dob, phone, email);
         }
     }
 
-    public void saveAccount(String accountId, String owner, String type, double balance) {
-        String sql = "INSERT OR REPLACE INTO accounts(account_id, owner_username, type, balance) VALUES(?,?,?,?)";
+    public void saveAccount(String accountId, String owner, String type, long balanceCents) {
+        String sql = "INSERT OR REPLACE INTO accounts(account_id, owner_username, type, balance_cents) VALUES(?,?,?,?)";
         try (Connection conn = this.connect();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, accountId);
             pstmt.setString(2, owner);
             pstmt.setString(3, type);
-            pstmt.setDouble(4, balance);
+            pstmt.setLong(4, balanceCents);
             pstmt.executeUpdate();
         } catch (SQLException e) {
             System.out.println(e.getMessage());
+        } finally {
+            balanceCache.invalidate(accountId);
+            for (AccountChangeListener listener : accountListeners) {
+                listener.accountSaved(accountId, owner);
+            }
         }
     }
 
-    public void saveTransaction(String id, String type, double amount, String from, String to, String status) {
-        String sql = "INSERT INTO transactions(id, type, amount, from_acc, to_acc, status, timestamp) VALUES(?,?,?,?,?,?,?)";
+    public void saveTransaction(String id, String type, long amountCents, String from, String to, String status) {
+        String sql = "INSERT INTO transactions(id, type, amount_cents, from_acc, to_acc, status, timestamp) VALUES(?,?,?,?,?,?,?)";
         try (Connection conn = this.connect();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, id);
             pstmt.setString(2, type);
-            pstmt.setDouble(3, amount);
+            pstmt.setLong(3, amountCents);
             pstmt.setString(4, from);
             pstmt.setString(5, to);
             pstmt.setString(6, status);
@@ -190,30 +267,45 @@ public class DatabaseManager {
         return "CUSTOMER"; 
     }
 
-    public double getBalance(String accountId) {
-        String sql = "SELECT balance FROM accounts WHERE account_id = ?";
+    /**
+     * Returns an account's balance in cents, served from the {@link BalanceCache} when possible.
+     * Unknown accounts report 0 and are not cached.
+     */
+    public long getBalance(String accountId) {
+        Long cached = balanceCache.get(accountId);
+        if (cached != null) return cached;
+
+        long stamp = balanceCache.stamp();
+        String sql = "SELECT balance_cents FROM accounts WHERE account_id = ?";
         try (Connection conn = this.connect();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, accountId);
             ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) return rs.getDouble("balance");
+            if (rs.next()) {
+                long balance = rs.getLong("balance_cents");
+                balanceCache.putIfUnchanged(accountId, balance, stamp);
+                return balance;
+            }
         } catch (SQLException e) { }
-        return 0.0;
+        return 0L;
     }
 
-    public void updateBalance(String accountId, double newBalance) {
-        String sql = "UPDATE accounts SET balance = ? WHERE account_id = ?";
+    public void updateBalance(String accountId, long newBalanceCents) {
+        String sql = "UPDATE accounts SET balance_cents = ? WHERE account_id = ?";
         try (Connection conn = this.connect();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setDouble(1, newBalance);
+            pstmt.setLong(1, newBalanceCents);
             pstmt.setString(2, accountId);
             pstmt.executeUpdate();
-        } catch (SQLException e) { }
+        } catch (SQLException e) {
+        } finally {
+            balancesChanged(List.of(accountId));
+        }
     }
 
     public List<String[]> getUserAccounts(String username) {
         List<String[]> accounts = new ArrayList<>();
-        String sql = "SELECT account_id, type, balance FROM accounts WHERE owner_username = ?";
+        String sql = "SELECT account_id, type, balance_cents FROM accounts WHERE owner_username = ?";
         try (Connection conn = this.connect();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
@@ -222,63 +314,203 @@ public class DatabaseManager {
                 accounts.add(new String[]{
                     rs.getString("account_id"),
                     rs.getString("type"),
-                    String.valueOf(rs.getDouble("balance"))
+                    Money.toPlainString(rs.getLong("balance_cents"))
                 });
             }
         } catch (SQLException e) { }
         return accounts;
     }
 
+    /**
+     * Returns an account's full transaction history, newest first.
+     * Prefer {@link #getTransactionHistoryPage} or {@link #streamTransactionHistory}
+     * for busy accounts.
+     */
     public List<String[]> getTransactionHistory(String accountId) {
         List<String[]> history = new ArrayList<>();
-        String sql = "SELECT type, amount, to_acc, timestamp FROM transactions WHERE from_acc = ? OR to_acc = ? ORDER BY timestamp DESC";
+        streamTransactionHistory(accountId, history::add);
+        return history;
+    }
+
+    /**
+     * Hands every transaction of an account to the consumer, newest first,
+     * without building the full history in memory.
+     *
+     * @param accountId The account whose history is read.
+     * @param consumer  Receives one {@code [Type, Amount, To_Acc, Timestamp]} row at a time.
+     */
+    public void streamTransactionHistory(String accountId, Consumer<String[]> consumer) {
+        // Two index seeks merged by timestamp instead of an OR that forces a full scan.
+        // The second branch skips rows already returned by the first (self-transfers).
+        String sql = "SELECT type, amount_cents, to_acc, timestamp FROM transactions WHERE from_acc = ? "
+                + "UNION ALL "
+                + "SELECT type, amount_cents, to_acc, timestamp FROM transactions WHERE to_acc = ? AND from_acc IS NOT ? "
+                + "ORDER BY timestamp DESC";
         try (Connection conn = this.connect();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, accountId);
             pstmt.setString(2, accountId);
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                history.add(new String[]{
-                    rs.getString("type"),
-                    String.valueOf(rs.getDouble("amount")),
-                    rs.getString("to_acc"),
-                    rs.getString("timestamp")
-                });
+            pstmt.setString(3, accountId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(toHistoryRow(rs));
+                }
             }
         } catch (SQLException e) { }
-        return history;
     }
 
-    public String findUser(String criteria, String keyword) {
-        String column = "username";
-        if (criteria.contains("Name")) column = "full_name";
-        else if (criteria.contains("Date")) column = "date_of_birth";
-        else if (criteria.contains("ID")) column = "username";
-        
-        String sql = "SELECT * FROM users WHERE " + column + " LIKE ?";
+    /**
+     * Returns one page of an account's history, newest first, using a keyset cursor
+     * on (timestamp, rowid) so later pages cost the same as the first.
+     *
+     * @param accountId The account whose history is read.
+     * @param cursor    The previous page's {@link HistoryPage#getNextCursor()}, or null for the first page.
+     * @param limit     Maximum number of rows on the page.
+     * @throws IllegalArgumentException if the cursor was not produced by this method.
+     */
+    public HistoryPage getTransactionHistoryPage(String accountId, String cursor, int limit) {
+        // Start after the newest possible row when no cursor is given
+        String afterTimestamp = "\uFFFF";
+        long afterRowId = Long.MAX_VALUE;
+        if (cursor != null) {
+            int sep = cursor.lastIndexOf('|');
+            if (sep < 0) throw new IllegalArgumentException("Invalid history cursor: " + cursor);
+            afterTimestamp = cursor.substring(0, sep);
+            afterRowId = Long.parseLong(cursor.substring(sep + 1));
+        }
+
+        String sql = "SELECT rowid AS rid, type, amount_cents, to_acc, timestamp FROM transactions "
+                + "WHERE from_acc = ? AND (timestamp, rowid) < (?, ?) "
+                + "UNION ALL "
+                + "SELECT rowid AS rid, type, amount_cents, to_acc, timestamp FROM transactions "
+                + "WHERE to_acc = ? AND from_acc IS NOT ? AND (timestamp, rowid) < (?, ?) "
+                + "ORDER BY timestamp DESC, rid DESC LIMIT ?";
+        List<String[]> rows = new ArrayList<>(limit);
+        String nextCursor = null;
         try (Connection conn = this.connect();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, "%" + keyword + "%");
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                String dob = rs.getString("date_of_birth");
-                if (dob == null) dob = "N/A";
-                
-                String phone = rs.getString("phone");
-                if (phone == null) phone = "N/A";
-                
-                String email = rs.getString("email");
-                if (email == null) email = "N/A";
+            pstmt.setString(1, accountId);
+            pstmt.setString(2, afterTimestamp);
+            pstmt.setLong(3, afterRowId);
+            pstmt.setString(4, accountId);
+            pstmt.setString(5, accountId);
+            pstmt.setString(6, afterTimestamp);
+            pstmt.setLong(7, afterRowId);
+            // Fetch one extra row to learn whether another page exists
+            pstmt.setInt(8, limit + 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                String lastKey = null;
+                while (rs.next()) {
+                    if (rows.size() == limit) {
+                        nextCursor = lastKey;
+                        break;
+                    }
+                    rows.add(toHistoryRow(rs));
+                    lastKey = rs.getString("timestamp") + "|" + rs.getLong("rid");
+                }
+            }
+        } catch (SQLException e) { System.out.println(e.getMessage()); }
+        return new HistoryPage(rows, nextCursor);
+    }
 
-                String status = (rs.getInt("is_active") == 1) ? "Active" : "Inactive";
-                
-                return "Found: " + rs.getString("full_name") + 
-                       " (ID: " + rs.getString("username") + ") " +
-                       "[" + status + "] " +
-                       "{DOB: " + dob + ", Phone: " + phone + ", Email: " + email + "}";
+    /**
+     * Loads a customer's profile, accounts and the latest transactions of each account
+     * with three queries on one connection, however many accounts the customer has.
+     * <p>
+     * The recent activity query seeks the {@code from_acc} and {@code to_acc} history
+     * indexes once per account with a correlated {@code LIMIT}, so it reads at most
+     * {@code 2 * recentPerAccount} rows per account no matter how long its history is.
+     * The balances read here are also put in the {@link BalanceCache}.
+     * </p>
+     *
+     * @param username         The customer to load.
+     * @param recentPerAccount Number of latest transactions to return per account.
+     * @return The overview, or null if there is no such user.
+     */
+    public CustomerOverview loadCustomerOverview(String username, int recentPerAccount) {
+        String userSql = "SELECT * FROM users WHERE username = ?";
+        String accountSql = "SELECT account_id, owner_username, type, balance_cents FROM accounts "
+                + "WHERE owner_username = ? ORDER BY account_id";
+        // Same two branches as streamTransactionHistory, limited per account
+        String activitySql = "SELECT a.account_id AS acc, t.type, t.amount_cents, t.to_acc, t.timestamp "
+                + "FROM accounts a JOIN transactions t ON t.rowid IN ("
+                + "SELECT rowid FROM transactions WHERE from_acc = a.account_id ORDER BY timestamp DESC LIMIT ?) "
+                + "WHERE a.owner_username = ? "
+                + "UNION ALL "
+                + "SELECT a.account_id, t.type, t.amount_cents, t.to_acc, t.timestamp "
+                + "FROM accounts a JOIN transactions t ON t.rowid IN ("
+                + "SELECT rowid FROM transactions WHERE to_acc = a.account_id AND from_acc IS NOT a.account_id "
+                + "ORDER BY timestamp DESC LIMIT ?) "
+                + "WHERE a.owner_username = ? "
+                + "ORDER BY acc, timestamp DESC";
+
+        long stamp = balanceCache.stamp();
+        UserRecord profile;
+        List<AccountRecord> accounts = new ArrayList<>();
+        Map<String, List<String[]>> activity = new HashMap<>();
+        try (Connection conn = this.connect()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(userSql)) {
+                pstmt.setString(1, username);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    profile = toUserRecord(rs);
+                }
             }
-        } catch (SQLException e) { }
-        return "No user found matching " + criteria + ": " + keyword;
+            try (PreparedStatement pstmt = conn.prepareStatement(accountSql)) {
+                pstmt.setString(1, username);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        AccountRecord account = toAccountRecord(rs);
+                        accounts.add(account);
+                        activity.put(account.accountId(), new ArrayList<>());
+                    }
+                }
+            }
+            if (!accounts.isEmpty() && recentPerAccount > 0) {
+                try (PreparedStatement pstmt = conn.prepareStatement(activitySql)) {
+                    pstmt.setInt(1, recentPerAccount);
+                    pstmt.setString(2, username);
+                    pstmt.setInt(3, recentPerAccount);
+                    pstmt.setString(4, username);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            // Both branches together may return up to twice the limit
+                            List<String[]> rows = activity.computeIfAbsent(rs.getString("acc"), k -> new ArrayList<>());
+                            if (rows.size() < recentPerAccount) rows.add(toHistoryRow(rs));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+            return null;
+        }
+        for (AccountRecord account : accounts) {
+            balanceCache.putIfUnchanged(account.accountId(), account.balanceCents(), stamp);
+        }
+        return new CustomerOverview(profile, accounts, activity);
+    }
+
+    private String[] toHistoryRow(ResultSet rs) throws SQLException {
+        return new String[]{
+            rs.getString("type"),
+            Money.toPlainString(rs.getLong("amount_cents")),
+            rs.getString("to_acc"),
+            rs.getString("timestamp")
+        };
+    }
+
+    /**
+     * Searches users by name, date of birth, phone or username (the default), one page at a time.
+     * Name, phone and username searches use the full-text index when the keyword is long enough.
+     *
+     * @param criteria The field to search by (e.g., "Name", "Date of Birth", "Customer ID").
+     * @param keyword  The substring to look for.
+     * @param cursor   The previous page's cursor, or null for the first page.
+     * @param limit    Maximum number of users per page.
+     */
+    public SearchResults<UserRecord> findUsers(String criteria, String keyword, String cursor, int limit) {
+        return searchUsers(userColumn(criteria), keyword, false, cursor, limit);
     }
 
     public boolean userExists(String username) {
@@ -293,79 +525,531 @@ public class DatabaseManager {
         }
     }
 
-    public String findEmployees(String criteria, String keyword) {
-        String column = "username";
-        if (criteria.contains("Name")) column = "full_name";
-        if (criteria.contains("ID")) column = "username";
+    /**
+     * Searches tellers and admins by name or username, one page at a time.
+     *
+     * @see #findUsers
+     */
+    public SearchResults<UserRecord> findEmployees(String criteria, String keyword, String cursor, int limit) {
+        return searchUsers(userColumn(criteria), keyword, true, cursor, limit);
+    }
 
-        String sql = "SELECT * FROM users WHERE role != 'CUSTOMER' AND " + column + " LIKE ?";
-        try (Connection conn = this.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, "%" + keyword + "%");
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                String status = (rs.getInt("is_active") == 1) ? "Active" : "Inactive";
-                return "Found Employee: " + rs.getString("username") + 
-                       " (" + rs.getString("role") + ") - " + status;
+    private static String userColumn(String criteria) {
+        if (criteria.contains("Name")) return "full_name";
+        if (criteria.contains("Phone")) return "phone";
+        if (criteria.contains("Date")) return "date_of_birth";
+        return "username";
+    }
+
+    /**
+     * Pages through matching users in id order; the cursor position is the last id returned.
+     */
+    private SearchResults<UserRecord> searchUsers(String column, String keyword, boolean employeesOnly, String cursor, int limit) {
+        boolean fullText = !column.equals("date_of_birth") && isFullTextSearchable(keyword);
+        String roleFilter = employeesOnly ? " AND u.role != 'CUSTOMER'" : "";
+        String param = fullText ? fullTextQuery(column, keyword) : "%" + keyword + "%";
+
+        String pageSql;
+        String countSql;
+        if (fullText) {
+            pageSql = "SELECT u.id, u.* FROM users_fts f JOIN users u ON u.id = f.rowid "
+                    + "WHERE users_fts MATCH ? AND f.rowid > ?" + roleFilter + " ORDER BY f.rowid LIMIT ?";
+            countSql = employeesOnly
+                    ? "SELECT COUNT(*) FROM users_fts f JOIN users u ON u.id = f.rowid WHERE users_fts MATCH ?" + roleFilter
+                    : "SELECT COUNT(*) FROM users_fts WHERE users_fts MATCH ?";
+        } else {
+            pageSql = "SELECT u.id, u.* FROM users u WHERE u." + column + " LIKE ? AND u.id > ?" + roleFilter
+                    + " ORDER BY u.id LIMIT ?";
+            countSql = "SELECT COUNT(*) FROM users u WHERE u." + column + " LIKE ?" + roleFilter;
+        }
+
+        List<UserRecord> page = new ArrayList<>();
+        long lastRowId = 0;
+        boolean more = false;
+        int total = SearchResults.cursorTotal(cursor);
+        try (Connection conn = this.connect()) {
+            if (total < 0) total = count(conn, countSql, param);
+            try (PreparedStatement pstmt = conn.prepareStatement(pageSql)) {
+                pstmt.setString(1, param);
+                pstmt.setLong(2, cursor == null ? Long.MIN_VALUE : parseRowId(cursor));
+                pstmt.setInt(3, limit + 1); // One extra row tells whether another page exists
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (page.size() == limit) {
+                            more = true;
+                            break;
+                        }
+                        lastRowId = rs.getLong(1);
+                        page.add(toUserRecord(rs));
+                    }
+                }
             }
-        } catch (SQLException e) { }
-        return "No employee found.";
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        }
+        String next = more ? SearchResults.cursor(total, Long.toString(lastRowId)) : null;
+        return new SearchResults<>(page, Math.max(total, 0), next);
     }
-    
+
+    /**
+     * Finds users born within an inclusive date range, optionally also matching a name
+     * fragment, in date-of-birth order, one page at a time.
+     * <p>
+     * The range is resolved by a seek on the {@code dob_iso} index, which also supplies
+     * the order; the cursor position is the last {@code dob_iso:id} returned.
+     * </p>
+     *
+     * @param query         The date range and name fragment, see {@link BirthDates#parseQuery}.
+     * @param employeesOnly Whether to leave out customers.
+     * @param cursor        The previous page's cursor, or null for the first page.
+     * @param limit         Maximum number of users per page.
+     */
+    public SearchResults<UserRecord> findUsersBornBetween(BirthDates.Query query, boolean employeesOnly, String cursor, int limit) {
+        String filter = "u.dob_iso BETWEEN ? AND ?"
+                + (query.name().isEmpty() ? "" : " AND u.full_name LIKE ?")
+                + (employeesOnly ? " AND u.role != 'CUSTOMER'" : "");
+        String pageSql = "SELECT u.id, u.* FROM users u WHERE " + filter
+                + " AND (u.dob_iso, u.id) > (?, ?) ORDER BY u.dob_iso, u.id LIMIT ?";
+        String countSql = "SELECT COUNT(*) FROM users u WHERE " + filter;
+
+        String afterDob = "";
+        long afterRowId = Long.MIN_VALUE;
+        if (cursor != null) {
+            String[] position = SearchResults.cursorPosition(cursor).split(":", 2);
+            if (position.length != 2) throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+            afterDob = position[0];
+            afterRowId = parseRowId(position[1], cursor);
+        }
+
+        List<UserRecord> page = new ArrayList<>();
+        String next = null;
+        int total = SearchResults.cursorTotal(cursor);
+        try (Connection conn = this.connect()) {
+            if (total < 0) {
+                try (PreparedStatement pstmt = conn.prepareStatement(countSql)) {
+                    bindBirthDateFilter(pstmt, query);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        total = rs.next() ? rs.getInt(1) : 0;
+                    }
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(pageSql)) {
+                int p = bindBirthDateFilter(pstmt, query);
+                pstmt.setString(p++, afterDob);
+                pstmt.setLong(p++, afterRowId);
+                pstmt.setInt(p, limit + 1); // One extra row tells whether another page exists
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    String lastDob = null;
+                    long lastRowId = 0;
+                    while (rs.next()) {
+                        if (page.size() == limit) {
+                            next = SearchResults.cursor(total, lastDob + ":" + lastRowId);
+                            break;
+                        }
+                        lastRowId = rs.getLong(1);
+                        lastDob = rs.getString("dob_iso");
+                        page.add(toUserRecord(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        }
+        return new SearchResults<>(page, Math.max(total, 0), next);
+    }
+
+    /**
+     * Binds the date range and name fragment and returns the next parameter index.
+     */
+    private static int bindBirthDateFilter(PreparedStatement pstmt, BirthDates.Query query) throws SQLException {
+        int p = 1;
+        pstmt.setString(p++, query.from());
+        pstmt.setString(p++, query.to());
+        if (!query.name().isEmpty()) pstmt.setString(p++, "%" + query.name() + "%");
+        return p;
+    }
+
+    /**
+     * Finds users whose name sounds like or is spelled like the given name, best matches
+     * first, one page at a time.
+     * <p>
+     * Users are ranked by their {@link NameKeys} matches: each word of the name that
+     * sounds alike scores {@value NameKeys#PHONETIC_WEIGHT}, and {@value NameKeys#EXACT_WEIGHT}
+     * more if it is also spelled the same. Ties are broken by user id. Both
+     * the ranking and the page come from one pass over the key index, without reading
+     * the users table for anyone outside the page.
+     * </p>
+     *
+     * @param name   The name as the teller typed it, possibly misspelled.
+     * @param cursor The previous page's cursor, or null for the first page.
+     * @param limit  Maximum number of users per page.
+     */
+    public SearchResults<UserRecord> findUsersByNameSound(String name, String cursor, int limit) {
+        List<String> keys = new ArrayList<>(NameKeys.keys(name));
+        if (keys.isEmpty()) return new SearchResults<>(List.of(), 0, null);
+
+        String in = String.join(",", Collections.nCopies(keys.size(), "?"));
+        String ranked = "SELECT user_id, SUM(CASE WHEN name_key LIKE 'n:%' THEN " + NameKeys.EXACT_WEIGHT
+                + " ELSE " + NameKeys.PHONETIC_WEIGHT + " END) AS score "
+                + "FROM user_name_keys WHERE name_key IN (" + in + ") GROUP BY user_id";
+        String pageSql = "SELECT r.score, u.id, u.* FROM (" + ranked
+                + " HAVING score < ? OR (score = ? AND user_id > ?) ORDER BY score DESC, user_id LIMIT ?) r "
+                + "JOIN users u ON u.id = r.user_id ORDER BY r.score DESC, r.user_id";
+        String countSql = "SELECT COUNT(DISTINCT user_id) FROM user_name_keys WHERE name_key IN (" + in + ")";
+
+        // Position "<score>:<id>" of the last user returned
+        long afterScore = Long.MAX_VALUE;
+        long afterRowId = Long.MIN_VALUE;
+        if (cursor != null) {
+            String[] position = SearchResults.cursorPosition(cursor).split(":", 2);
+            if (position.length != 2) throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+            afterScore = parseRowId(position[0], cursor);
+            afterRowId = parseRowId(position[1], cursor);
+        }
+
+        List<UserRecord> page = new ArrayList<>();
+        String next = null;
+        int total = SearchResults.cursorTotal(cursor);
+        try (Connection conn = this.connect()) {
+            if (total < 0) {
+                try (PreparedStatement pstmt = conn.prepareStatement(countSql)) {
+                    for (int i = 0; i < keys.size(); i++) pstmt.setString(i + 1, keys.get(i));
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        total = rs.next() ? rs.getInt(1) : 0;
+                    }
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(pageSql)) {
+                int p = 1;
+                for (String key : keys) pstmt.setString(p++, key);
+                pstmt.setLong(p++, afterScore);
+                pstmt.setLong(p++, afterScore);
+                pstmt.setLong(p++, afterRowId);
+                pstmt.setInt(p, limit + 1); // One extra row tells whether another page exists
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    long lastScore = 0;
+                    long lastRowId = 0;
+                    while (rs.next()) {
+                        if (page.size() == limit) {
+                            next = SearchResults.cursor(total, lastScore + ":" + lastRowId);
+                            break;
+                        }
+                        lastScore = rs.getLong(1);
+                        lastRowId = rs.getLong(2);
+                        page.add(toUserRecord(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        }
+        return new SearchResults<>(page, Math.max(total, 0), next);
+    }
+
     public boolean deleteUser(String username) {
         // Soft delete: Set is_active to 0
-        String sql = "UPDATE users SET is_active = 0 WHERE username = ?";
-        try (Connection conn = this.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            return pstmt.executeUpdate() > 0;
-        } catch (SQLException e) { return false; }
+        return setUserActive(username, false);
     }
 
     public boolean activateUser(String username) {
-        String sql = "UPDATE users SET is_active = 1 WHERE username = ?";
+        return setUserActive(username, true);
+    }
+
+    private boolean setUserActive(String username, boolean active) {
+        String sql = "UPDATE users SET is_active = ? WHERE username = ?";
+        boolean updated;
         try (Connection conn = this.connect();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            return pstmt.executeUpdate() > 0;
+            pstmt.setInt(1, active ? 1 : 0);
+            pstmt.setString(2, username);
+            updated = pstmt.executeUpdate() > 0;
         } catch (SQLException e) { return false; }
+
+        if (updated) {
+            for (UserChangeListener listener : userListeners) {
+                listener.userActivationChanged(username, active);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Hands every user to the consumer, in id order, without building a list.
+     * Users are read in chunks of 10000 rows on separately borrowed connections, so a
+     * slow consumer never holds a pooled connection for long.
+     *
+     * @param consumer Receives one {@code [username, role, full_name, date_of_birth, phone, email, is_active]} row at a time.
+     */
+    public void streamUsers(Consumer<String[]> consumer) {
+        String sql = "SELECT id, username, role, full_name, date_of_birth, phone, email, is_active FROM users "
+                + "WHERE id > ? ORDER BY id LIMIT 10000";
+        long lastRowId = Long.MIN_VALUE;
+        boolean more = true;
+        while (more) {
+            more = false;
+            try (Connection conn = this.connect();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setLong(1, lastRowId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        more = true;
+                        lastRowId = rs.getLong("id");
+                        consumer.accept(new String[]{
+                            rs.getString("username"),
+                            rs.getString("role"),
+                            rs.getString("full_name"),
+                            rs.getString("date_of_birth"),
+                            rs.getString("phone"),
+                            rs.getString("email"),
+                            rs.getString("is_active")
+                        });
+                    }
+                }
+            } catch (SQLException e) {
+                System.out.println(e.getMessage());
+                return;
+            }
+        }
     }
     
     /**
-     * Searches for an account using complex criteria (Name, Phone, ID).
-     * Uses SQL JOINs to link Accounts to Users for name/phone searches.
+     * Hands every username to the consumer, in key order, reading 10000 at a time.
      */
-    public String findAccounts(String criteria, String keyword) {
-        String sql;
-        
-        if (criteria.contains("Name")) {
-            sql = "SELECT a.* FROM accounts a JOIN users u ON a.owner_username = u.username WHERE u.full_name LIKE ?";
-        } else if (criteria.contains("Phone")) {
-            sql = "SELECT a.* FROM accounts a JOIN users u ON a.owner_username = u.username WHERE u.phone LIKE ?";
-        } else {
-            // Default to Account ID search
-            sql = "SELECT * FROM accounts WHERE account_id LIKE ?";
+    public void streamUsernames(Consumer<String> consumer) {
+        streamKeys("SELECT username FROM users WHERE username > ? ORDER BY username LIMIT 10000", consumer);
+    }
+
+    /**
+     * Hands every account ID to the consumer, in key order, reading 10000 at a time.
+     */
+    public void streamAccountIds(Consumer<String> consumer) {
+        streamKeys("SELECT account_id FROM accounts WHERE account_id > ? ORDER BY account_id LIMIT 10000", consumer);
+    }
+
+    /**
+     * Hands every account ID and its balance in cents to the consumer, in key order,
+     * reading 10000 at a time.
+     */
+    public void streamAccountBalances(ObjLongConsumer<String> consumer) {
+        String sql = "SELECT account_id, balance_cents FROM accounts WHERE account_id > ? ORDER BY account_id LIMIT 10000";
+        String last = "";
+        boolean more = true;
+        while (more) {
+            more = false;
+            try (Connection conn = this.connect();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, last);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        more = true;
+                        last = rs.getString(1);
+                        consumer.accept(last, rs.getLong(2));
+                    }
+                }
+            } catch (SQLException e) {
+                System.out.println(e.getMessage());
+                return;
+            }
         }
+    }
 
-        try (Connection conn = this.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, "%" + keyword + "%");
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return "ID: " + rs.getString("account_id") + 
-                       ", Type: " + rs.getString("type") +
-                       ", Owner: " + rs.getString("owner_username") + 
-                       ", Balance: $" + rs.getDouble("balance");
+    /**
+     * Pages through a text primary key with the given keyset query, one borrowed connection per chunk.
+     */
+    private void streamKeys(String sql, Consumer<String> consumer) {
+        String last = "";
+        boolean more = true;
+        while (more) {
+            more = false;
+            try (Connection conn = this.connect();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, last);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        more = true;
+                        last = rs.getString(1);
+                        consumer.accept(last);
+                    }
+                }
+            } catch (SQLException e) {
+                System.out.println(e.getMessage());
+                return;
             }
-        } catch (SQLException e) { System.out.println(e.getMessage()); }
-        return "No account found matching " + criteria + ": " + keyword;
+        }
+    }
+
+    /**
+     * Searches accounts by owner name, owner phone or account ID (the default), one page at a time.
+     * <p>
+     * Account ID searches page through accounts in rowid order. Name and phone searches
+     * walk matching owners in id order (through the full-text index when the keyword
+     * is long enough) and list each owner's accounts by account ID, so no step has to
+     * sort the full result.
+     * </p>
+     *
+     * @param criteria The field to search by (e.g., "Account ID", "Name", "Phone").
+     * @param keyword  The substring to look for.
+     * @param cursor   The previous page's cursor, or null for the first page.
+     * @param limit    Maximum number of accounts per page.
+     */
+    public SearchResults<AccountRecord> findAccounts(String criteria, String keyword, String cursor, int limit) {
+        String column = null;
+        if (criteria.contains("Name")) column = "full_name";
+        else if (criteria.contains("Phone")) column = "phone";
+
+        List<AccountRecord> page = new ArrayList<>();
+        int total = SearchResults.cursorTotal(cursor);
+        String next = null;
+        try (Connection conn = this.connect()) {
+            if (column == null) {
+                String param = "%" + keyword + "%";
+                if (total < 0) total = count(conn, "SELECT COUNT(*) FROM accounts WHERE account_id LIKE ?", param);
+                long lastRowId = 0;
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "SELECT rowid, account_id, owner_username, type, balance_cents FROM accounts "
+                                + "WHERE account_id LIKE ? AND rowid > ? ORDER BY rowid LIMIT ?")) {
+                    pstmt.setString(1, param);
+                    pstmt.setLong(2, cursor == null ? Long.MIN_VALUE : parseRowId(cursor));
+                    pstmt.setInt(3, limit + 1);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            if (page.size() == limit) {
+                                next = SearchResults.cursor(total, Long.toString(lastRowId));
+                                break;
+                            }
+                            lastRowId = rs.getLong(1);
+                            page.add(toAccountRecord(rs));
+                        }
+                    }
+                }
+            } else {
+                boolean fullText = isFullTextSearchable(keyword);
+                String param = fullText ? fullTextQuery(column, keyword) : "%" + keyword + "%";
+                if (total < 0) {
+                    total = count(conn, fullText
+                            ? "SELECT COUNT(*) FROM users_fts f JOIN users u ON u.id = f.rowid "
+                                + "JOIN accounts a ON a.owner_username = u.username WHERE users_fts MATCH ?"
+                            // CROSS JOIN keeps users as the outer loop: the LIKE has to scan users
+                            // anyway, and each match then seeks its accounts on idx_accounts_owner
+                            : "SELECT COUNT(*) FROM users u CROSS JOIN accounts a ON a.owner_username = u.username "
+                                + "WHERE u." + column + " LIKE ?", param);
+                }
+                String ownerSql = fullText
+                        ? "SELECT u.id, u.username FROM users_fts f JOIN users u ON u.id = f.rowid "
+                            + "WHERE users_fts MATCH ? AND f.rowid >= ? ORDER BY f.rowid LIMIT ?"
+                        : "SELECT id, username FROM users WHERE " + column + " LIKE ? AND id >= ? ORDER BY id LIMIT ?";
+                next = pageAccountsByOwner(conn, ownerSql, param, total, cursor, limit, page);
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        }
+        return new SearchResults<>(page, Math.max(total, 0), next);
+    }
+
+    /**
+     * Fills the page with the accounts of matching owners, resuming after the cursor's
+     * {@code ownerRowId:accountId} position. Returns the next cursor, or null at the end.
+     */
+    private String pageAccountsByOwner(Connection conn, String ownerSql, String param, int total, String cursor,
+                                       int limit, List<AccountRecord> page) throws SQLException {
+        long resumeOwner = Long.MIN_VALUE;
+        String afterAccountId = "";
+        if (cursor != null) {
+            String[] position = SearchResults.cursorPosition(cursor).split(":", 2);
+            if (position.length != 2) throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+            resumeOwner = parseRowId(position[0], cursor);
+            afterAccountId = position[1];
+        }
+        long ownerRowId = resumeOwner;
+
+        String accountSql = "SELECT account_id, owner_username, type, balance_cents FROM accounts "
+                + "WHERE owner_username = ? AND account_id > ? ORDER BY account_id";
+        try (PreparedStatement owners = conn.prepareStatement(ownerSql);
+             PreparedStatement accounts = conn.prepareStatement(accountSql)) {
+            long lastOwner = 0;
+            while (true) {
+                owners.setString(1, param);
+                owners.setLong(2, ownerRowId);
+                owners.setInt(3, limit + 1);
+                int ownersRead = 0;
+                try (ResultSet rs = owners.executeQuery()) {
+                    while (rs.next()) {
+                        ownersRead++;
+                        long rowId = rs.getLong(1);
+                        // Only the cursor's own owner resumes part-way through its accounts
+                        accounts.setString(1, rs.getString(2));
+                        accounts.setString(2, rowId == resumeOwner ? afterAccountId : "");
+                        try (ResultSet acc = accounts.executeQuery()) {
+                            while (acc.next()) {
+                                if (page.size() == limit) {
+                                    AccountRecord last = page.get(page.size() - 1);
+                                    return SearchResults.cursor(total, lastOwner + ":" + last.accountId());
+                                }
+                                page.add(toAccountRecord(acc));
+                                lastOwner = rowId;
+                            }
+                        }
+                        ownerRowId = rowId + 1;
+                    }
+                }
+                if (ownersRead <= limit) return null;
+            }
+        }
+    }
+
+    private static UserRecord toUserRecord(ResultSet rs) throws SQLException {
+        return new UserRecord(rs.getString("username"), rs.getString("role"), rs.getString("full_name"),
+                rs.getString("date_of_birth"), rs.getString("phone"), rs.getString("email"),
+                rs.getInt("is_active") == 1);
+    }
+
+    private static AccountRecord toAccountRecord(ResultSet rs) throws SQLException {
+        return new AccountRecord(rs.getString("account_id"), rs.getString("owner_username"),
+                rs.getString("type"), rs.getLong("balance_cents"));
+    }
+
+    private static int count(Connection conn, String sql, String param) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, param);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private static long parseRowId(String cursor) {
+        return parseRowId(SearchResults.cursorPosition(cursor), cursor);
+    }
+
+    private static long parseRowId(String value, String cursor) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+        }
+    }
+
+    /**
+     * The trigram index can only match search terms of at least three code points;
+     * shorter terms fall back to a LIKE scan. Shares its rule with the in-memory index.
+     */
+    private static boolean isFullTextSearchable(String keyword) {
+        return UserSearchIndex.isSearchable(keyword);
+    }
+
+    /**
+     * Builds an FTS5 query matching the keyword as a substring of one column.
+     * The keyword is quoted as a phrase so that FTS5 operators in user input are taken literally.
+     */
+    private static String fullTextQuery(String column, String keyword) {
+        return column + " : \"" + keyword.replace("\"", "\"\"") + "\"";
     }
 
     // --- TRANSACTION MANAGEMENT ---
 
     public List<String[]> getPendingTransactions() {
         List<String[]> list = new ArrayList<>();
-        String sql = "SELECT id, from_acc, amount, type FROM transactions WHERE status = 'PENDING_REVIEW'";
+        String sql = "SELECT id, from_acc, amount_cents, type FROM transactions WHERE status = 'PENDING_REVIEW'";
         try (Connection conn = this.connect();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
@@ -373,7 +1057,7 @@ public class DatabaseManager {
                 list.add(new String[]{
                     rs.getString("id"),
                     rs.getString("from_acc"),
-                    "$" + rs.getDouble("amount"),
+                    Money.format(rs.getLong("amount_cents")),
                     rs.getString("type")
                 });
             }
@@ -381,6 +1065,39 @@ public class DatabaseManager {
         return list;
     }
 
+    /**
+     * Marks a transaction held for review CANCELLED. A transaction that is no longer
+     * pending, e.g. one already approved, is left alone.
+     *
+     * @return true if the transaction was pending and is now cancelled.
+     */
+    public boolean cancelPendingTransaction(String id) {
+        String sql = "UPDATE transactions SET status = 'CANCELLED' WHERE id = ? AND status = 'PENDING_REVIEW'";
+        try (Connection conn = this.connect();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, id);
+            return pstmt.executeUpdate() == 1;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the transaction's status, or null if there is no such transaction.
+     */
+    public String getTransactionStatus(String id) {
+        String sql = "SELECT status FROM transactions WHERE id = ?";
+        try (Connection conn = this.connect();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
     public void updateTransactionStatus(String id, String status) {
         String sql = "UPDATE transactions SET status = ? WHERE id = ?";
         try (Connection conn = this.connect();
@@ -391,15 +1108,15 @@ public class DatabaseManager {
         } catch (SQLException e) { }
     }
     
-    public double getTransactionAmount(String id) {
-        String sql = "SELECT amount FROM transactions WHERE id = ?";
+    public long getTransactionAmount(String id) {
+        String sql = "SELECT amount_cents FROM transactions WHERE id = ?";
         try (Connection conn = this.connect();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, id);
             ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) return rs.getDouble("amount");
+            if (rs.next()) return rs.getLong("amount_cents");
         } catch (SQLException e) { }
-        return 0.0;
+        return 0L;
     }
     
     public String[] getTransactionParties(String id) {
@@ -419,9 +1136,9 @@ public class DatabaseManager {
      *
      * @return true if successful, false if error occurred.
      */
-    public boolean transfer(String fromId, String toId, double amount) {
-        String withdrawSql = "UPDATE accounts SET balance = balance - ? WHERE account_id = ?";
-        String depositSql = "UPDATE accounts SET balance = balance + ? WHERE account_id = ?";
+    public boolean transfer(String fromId, String toId, long amountCents) {
+        String withdrawSql = "UPDATE accounts SET balance_cents = balance_cents - ? WHERE account_id = ?";
+        String depositSql = "UPDATE accounts SET balance_cents = balance_cents + ? WHERE account_id = ?";
         
         try (Connection conn = this.connect()) {
             conn.setAutoCommit(false); // Start Atomic Transaction
@@ -430,16 +1147,17 @@ public class DatabaseManager {
                  PreparedStatement dStmt = conn.prepareStatement(depositSql)) {
                 
                 // Step 1: Withdraw from Sender
-                wStmt.setDouble(1, amount);
+                wStmt.setLong(1, amountCents);
                 wStmt.setString(2, fromId);
                 wStmt.executeUpdate();
                 
                 // Step 2: Deposit to Receiver
-                dStmt.setDouble(1, amount);
+                dStmt.setLong(1, amountCents);
                 dStmt.setString(2, toId);
                 dStmt.executeUpdate();
                 
                 conn.commit(); // Commit Both Steps
+                balancesChanged(List.of(fromId, toId));
                 return true;
             } catch (SQLException e) {
                 conn.rollback(); // Undo Both if Error
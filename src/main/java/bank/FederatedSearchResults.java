@@ -0,0 +1,47 @@
+package bank;
+
+import java.util.List;
+
+/**
+ * The merged, ranked results of one search across customers, accounts and employees.
+ */
+public final class FederatedSearchResults {
+    private final List<SearchHit> hits;
+    private final int totalCount;
+    private final List<String> timedOut;
+
+    public FederatedSearchResults(List<SearchHit> hits, int totalCount, List<String> timedOut) {
+        this.hits = hits;
+        this.totalCount = totalCount;
+        this.timedOut = timedOut;
+    }
+
+    /**
+     * @return The best matches, highest score first.
+     */
+    public List<SearchHit> getHits() {
+        return hits;
+    }
+
+    /**
+     * @return The number of distinct records found by the searches that finished. It is
+     *         exact when every search returned all of its matches; a search with more
+     *         matches than the limit adds the ones it did not return as it counted them,
+     *         so the total is then an upper bound.
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return The searches (e.g. "ACCOUNT/Account ID") that did not finish within the
+     *         latency budget and are missing from the hits.
+     */
+    public List<String> getTimedOut() {
+        return timedOut;
+    }
+
+    public boolean isComplete() {
+        return timedOut.isEmpty();
+    }
+}
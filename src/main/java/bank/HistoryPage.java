@@ -0,0 +1,36 @@
+package bank;
+
+import java.util.List;
+
+/**
+ * One page of an account's transaction history, newest first.
+ * <p>
+ * Rows have the same layout as {@link DatabaseManager#getTransactionHistory(String)}:
+ * {@code [Type, Amount, To_Acc, Timestamp]}. The cursor is an opaque token that is
+ * passed back to fetch the page that follows; it is {@code null} on the last page.
+ * </p>
+ */
+public final class HistoryPage {
+    private final List<String[]> rows;
+    private final String nextCursor;
+
+    public HistoryPage(List<String[]> rows, String nextCursor) {
+        this.rows = rows;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<String[]> getRows() {
+        return rows;
+    }
+
+    /**
+     * @return The token for the next page, or {@code null} if there are no older rows.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,261 @@
+package bank;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A single dedicated thread that writes postings to the ledger using group commit.
+ * <p>
+ * Callers {@link #submit(Posting) submit} postings to a queue and get a future back.
+ * The writer thread drains the queue into batches (bounded by a maximum size and a
+ * maximum wait), applies every posting of a batch inside one database transaction and
+ * commits once, so concurrent tellers share a single fsync instead of paying one each.
+ * Each posting runs under its own savepoint: a posting that fails (e.g. insufficient
+ * funds) is rolled back on its own without affecting the rest of the batch.
+ * Futures are completed only after the batch has been committed and the cached balances
+ * of the accounts it touched have been invalidated.
+ * </p>
+ */
+public class LedgerWriter implements AutoCloseable {
+    private final DatabaseManager database;
+    private final PostingEngine engine;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    // Metrics
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong postingCount = new AtomicLong();
+    private final AtomicLong maxBatchSeen = new AtomicLong();
+    private final AtomicLong totalCommitNanos = new AtomicLong();
+    private final AtomicLong maxCommitNanos = new AtomicLong();
+
+    /**
+     * Creates a writer using the {@code bank.ledger.maxBatch} (256) and
+     * {@code bank.ledger.maxDelayMicros} (2000) system properties.
+     */
+    public LedgerWriter(DatabaseManager database, PostingEngine engine) {
+        this(database, engine, Integer.getInteger("bank.ledger.maxBatch", 256),
+                Long.getLong("bank.ledger.maxDelayMicros", 2000L));
+    }
+
+    /**
+     * Creates and starts the writer thread.
+     *
+     * @param database       The database providing the writer's connection.
+     * @param engine         The engine that applies each posting.
+     * @param maxBatchSize   Maximum number of postings per commit.
+     * @param maxDelayMicros How long the writer waits for more postings after the first one
+     *                       of a batch arrives; 0 commits whatever is already queued.
+     */
+    public LedgerWriter(DatabaseManager database, PostingEngine engine, int maxBatchSize, long maxDelayMicros) {
+        if (maxBatchSize < 1) throw new IllegalArgumentException("Batch size must be at least 1");
+        this.database = database;
+        this.engine = engine;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+
+        this.writerThread = new Thread(this::run, "ledger-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queues a posting for the next group commit.
+     *
+     * @param posting The posting to write.
+     * @return A future completed with the result once the posting's batch has been committed.
+     *         How durable that commit is depends on the storage profile: under
+     *         {@link StorageProfile#BALANCED} (synchronous=NORMAL) a power loss may still roll
+     *         back the latest commits. Completed with ERROR if the writer has been closed.
+     */
+    public CompletableFuture<PostingResult> submit(Posting posting) {
+        CompletableFuture<PostingResult> future = new CompletableFuture<>();
+        if (!running) {
+            future.complete(PostingResult.ERROR);
+            return future;
+        }
+        Request request = new Request(posting, future);
+        queue.add(request);
+        // close() may have run between the check and the add, and the writer may already have
+        // drained the queue for the last time. Whoever removes the request completes it.
+        if (!running && queue.remove(request)) future.complete(PostingResult.ERROR);
+        return future;
+    }
+
+    /**
+     * Submits a posting and waits for it to be committed.
+     */
+    public PostingResult post(Posting posting) {
+        return submit(posting).join();
+    }
+
+    /**
+     * Whether the caller is the writer thread, e.g. to tell its own balance changes apart.
+     */
+    boolean isWriterThread() {
+        return Thread.currentThread() == writerThread;
+    }
+
+    private void run() {
+        List<Request> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Request first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                try {
+                    fillBatch(batch);
+                } catch (InterruptedException e) {
+                    // Stop accepting postings, but still write the ones already taken from the queue
+                    running = false;
+                }
+                commitBatch(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (RuntimeException e) {
+                System.out.println("Ledger writer error: " + e.getMessage());
+                for (Request request : batch) request.future.complete(PostingResult.ERROR);
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // Fail anything left behind, e.g. if the thread was interrupted, so no caller waits forever
+        Request request;
+        while ((request = queue.poll()) != null) {
+            request.future.complete(PostingResult.ERROR);
+        }
+    }
+
+    /**
+     * Adds already-queued postings to the batch, then waits up to the max delay for more.
+     */
+    private void fillBatch(List<Request> batch) throws InterruptedException {
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) break;
+            Request next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) break;
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    /**
+     * Applies the batch in one transaction and completes each future after the commit.
+     */
+    private void commitBatch(List<Request> batch) {
+        PostingResult[] results = new PostingResult[batch.size()];
+        Set<String> touched = new HashSet<>();
+        long start = System.nanoTime();
+
+        try (Connection conn = database.connect()) {
+            conn.setAutoCommit(false);
+            try {
+                for (int i = 0; i < batch.size(); i++) {
+                    Savepoint savepoint = conn.setSavepoint();
+                    PostingResult result;
+                    try {
+                        result = engine.apply(conn, batch.get(i).posting, touched);
+                    } catch (SQLException e) {
+                        // e.g. a duplicate transaction ID: fail this posting only
+                        System.out.println("Posting failed: " + e.getMessage());
+                        result = PostingResult.ERROR;
+                    }
+                    if (PostingEngine.isDurable(result)) {
+                        conn.releaseSavepoint(savepoint);
+                    } else {
+                        conn.rollback(savepoint);
+                    }
+                    results[i] = result;
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.out.println("Group commit failed: " + e.getMessage());
+            for (Request request : batch) request.future.complete(PostingResult.ERROR);
+            return;
+        }
+
+        // Accounts of rolled-back postings may be included; dropping them is harmless
+        database.balancesChanged(touched);
+        recordBatch(batch.size(), System.nanoTime() - start);
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future.complete(results[i]);
+        }
+    }
+
+    private void recordBatch(int size, long nanos) {
+        batchCount.incrementAndGet();
+        postingCount.addAndGet(size);
+        maxBatchSeen.accumulateAndGet(size, Math::max);
+        totalCommitNanos.addAndGet(nanos);
+        maxCommitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Stops accepting postings, writes everything already queued and stops the thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Metrics ---
+
+    public long getBatchCount() { return batchCount.get(); }
+
+    public long getPostingCount() { return postingCount.get(); }
+
+    public long getMaxBatchSize() { return maxBatchSeen.get(); }
+
+    public int getQueueDepth() { return queue.size(); }
+
+    public double getAverageBatchSize() {
+        long batches = batchCount.get();
+        return batches == 0 ? 0.0 : (double) postingCount.get() / batches;
+    }
+
+    public double getAverageCommitMillis() {
+        long batches = batchCount.get();
+        return batches == 0 ? 0.0 : totalCommitNanos.get() / (batches * 1_000_000.0);
+    }
+
+    public double getMaxCommitMillis() {
+        return maxCommitNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LedgerWriter[batches=%d, postings=%d, avgBatch=%.1f, maxBatch=%d, avgCommit=%.3fms, maxCommit=%.3fms, queued=%d]",
+                getBatchCount(), getPostingCount(), getAverageBatchSize(), getMaxBatchSize(),
+                getAverageCommitMillis(), getMaxCommitMillis(), getQueueDepth());
+    }
+
+    private record Request(Posting posting, CompletableFuture<PostingResult> future) {
+    }
+}
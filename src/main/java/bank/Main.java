@@ -1,7 +1,11 @@
 package bank;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 import javax.swing.SwingUtilities;
 
+import bank.api.ApiServer;
 import bank.ui.LoginScreen;
 
 /**
@@ -16,13 +20,47 @@ public class Main {
     /**
      * The main method acts as the application's execution start point.
      *
-     * @param args Command-line arguments (not currently used in this application).
+     * @param args Command-line arguments. {@code --profile=NAME} selects the SQLite
+     *             storage profile (durable, balanced or throughput).
+     *             {@code --import=FILE} runs a headless bulk import of a transaction file
+     *             instead of the GUI, committing {@code --chunk=N} rows at a time.
+     *             {@code --api} serves the HTTP JSON API instead of the GUI, on
+     *             {@code --port=N} (default: the {@code bank.api.port} system property, or 8080).
      */
     public static void main(String[] args) {
+        StorageProfile profile = StorageProfile.fromSystemProperties();
+        String importFile = null;
+        int chunkSize = 10_000;
+        boolean api = false;
+        int port = Integer.getInteger("bank.api.port", 8080);
+        for (String arg : args) {
+            if (arg.startsWith("--profile=")) {
+                profile = StorageProfile.fromName(arg.substring("--profile=".length()));
+            } else if (arg.startsWith("--import=")) {
+                importFile = arg.substring("--import=".length());
+            } else if (arg.startsWith("--chunk=")) {
+                chunkSize = Integer.parseInt(arg.substring("--chunk=".length()));
+            } else if (arg.equals("--api")) {
+                api = true;
+            } else if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(arg.substring("--port=".length()));
+            }
+        }
+
+        if (importFile != null) {
+            runImport(profile, Path.of(importFile), chunkSize);
+            return;
+        }
+        if (api) {
+            runApi(profile, port);
+            return;
+        }
+
         // 1. Initialize the Core System Facade
         // The UIManager acts as the central bridge between the UI and the Backend (Database/Logic).
         // It is instantiated once here and passed to all UI screens to ensure they share the same state.
-        UIManager appController = new UIManager();
+        UIManager appController = new UIManager(profile);
+        Runtime.getRuntime().addShutdownHook(new Thread(appController::close, "shutdown"));
 
         // 2. Launch the User Interface
         // Swing components are not thread-safe and must be initialized on the Event Dispatch Thread (EDT).
@@ -35,4 +73,53 @@ public class Main {
             loginWindow.setVisible(true);
         });
     }
+
+    /**
+     * Serves the HTTP JSON API without starting the GUI, until the process is stopped.
+     */
+    private static void runApi(StorageProfile profile, int port) {
+        UIManager appController = new UIManager(profile);
+        try {
+            ApiServer server = new ApiServer(appController, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop(1);
+                appController.close();
+            }, "shutdown"));
+            server.start();
+            System.out.println("API listening on port " + server.getPort());
+        } catch (IOException e) {
+            System.out.println("Cannot start the API: " + e.getMessage());
+            appController.close();
+        }
+    }
+
+    /**
+     * Imports a transaction file without starting the GUI and prints a summary report.
+     * Refuses to run while the in-memory ledger has files, since it would not see the
+     * imported balances.
+     */
+    private static void runImport(StorageProfile profile, Path file, int chunkSize) {
+        if (MemoryLedger.hasFiles()) {
+            System.out.println("Import refused: the in-memory ledger has a journal or snapshot. Stop the bank and "
+                    + "start it once without -Dbank.ledger.memory to write them into the database, then import.");
+            return;
+        }
+        DatabaseManager database = new DatabaseManager(profile);
+        try {
+            BulkImporter importer = new BulkImporter(database, new RiskVerification(), chunkSize);
+            BulkImporter.Report report = importer.importFile(file);
+
+            System.out.println(report);
+            for (String rejection : report.getRejections()) {
+                System.out.println("  Rejected " + rejection);
+            }
+            if (report.getRowsRejected() > report.getRejections().size()) {
+                System.out.println("  ... and " + (report.getRowsRejected() - report.getRejections().size()) + " more");
+            }
+        } catch (IOException e) {
+            System.out.println("Import failed: " + e.getMessage());
+        } finally {
+            database.close();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,793 @@
+package bank;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.zip.CRC32;
+
+/**
+ * An optional in-memory ledger that applies postings at memory speed and writes them
+ * to SQLite behind the caller's back.
+ * <p>
+ * Balances live in a {@code long[]} indexed by a dense account handle, found through an
+ * {@link AccountHandleMap}. A single dedicated thread drains queued postings in batches,
+ * checks funds and moves balances in memory, appends the accepted postings to a journal
+ * file with one write (and fsync) per batch, and only then completes the callers'
+ * futures. The postings are then handed to the {@link LedgerWriter}, which updates
+ * {@code accounts} and {@code transactions} with its usual group commit. Balance reads
+ * are served from memory without locking.
+ * </p>
+ * <p>
+ * Every few postings ({@code bank.ledger.memory.snapshotEvery}, 100000) and on
+ * {@link #close()}, the ledger waits for SQLite to catch up, writes every balance to
+ * a snapshot file and empties the journal. At startup it loads the last snapshot (or
+ * every balance from SQLite if there is none, or if SQLite has transactions newer than
+ * the snapshot), replays the journal into SQLite and reloads the accounts it touched.
+ * Postings whose transaction row SQLite already has (completed, for settlements) are
+ * skipped, so replay is safe to repeat.
+ * </p>
+ * <p>
+ * While the ledger runs it owns the balances: they must only change through it. Accounts
+ * saved through {@link DatabaseManager#saveAccount}, or whose balances are reported
+ * changed by anything but the write-behind, are reloaded from SQLite, and if SQLite
+ * ever rejects a posting that memory accepted, the accounts involved are reloaded once the
+ * write-behind has caught up. Histories and searches read SQLite, so they show a posting
+ * a few milliseconds after its future completes.
+ * </p>
+ */
+public class MemoryLedger implements AutoCloseable {
+    private static final VarHandle BALANCE = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final String SNAPSHOT_HEADER = "MYBANK-LEDGER-SNAPSHOT";
+    // Internal requests that share the posting queue so they run in order with postings
+    private static final String CANCEL = "CANCEL";
+    private static final String RESYNC = "RESYNC";
+
+    private final DatabaseManager database;
+    private final LedgerWriter writeBehind;
+    private final Path journalPath;
+    private final Path snapshotPath;
+    private final int maxBatchSize;
+    private final long snapshotEvery;
+    private final boolean fsync;
+
+    // Written by the ledger thread only; readers validate against the layout lock
+    private final StampedLock layout = new StampedLock();
+    private AccountHandleMap handles;
+    private long[] balances;
+    private String[] accountIds;
+    private int accountCount;
+
+    // Ledger thread only
+    private final Map<String, Posting> pendingReview = new HashMap<>();
+    // Settled in memory but maybe not yet in SQLite; the write-behind evicts them once committed
+    private final Set<String> settled = ConcurrentHashMap.newKeySet();
+    private final FileChannel journal;
+    private long sequence;
+    private long postingsSinceSnapshot;
+    private CompletableFuture<PostingResult> lastWriteBehind;
+
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread ledgerThread;
+    private volatile boolean running = true;
+
+    // Metrics
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong postingCount = new AtomicLong();
+    private final AtomicLong mismatches = new AtomicLong();
+    private final AtomicLong snapshots = new AtomicLong();
+
+    /**
+     * Creates a ledger using the {@code bank.ledger.memory.dir} (.),
+     * {@code bank.ledger.memory.snapshotEvery} (100000) and {@code bank.ledger.memory.fsync}
+     * (true) system properties, and the {@code bank.ledger.maxBatch} (256) batch size.
+     */
+    public MemoryLedger(DatabaseManager database, LedgerWriter writeBehind) {
+        this(database, writeBehind, configuredDirectory(),
+                Integer.getInteger("bank.ledger.maxBatch", 256),
+                Long.getLong("bank.ledger.memory.snapshotEvery", 100_000L),
+                Boolean.parseBoolean(System.getProperty("bank.ledger.memory.fsync", "true")));
+    }
+
+    /**
+     * Recovers from the files in the directory, loads every balance and starts the ledger thread.
+     *
+     * @param database      The database the balances are loaded from.
+     * @param writeBehind   The writer that applies postings to SQLite.
+     * @param directory     Where the journal and snapshot files are kept.
+     * @param maxBatchSize  Maximum number of postings per journal write.
+     * @param snapshotEvery Number of postings between snapshots.
+     * @param fsync         Whether each journal write is forced to disk before postings complete.
+     */
+    public MemoryLedger(DatabaseManager database, LedgerWriter writeBehind, Path directory,
+                        int maxBatchSize, long snapshotEvery, boolean fsync) {
+        if (maxBatchSize < 1) throw new IllegalArgumentException("Batch size must be at least 1");
+        if (snapshotEvery < 1) throw new IllegalArgumentException("Snapshot interval must be at least 1");
+        this.database = database;
+        this.writeBehind = writeBehind;
+        this.journalPath = directory.resolve("ledger.journal");
+        this.snapshotPath = directory.resolve("ledger.snapshot");
+        this.maxBatchSize = maxBatchSize;
+        this.snapshotEvery = snapshotEvery;
+        this.fsync = fsync;
+
+        handles = new AccountHandleMap(1024);
+        balances = new long[1024];
+        accountIds = new String[1024];
+        try {
+            Files.createDirectories(directory);
+            if (!loadSnapshot()) database.streamAccountBalances(this::addAccount);
+            Set<String> replayed = replayJournal(database, writeBehind, journalPath);
+            for (String accountId : replayed) reload(accountId);
+            this.journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            writeSnapshot();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot recover the in-memory ledger from " + directory, e);
+        }
+
+        database.addAccountChangeListener(new AccountChangeListener() {
+            @Override
+            public void accountSaved(String accountId, String ownerUsername) {
+                resync(accountId);
+            }
+
+            @Override
+            public void balancesChanged(Collection<String> accountIds) {
+                // The write-behind's own commits are already in memory; anything else wrote SQLite directly
+                if (writeBehind.isWriterThread()) return;
+                for (String accountId : accountIds) {
+                    resync(accountId);
+                }
+            }
+        });
+
+        this.ledgerThread = new Thread(this::run, "memory-ledger");
+        ledgerThread.setDaemon(true);
+        ledgerThread.start();
+    }
+
+    /**
+     * Whether the in-memory ledger is enabled with the {@code bank.ledger.memory} system property.
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("bank.ledger.memory");
+    }
+
+    private static Path configuredDirectory() {
+        return Path.of(System.getProperty("bank.ledger.memory.dir", "."));
+    }
+
+    /**
+     * Whether an in-memory run, current or earlier, left a journal or snapshot behind.
+     * Balances must not be written around the ledger while it has any.
+     */
+    public static boolean hasFiles() {
+        Path directory = configuredDirectory();
+        return Files.exists(directory.resolve("ledger.journal")) || Files.exists(directory.resolve("ledger.snapshot"));
+    }
+
+    /**
+     * Writes a journal left by an earlier in-memory run into SQLite and deletes the ledger
+     * files, for starting without the in-memory ledger. Their snapshot would be out of date
+     * by the next in-memory run.
+     */
+    public static void recover(DatabaseManager database, LedgerWriter writeBehind) {
+        Path directory = configuredDirectory();
+        Path journalPath = directory.resolve("ledger.journal");
+        try {
+            if (Files.exists(journalPath)) replayJournal(database, writeBehind, journalPath);
+            Files.deleteIfExists(directory.resolve("ledger.snapshot"));
+            Files.deleteIfExists(journalPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot recover the in-memory ledger journal " + journalPath, e);
+        }
+    }
+
+    /**
+     * Queues a posting.
+     *
+     * @return A future completed with the result once the posting is journaled.
+     */
+    public CompletableFuture<PostingResult> submit(Posting posting) {
+        CompletableFuture<PostingResult> future = new CompletableFuture<>();
+        if (!running) {
+            future.complete(PostingResult.ERROR);
+            return future;
+        }
+        queue.add(new Request(posting, future));
+        return future;
+    }
+
+    /**
+     * Submits a posting and waits for it to be journaled.
+     */
+    public PostingResult post(Posting posting) {
+        return submit(posting).join();
+    }
+
+    /**
+     * Cancels a transaction held for review, so it can no longer be approved, and marks
+     * it CANCELLED in SQLite once its pending row has been written.
+     *
+     * @return true if the transaction was pending and is now cancelled.
+     */
+    public boolean cancel(String txId) {
+        return submit(new Posting(CANCEL, txId, 0L, null, null, null)).join() == PostingResult.SUCCESS;
+    }
+
+    /**
+     * Returns the account's balance in cents. Accounts not in memory are read from
+     * SQLite; unknown accounts report 0.
+     */
+    public long getBalance(String accountId) {
+        long stamp = layout.tryOptimisticRead();
+        try {
+            int handle = handles.get(accountId);
+            long balance = handle < 0 ? 0L : (long) BALANCE.getVolatile(balances, handle);
+            if (layout.validate(stamp)) return handle < 0 ? database.getBalance(accountId) : balance;
+        } catch (RuntimeException e) {
+            // Read arrays that were being resized; retry under the lock
+        }
+        stamp = layout.readLock();
+        try {
+            int handle = handles.get(accountId);
+            if (handle >= 0) return (long) BALANCE.getVolatile(balances, handle);
+        } finally {
+            layout.unlockRead(stamp);
+        }
+        return database.getBalance(accountId);
+    }
+
+    // --- Ledger thread ---
+
+    private void run() {
+        List<Request> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Request first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                applyBatch(batch);
+                if (postingsSinceSnapshot >= snapshotEvery) writeSnapshot();
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Memory ledger error: " + e.getMessage());
+                for (Request request : batch) {
+                    if (request.future != null) request.future.complete(PostingResult.ERROR);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+        try {
+            writeSnapshot();
+            journal.close();
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Memory ledger snapshot failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Applies the batch in memory, journals the accepted postings with one write, completes
+     * the futures and hands the postings to the write-behind.
+     * <p>
+     * A resync or cancel reads or writes SQLite after waiting for the write-behind, so the
+     * postings accepted before it in the batch are journaled and handed over first.
+     * </p>
+     */
+    private void applyBatch(List<Request> batch) throws IOException {
+        PostingResult[] results = new PostingResult[batch.size()];
+        List<Posting> accepted = new ArrayList<>(batch.size());
+        StringBuilder records = new StringBuilder();
+
+        int start = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            Posting posting = batch.get(i).posting;
+            if (RESYNC.equals(posting.type()) || CANCEL.equals(posting.type())) {
+                flush(batch.subList(start, i), results, start, accepted, records);
+                start = i;
+                if (RESYNC.equals(posting.type())) reload(posting.to());
+                else results[i] = cancelPending(posting.txId());
+            } else {
+                int before = accepted.size();
+                results[i] = posting.isSettlement() ? settle(posting.txId(), accepted) : apply(posting, accepted);
+                if (accepted.size() > before) appendRecord(records, ++sequence, accepted.get(before));
+            }
+        }
+        flush(batch.subList(start, batch.size()), results, start, accepted, records);
+        batchCount.incrementAndGet();
+    }
+
+    /**
+     * Journals the accepted postings with one write, completes the requests' futures and
+     * hands the postings to the write-behind, then clears {@code accepted} and {@code records}.
+     * <p>
+     * If the journal write fails, the postings are undone in memory and cut from the journal,
+     * and the requests fail without reaching the write-behind.
+     * </p>
+     *
+     * @param requests The requests applied since the last flush.
+     * @param results  The results of the whole batch.
+     * @param offset   The position of the first request in the batch.
+     * @throws IOException if the journal cannot be cut back after a failed write.
+     */
+    private void flush(List<Request> requests, PostingResult[] results, int offset,
+                       List<Posting> accepted, StringBuilder records) throws IOException {
+        if (!accepted.isEmpty()) {
+            long end = journal.position();
+            try {
+                ByteBuffer bytes = ByteBuffer.wrap(records.toString().getBytes(StandardCharsets.UTF_8));
+                while (bytes.hasRemaining()) journal.write(bytes);
+                if (fsync) journal.force(false);
+            } catch (IOException e) {
+                System.out.println("Memory ledger journal write failed: " + e.getMessage() + "; undoing " + accepted.size() + " postings");
+                undo(accepted);
+                // A torn record would hide every record written after it from replay
+                journal.truncate(end);
+                journal.position(end);
+                for (int i = 0; i < requests.size(); i++) {
+                    if (requests.get(i).future != null) requests.get(i).future.complete(PostingResult.ERROR);
+                }
+                accepted.clear();
+                records.setLength(0);
+                return;
+            }
+        }
+        postingCount.addAndGet(accepted.size());
+        postingsSinceSnapshot += accepted.size();
+
+        for (int i = 0; i < requests.size(); i++) {
+            if (requests.get(i).future != null) requests.get(i).future.complete(results[offset + i]);
+        }
+        for (Posting posting : accepted) writeBehind(posting);
+        accepted.clear();
+        records.setLength(0);
+    }
+
+    /**
+     * Reverts accepted postings that were never journaled, newest first, so memory matches
+     * what was acknowledged again.
+     */
+    private void undo(List<Posting> accepted) {
+        for (int i = accepted.size() - 1; i >= 0; i--) {
+            Posting posting = accepted.get(i);
+            sequence--;
+            if ("PENDING_REVIEW".equals(posting.status())) {
+                pendingReview.remove(posting.txId());
+                continue;
+            }
+            // Accepted postings only name accounts that are in memory
+            if (posting.to() != null) {
+                int credit = handles.get(posting.to());
+                BALANCE.setVolatile(balances, credit, balances[credit] - posting.amountCents());
+            }
+            if (posting.from() != null) {
+                int debit = handles.get(posting.from());
+                BALANCE.setVolatile(balances, debit, balances[debit] + posting.amountCents());
+            }
+            if (posting.isSettlement()) {
+                settled.remove(posting.txId());
+                pendingReview.put(posting.txId(), new Posting(posting.type(), posting.txId(), posting.amountCents(),
+                        posting.from(), posting.to(), "PENDING_REVIEW"));
+            }
+        }
+    }
+
+    /**
+     * Applies a deposit, withdrawal or transfer in memory with the same rules as the
+     * {@link PostingEngine}, adding the posting to journal to {@code accepted} unless it is rejected.
+     */
+    private PostingResult apply(Posting posting, List<Posting> accepted) {
+        if (posting.amountCents() <= 0) return PostingResult.ERROR;
+        if ("PENDING_REVIEW".equals(posting.status())) {
+            // Held for review: record only, balances move on approval
+            pendingReview.put(posting.txId(), posting);
+            accepted.add(posting);
+            return PostingResult.PENDING;
+        }
+        PostingResult result = moveFunds(posting.amountCents(), posting.from(), posting.to());
+        if (result == PostingResult.SUCCESS) {
+            accepted.add(new Posting(posting.type(), posting.txId(), posting.amountCents(), posting.from(), posting.to(), "COMPLETED"));
+        }
+        return result;
+    }
+
+    /**
+     * Applies a transaction held for review, adding a settlement that records its accounts
+     * and amount to {@code accepted} unless it is rejected.
+     */
+    private PostingResult settle(String txId, List<Posting> accepted) {
+        Posting pending = pendingReview.remove(txId);
+        if (pending == null) {
+            if (settled.contains(txId)) return PostingResult.ERROR;
+            pending = loadPending(txId);
+            if (pending == null) return PostingResult.ERROR;
+        }
+        PostingResult result = moveFunds(pending.amountCents(), pending.from(), pending.to());
+        if (result != PostingResult.SUCCESS) {
+            // Stays pending, e.g. until the sender has enough funds
+            pendingReview.put(txId, pending);
+            return result;
+        }
+        settled.add(txId);
+        accepted.add(new Posting("SETTLEMENT", txId, pending.amountCents(), pending.from(), pending.to(), "COMPLETED"));
+        return PostingResult.SUCCESS;
+    }
+
+    /**
+     * Cancels a transaction only if SQLite still has it pending. Its pending row, or the
+     * settlement that ended it, may still be on its way there, so the write-behind is
+     * awaited first. Once cancelled, SQLite no longer offers it to {@link #settle}.
+     */
+    private PostingResult cancelPending(String txId) {
+        awaitWriteBehind();
+        if (!database.cancelPendingTransaction(txId)) return PostingResult.ERROR;
+        pendingReview.remove(txId);
+        return PostingResult.SUCCESS;
+    }
+
+    /**
+     * Debits {@code from} (if any) and credits {@code to} (if any), changing nothing unless both succeed.
+     */
+    private PostingResult moveFunds(long amountCents, String from, String to) {
+        if (from == null && to == null) return PostingResult.ERROR;
+        int debit = -1;
+        if (from != null) {
+            debit = handleOf(from);
+            if (debit < 0 || balances[debit] < amountCents) return PostingResult.INSUFFICIENT;
+        }
+        int credit = -1;
+        if (to != null) {
+            credit = handleOf(to);
+            // Unknown destination account
+            if (credit < 0) return PostingResult.ERROR;
+        }
+        if (debit >= 0) BALANCE.setVolatile(balances, debit, balances[debit] - amountCents);
+        if (credit >= 0) BALANCE.setVolatile(balances, credit, balances[credit] + amountCents);
+        return PostingResult.SUCCESS;
+    }
+
+    /**
+     * Returns the account's handle, loading an account not yet in memory from SQLite,
+     * or -1 if the account does not exist.
+     */
+    private int handleOf(String accountId) {
+        int handle = handles.get(accountId);
+        if (handle >= 0) return handle;
+        // Never posted to through memory, so SQLite is up to date
+        Long balance = loadBalance(accountId);
+        return balance == null ? -1 : addAccount(accountId, balance);
+    }
+
+    /**
+     * Replaces the account's balance with the one in SQLite, after the write-behind has caught up.
+     */
+    private void reload(String accountId) {
+        awaitWriteBehind();
+        Long balance = loadBalance(accountId);
+        int handle = handles.get(accountId);
+        if (handle >= 0) {
+            // An account that disappeared from SQLite keeps no funds
+            BALANCE.setVolatile(balances, handle, balance == null ? 0L : balance);
+        } else if (balance != null) {
+            addAccount(accountId, balance);
+        }
+    }
+
+    private int addAccount(String accountId, long balance) {
+        long stamp = layout.writeLock();
+        try {
+            if (accountCount == balances.length) {
+                balances = Arrays.copyOf(balances, accountCount * 2);
+                accountIds = Arrays.copyOf(accountIds, accountCount * 2);
+            }
+            int handle = accountCount++;
+            balances[handle] = balance;
+            accountIds[handle] = accountId;
+            handles.put(accountId, handle);
+            return handle;
+        } finally {
+            layout.unlockWrite(stamp);
+        }
+    }
+
+    private Long loadBalance(String accountId) {
+        try (Connection conn = database.connect();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT balance_cents FROM accounts WHERE account_id = ?")) {
+            pstmt.setString(1, accountId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot load the balance of " + accountId + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads a transaction held for review from SQLite, for one created before this ledger started.
+     */
+    private Posting loadPending(String txId) {
+        String sql = "SELECT type, amount_cents, from_acc, to_acc FROM transactions WHERE id = ? AND status = 'PENDING_REVIEW'";
+        try (Connection conn = database.connect();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, txId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) return null;
+                return new Posting(rs.getString(1), txId, rs.getLong(2), rs.getString(3), rs.getString(4), "PENDING_REVIEW");
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot load pending transaction " + txId + ": " + e.getMessage(), e);
+        }
+    }
+
+    // --- Write-behind ---
+
+    /**
+     * Hands an accepted posting to SQLite; if SQLite disagrees, its accounts are reloaded.
+     */
+    private void writeBehind(Posting posting) {
+        PostingResult expected = "PENDING_REVIEW".equals(posting.status()) ? PostingResult.PENDING : PostingResult.SUCCESS;
+        Posting toWrite = posting.isSettlement() ? Posting.settlement(posting.txId()) : posting;
+        lastWriteBehind = writeBehind.submit(toWrite);
+        lastWriteBehind.thenAccept(result -> {
+            // SQLite now answers for the settlement, committed or not
+            if (posting.isSettlement()) settled.remove(posting.txId());
+            if (result == expected) return;
+            mismatches.incrementAndGet();
+            System.out.println("Memory ledger: SQLite returned " + result + " for " + posting.txId() + "; reloading its accounts");
+            for (String accountId : new String[]{posting.from(), posting.to()}) {
+                if (accountId != null) resync(accountId);
+            }
+        });
+    }
+
+    /**
+     * Queues a reload of the account's balance from SQLite behind the postings already queued.
+     */
+    private void resync(String accountId) {
+        queue.add(new Request(new Posting(RESYNC, null, 0L, null, accountId, null), null));
+    }
+
+    /**
+     * Waits until every posting handed to the write-behind has been committed.
+     * The writer applies postings in order, so waiting for the last one is enough.
+     */
+    private void awaitWriteBehind() {
+        if (lastWriteBehind != null) lastWriteBehind.join();
+    }
+
+    // --- Journal and snapshots ---
+
+    /**
+     * Appends one journal line: sequence, type, ID, amount, accounts and status, followed by
+     * a CRC of the rest so a line torn by a crash is recognized and ignored.
+     */
+    private static void appendRecord(StringBuilder out, long seq, Posting posting) {
+        String record = seq + "\t" + posting.type() + "\t" + posting.txId() + "\t" + posting.amountCents() + "\t"
+                + nullToEmpty(posting.from()) + "\t" + nullToEmpty(posting.to()) + "\t" + posting.status();
+        out.append(record).append('\t').append(crc(record)).append('\n');
+    }
+
+    private static Posting parseRecord(String line) {
+        int lastTab = line.lastIndexOf('\t');
+        if (lastTab < 0 || !line.substring(lastTab + 1).equals(String.valueOf(crc(line.substring(0, lastTab))))) return null;
+        String[] f = line.substring(0, lastTab).split("\t", -1);
+        if (f.length != 7) return null;
+        return new Posting(f[1], f[2], Long.parseLong(f[3]), emptyToNull(f[4]), emptyToNull(f[5]), f[6]);
+    }
+
+    /**
+     * Submits the journaled postings that SQLite does not have yet and waits for them.
+     *
+     * @return The accounts the journal touched, whose balances SQLite now holds.
+     */
+    private static Set<String> replayJournal(DatabaseManager database, LedgerWriter writeBehind, Path journalPath) throws IOException {
+        Set<String> touched = new LinkedHashSet<>();
+        if (!Files.exists(journalPath)) return touched;
+        CompletableFuture<PostingResult> last = null;
+        int journaled = 0;
+        int replayed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8);
+             Connection conn = database.connect();
+             PreparedStatement status = conn.prepareStatement("SELECT status FROM transactions WHERE id = ?")) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Posting posting = parseRecord(line);
+                if (posting == null) break; // Torn by a crash; nothing after it was acknowledged
+                journaled++;
+                if (posting.from() != null) touched.add(posting.from());
+                if (posting.to() != null) touched.add(posting.to());
+                if (reachedSqlite(status, posting)) continue;
+                last = writeBehind.submit(posting.isSettlement() ? Posting.settlement(posting.txId()) : posting);
+                replayed++;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Cannot read transactions: " + e.getMessage(), e);
+        }
+        if (last != null) last.join();
+        if (journaled > 0) {
+            System.out.println("Memory ledger: replayed " + replayed + " of " + journaled + " journaled postings into SQLite");
+        }
+        return touched;
+    }
+
+    /**
+     * Whether the write-behind committed the posting before the ledger stopped. Transaction
+     * IDs are full random UUIDs, so a row with the posting's ID is the posting itself.
+     */
+    private static boolean reachedSqlite(PreparedStatement status, Posting posting) throws SQLException {
+        status.setString(1, posting.txId());
+        try (ResultSet rs = status.executeQuery()) {
+            if (!rs.next()) return false;
+            return !posting.isSettlement() || !"PENDING_REVIEW".equals(rs.getString(1));
+        }
+    }
+
+    /**
+     * Loads the balances of the last snapshot, or returns false if there is no valid one.
+     * A snapshot is only valid while SQLite holds the transactions it was taken at: a later
+     * row means balances may have changed without the ledger, e.g. by an import.
+     */
+    private boolean loadSnapshot() throws IOException {
+        if (!Files.exists(snapshotPath)) return false;
+        List<String> ids = new ArrayList<>();
+        List<Long> amounts = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(snapshotPath, StandardCharsets.UTF_8)) {
+            String[] header = String.valueOf(reader.readLine()).split("\t");
+            if (header.length != 4 || !SNAPSHOT_HEADER.equals(header[0])) return false;
+            if (Long.parseLong(header[3]) != lastTransactionRowId()) {
+                System.out.println("Memory ledger: SQLite changed since the last snapshot; loading balances from SQLite");
+                return false;
+            }
+            int count = Integer.parseInt(header[2]);
+            for (int i = 0; i < count; i++) {
+                String line = reader.readLine();
+                if (line == null) return false;
+                int tab = line.indexOf('\t');
+                ids.add(line.substring(0, tab));
+                amounts.add(Long.parseLong(line.substring(tab + 1)));
+            }
+            if (!("END\t" + count).equals(reader.readLine())) return false;
+            sequence = Long.parseLong(header[1]);
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            return false;
+        }
+        for (int i = 0; i < ids.size(); i++) addAccount(ids.get(i), amounts.get(i));
+        return true;
+    }
+
+    /**
+     * Writes every balance to a new snapshot once SQLite has caught up, then empties the journal.
+     */
+    private void writeSnapshot() throws IOException {
+        awaitWriteBehind();
+        Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            out.write(SNAPSHOT_HEADER + "\t" + sequence + "\t" + accountCount + "\t" + lastTransactionRowId() + "\n");
+            for (int handle = 0; handle < accountCount; handle++) {
+                out.write(accountIds[handle] + "\t" + balances[handle] + "\n");
+            }
+            out.write("END\t" + accountCount + "\n");
+        }
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // Everything journaled so far is in SQLite and in the snapshot
+        journal.truncate(0);
+        journal.position(0);
+        if (fsync) journal.force(true);
+        postingsSinceSnapshot = 0;
+        snapshots.incrementAndGet();
+    }
+
+    /**
+     * The rowid of the newest transaction in SQLite, which marks the state a snapshot matches.
+     */
+    private long lastTransactionRowId() {
+        try (Connection conn = database.connect();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT COALESCE(MAX(rowid), 0) FROM transactions");
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.getLong(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot read the last transaction: " + e.getMessage(), e);
+        }
+    }
+
+    private static long crc(String record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+
+    private static String emptyToNull(String s) {
+        return s.isEmpty() ? null : s;
+    }
+
+    /**
+     * Stops accepting postings, applies everything already queued, writes a final
+     * snapshot and stops the thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            ledgerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Metrics ---
+
+    public long getPostingCount() { return postingCount.get(); }
+
+    public long getBatchCount() { return batchCount.get(); }
+
+    public int getQueueDepth() { return queue.size(); }
+
+    /** Number of postings SQLite did not accept the way memory did. */
+    public long getMismatchCount() { return mismatches.get(); }
+
+    public long getSnapshotCount() { return snapshots.get(); }
+
+    public int getAccountCount() {
+        long stamp = layout.readLock();
+        try {
+            return accountCount;
+        } finally {
+            layout.unlockRead(stamp);
+        }
+    }
+
+    public double getAverageBatchSize() {
+        long batches = batchCount.get();
+        return batches == 0 ? 0.0 : (double) postingCount.get() / batches;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MemoryLedger[accounts=%d, postings=%d, batches=%d, avgBatch=%.1f, snapshots=%d, mismatches=%d, queued=%d]",
+                getAccountCount(), getPostingCount(), getBatchCount(), getAverageBatchSize(),
+                getSnapshotCount(), getMismatchCount(), getQueueDepth());
+    }
+
+    private record Request(Posting posting, CompletableFuture<PostingResult> future) {
+    }
+}
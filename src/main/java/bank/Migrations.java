@@ -0,0 +1,188 @@
+package bank;
+
+import java.util.List;
+
+import bank.SchemaMigrator.Backfill;
+import bank.SchemaMigrator.Migration;
+
+/**
+ * The ordered list of schema migrations for the banking database.
+ * <p>
+ * New schema changes are appended here with the next version number. Versions that
+ * have shipped must never be edited, because existing databases have already
+ * recorded them as applied.
+ * </p>
+ */
+public final class Migrations {
+
+    private Migrations() {
+    }
+
+    /**
+     * Returns every migration in ascending version order.
+     */
+    public static List<Migration> all() {
+        return List.of(
+            // 1. Baseline schema: Users, Accounts and Transactions
+            Migration.of(1, "Create users, accounts and transactions tables",
+                "CREATE TABLE IF NOT EXISTS users ("
+                    + "username TEXT PRIMARY KEY,"
+                    + "password TEXT NOT NULL,"
+                    + "role TEXT NOT NULL,"
+                    + "full_name TEXT,"
+                    + "date_of_birth TEXT,"
+                    + "phone TEXT,"
+                    + "email TEXT,"
+                    + "is_active INTEGER DEFAULT 1"
+                    + ");",
+                "CREATE TABLE IF NOT EXISTS accounts ("
+                    + "account_id TEXT PRIMARY KEY,"
+                    + "owner_username TEXT NOT NULL,"
+                    + "type TEXT NOT NULL,"
+                    + "balance REAL,"
+                    + "FOREIGN KEY (owner_username) REFERENCES users(username)"
+                    + ");",
+                "CREATE TABLE IF NOT EXISTS transactions ("
+                    + "id TEXT PRIMARY KEY,"
+                    + "type TEXT NOT NULL,"
+                    + "amount REAL,"
+                    + "from_acc TEXT,"
+                    + "to_acc TEXT,"
+                    + "status TEXT,"
+                    + "timestamp TEXT"
+                    + ");"),
+
+            // 2. Covering indexes for history, pending review and account ownership lookups
+            Migration.of(2, "Add covering indexes for history, pending review and account lookups",
+                "CREATE INDEX IF NOT EXISTS idx_transactions_from_acc "
+                    + "ON transactions(from_acc, timestamp, type, amount, to_acc);",
+                "CREATE INDEX IF NOT EXISTS idx_transactions_to_acc "
+                    + "ON transactions(to_acc, timestamp, type, amount, from_acc);",
+                // Partial index: only the handful of rows awaiting review are indexed
+                "CREATE INDEX IF NOT EXISTS idx_transactions_pending "
+                    + "ON transactions(status, id, from_acc, amount, type) WHERE status = 'PENDING_REVIEW';",
+                "CREATE INDEX IF NOT EXISTS idx_accounts_owner "
+                    + "ON accounts(owner_username, account_id, type, balance);"),
+
+            // 3-4. Integer cents replace the REAL money columns. The old balance/amount
+            // columns are kept for rollback safety but are no longer written.
+            Migration.of(3, "Add accounts.balance_cents",
+                "ALTER TABLE accounts ADD COLUMN balance_cents INTEGER;")
+                .withBackfill(Backfill.sql("accounts",
+                    "balance_cents = CAST(ROUND(COALESCE(balance, 0) * 100) AS INTEGER)",
+                    "balance_cents IS NULL")),
+            Migration.of(4, "Add transactions.amount_cents",
+                "ALTER TABLE transactions ADD COLUMN amount_cents INTEGER;")
+                .withBackfill(Backfill.sql("transactions",
+                    "amount_cents = CAST(ROUND(COALESCE(amount, 0) * 100) AS INTEGER)",
+                    "amount_cents IS NULL")),
+
+            // 5. Rebuild the covering indexes from version 2 over the cents columns
+            Migration.of(5, "Cover cents columns in history, pending review and account indexes",
+                "DROP INDEX IF EXISTS idx_transactions_from_acc;",
+                "DROP INDEX IF EXISTS idx_transactions_to_acc;",
+                "DROP INDEX IF EXISTS idx_transactions_pending;",
+                "DROP INDEX IF EXISTS idx_accounts_owner;",
+                "CREATE INDEX idx_transactions_from_acc "
+                    + "ON transactions(from_acc, timestamp, type, amount_cents, to_acc);",
+                "CREATE INDEX idx_transactions_to_acc "
+                    + "ON transactions(to_acc, timestamp, type, amount_cents, from_acc);",
+                "CREATE INDEX idx_transactions_pending "
+                    + "ON transactions(status, id, from_acc, amount_cents, type) WHERE status = 'PENDING_REVIEW';",
+                "CREATE INDEX idx_accounts_owner "
+                    + "ON accounts(owner_username, account_id, type, balance_cents);"),
+
+            // 6. Trigram full-text index over the searchable user fields. It reads its text
+            // from the users table (external content) and triggers keep it in sync, which
+            // relies on users rows keeping their rowid, so saveUser upserts instead of REPLACE.
+            Migration.of(6, "Add trigram full-text index over user names, usernames, phones and emails",
+                "CREATE VIRTUAL TABLE users_fts USING fts5("
+                    + "username, full_name, phone, email, "
+                    + "content='users', content_rowid='rowid', tokenize='trigram');",
+                "CREATE TRIGGER users_fts_ai AFTER INSERT ON users BEGIN "
+                    + "INSERT INTO users_fts(rowid, username, full_name, phone, email) "
+                    + "VALUES (new.rowid, new.username, new.full_name, new.phone, new.email); "
+                    + "END;",
+                "CREATE TRIGGER users_fts_ad AFTER DELETE ON users BEGIN "
+                    + "INSERT INTO users_fts(users_fts, rowid, username, full_name, phone, email) "
+                    + "VALUES ('delete', old.rowid, old.username, old.full_name, old.phone, old.email); "
+                    + "END;",
+                "CREATE TRIGGER users_fts_au AFTER UPDATE OF username, full_name, phone, email ON users BEGIN "
+                    + "INSERT INTO users_fts(users_fts, rowid, username, full_name, phone, email) "
+                    + "VALUES ('delete', old.rowid, old.username, old.full_name, old.phone, old.email); "
+                    + "INSERT INTO users_fts(rowid, username, full_name, phone, email) "
+                    + "VALUES (new.rowid, new.username, new.full_name, new.phone, new.email); "
+                    + "END;",
+                // Index the users that already exist
+                "INSERT INTO users_fts(users_fts) VALUES ('rebuild');"),
+
+            // 7. Precomputed spelling and Soundex keys for fuzzy name search (see NameKeys).
+            // The keys are computed in Java, so saveUser maintains them instead of a trigger;
+            // name_normalized doubles as the backfill's progress marker.
+            Migration.of(7, "Add name match keys for fuzzy name search",
+                "ALTER TABLE users ADD COLUMN name_normalized TEXT;",
+                "CREATE TABLE user_name_keys ("
+                    + "name_key TEXT NOT NULL,"
+                    + "user_rowid INTEGER NOT NULL,"
+                    + "PRIMARY KEY (name_key, user_rowid)"
+                    + ") WITHOUT ROWID;",
+                "CREATE INDEX idx_user_name_keys_user ON user_name_keys(user_rowid);")
+                .withBackfill(NameKeys.backfill()),
+
+            // 8. Sortable ISO copy of the free-text date of birth (see BirthDates), so exact
+            // and range date-of-birth searches seek an index instead of scanning with LIKE.
+            // Dates that cannot be parsed are stored as '', which no range matches.
+            Migration.of(8, "Add normalized, indexed date of birth",
+                "ALTER TABLE users ADD COLUMN dob_iso TEXT;",
+                "CREATE INDEX idx_users_dob ON users(dob_iso);")
+                .withBackfill(BirthDates.backfill()),
+
+            // 9. users had only the implicit rowid, which VACUUM or a dump and reload may renumber,
+            // yet users_fts and user_name_keys point at users by it. The table is rebuilt with an
+            // INTEGER PRIMARY KEY id (which both preserve) holding each user's current rowid, so
+            // existing index entries stay valid, and both tables are re-keyed on that column.
+            Migration.of(9, "Give users a stable id for the search indexes",
+                "CREATE TABLE users_new ("
+                    + "id INTEGER PRIMARY KEY,"
+                    + "username TEXT NOT NULL UNIQUE,"
+                    + "password TEXT NOT NULL,"
+                    + "role TEXT NOT NULL,"
+                    + "full_name TEXT,"
+                    + "date_of_birth TEXT,"
+                    + "phone TEXT,"
+                    + "email TEXT,"
+                    + "is_active INTEGER DEFAULT 1,"
+                    + "name_normalized TEXT,"
+                    + "dob_iso TEXT"
+                    + ");",
+                "INSERT INTO users_new(id, username, password, role, full_name, date_of_birth, phone, email, "
+                    + "is_active, name_normalized, dob_iso) "
+                    + "SELECT rowid, username, password, role, full_name, date_of_birth, phone, email, "
+                    + "is_active, name_normalized, dob_iso FROM users;",
+                // Dropping users also drops its users_fts triggers
+                "DROP TABLE users_fts;",
+                "DROP TABLE users;",
+                "ALTER TABLE users_new RENAME TO users;",
+                "CREATE INDEX idx_users_dob ON users(dob_iso);",
+                "ALTER TABLE user_name_keys RENAME COLUMN user_rowid TO user_id;",
+                "CREATE VIRTUAL TABLE users_fts USING fts5("
+                    + "username, full_name, phone, email, "
+                    + "content='users', content_rowid='id', tokenize='trigram');",
+                "CREATE TRIGGER users_fts_ai AFTER INSERT ON users BEGIN "
+                    + "INSERT INTO users_fts(rowid, username, full_name, phone, email) "
+                    + "VALUES (new.id, new.username, new.full_name, new.phone, new.email); "
+                    + "END;",
+                "CREATE TRIGGER users_fts_ad AFTER DELETE ON users BEGIN "
+                    + "INSERT INTO users_fts(users_fts, rowid, username, full_name, phone, email) "
+                    + "VALUES ('delete', old.id, old.username, old.full_name, old.phone, old.email); "
+                    + "END;",
+                "CREATE TRIGGER users_fts_au AFTER UPDATE OF username, full_name, phone, email ON users BEGIN "
+                    + "INSERT INTO users_fts(users_fts, rowid, username, full_name, phone, email) "
+                    + "VALUES ('delete', old.id, old.username, old.full_name, old.phone, old.email); "
+                    + "INSERT INTO users_fts(rowid, username, full_name, phone, email) "
+                    + "VALUES (new.id, new.username, new.full_name, new.phone, new.email); "
+                    + "END;",
+                "INSERT INTO users_fts(users_fts) VALUES ('rebuild');")
+        );
+    }
+}
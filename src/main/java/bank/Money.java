@@ -0,0 +1,104 @@
+package bank;
+
+/**
+ * Fixed-point money arithmetic on whole cents.
+ * <p>
+ * Every monetary amount in the application (balances, transaction amounts, risk
+ * limits) is carried as a primitive {@code long} number of cents, matching the
+ * INTEGER {@code balance_cents}/{@code amount_cents} columns in the database. This
+ * avoids the rounding drift of {@code float}/{@code double} and the boxing and
+ * {@code String.format} overhead of the old formatting path. The helpers here parse
+ * and print cents without intermediate objects.
+ * </p>
+ */
+public final class Money {
+    /** Largest number of whole dollars accepted by {@link #parseCents(CharSequence)}. */
+    private static final long MAX_DOLLARS = Long.MAX_VALUE / 100 - 1;
+
+    private Money() {
+    }
+
+    /**
+     * Parses a user-entered amount such as {@code "$1,234.56"}, {@code " 12.5 "} or
+     * {@code "40"} into cents. A leading {@code $} and thousands separators are ignored.
+     *
+     * @param text The amount text.
+     * @return The amount in cents.
+     * @throws NumberFormatException if the text is empty, malformed, has more than two
+     *                               decimal places, or is too large.
+     */
+    public static long parseCents(CharSequence text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) end--;
+
+        boolean negative = false;
+        if (start < end && text.charAt(start) == '-') {
+            negative = true;
+            start++;
+        }
+        if (start < end && text.charAt(start) == '$') start++;
+
+        long dollars = 0;
+        long cents = 0;
+        int digits = 0;
+        int decimals = -1; // -1 until the decimal point is seen
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                int digit = c - '0';
+                if (decimals < 0) {
+                    if (dollars > (MAX_DOLLARS - digit) / 10) throw new NumberFormatException("Amount too large: " + text);
+                    dollars = dollars * 10 + digit;
+                } else {
+                    if (++decimals > 2) throw new NumberFormatException("More than two decimal places: " + text);
+                    cents = cents * 10 + digit;
+                }
+                digits++;
+            } else if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (c == ',' && decimals < 0) {
+                // Thousands separator
+            } else {
+                throw new NumberFormatException("Invalid amount: " + text);
+            }
+        }
+        if (digits == 0) throw new NumberFormatException("Invalid amount: " + text);
+        if (decimals == 1) cents *= 10;
+
+        long total = dollars * 100 + cents;
+        return negative ? -total : total;
+    }
+
+    /**
+     * Formats cents as a currency string, e.g. {@code 123456 -> "$1234.56"}.
+     */
+    public static String format(long cents) {
+        StringBuilder sb = new StringBuilder(16);
+        if (cents < 0) sb.append('-');
+        sb.append('$');
+        appendPlain(sb, Math.abs(cents));
+        return sb.toString();
+    }
+
+    /**
+     * Formats cents without a currency sign, e.g. {@code 123456 -> "1234.56"}.
+     */
+    public static String toPlainString(long cents) {
+        StringBuilder sb = new StringBuilder(16);
+        if (cents < 0) sb.append('-');
+        appendPlain(sb, Math.abs(cents));
+        return sb.toString();
+    }
+
+    /**
+     * Appends a non-negative cents amount as {@code dollars.cc} to the builder.
+     */
+    public static StringBuilder appendPlain(StringBuilder sb, long cents) {
+        long fraction = cents % 100;
+        sb.append(cents / 100).append('.');
+        if (fraction < 10) sb.append('0');
+        return sb.append(fraction);
+    }
+}
@@ -0,0 +1,188 @@
+package bank;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import bank.SchemaMigrator.Backfill;
+
+/**
+ * Precomputed match keys for fuzzy ("sounds like") name search.
+ * <p>
+ * Every word of a user's full name gets two keys, both kept in the
+ * {@code user_name_keys} table: its normalized spelling ({@code n:tanaka}) and
+ * its Soundex code ({@code p:T520}). The spelling is lower case with accents and
+ * punctuation removed, so "José O'Neil" and "jose oneil" share keys. Soundex maps
+ * names that sound alike to one code, so common misspellings such as "Tnaka" or
+ * "Jonson" still find "Tanaka" and "Johnson". A search looks up the keys of the
+ * entered name and ranks users by how many words sound alike, then by how many are
+ * spelled the same.
+ * </p>
+ */
+public final class NameKeys {
+    /** Score of a word that sounds alike. */
+    static final int PHONETIC_WEIGHT = 2;
+    /**
+     * Extra score of a word that is also spelled the same. Smaller than the phonetic
+     * weight, so matching more words always ranks above spelling one word exactly.
+     */
+    static final int EXACT_WEIGHT = 1;
+
+    //                                        a b c d e f g h i j k l m n o p q r s t u v w x y z
+    private static final String SOUNDEX_CODES = "01230120022455012623010202";
+
+    private NameKeys() {
+    }
+
+    /**
+     * Returns the name in lower case with accents stripped and every run of characters
+     * other than letters and digits turned into one space. Apostrophes and periods are
+     * dropped instead, so "O'Neil" becomes "oneil".
+     */
+    public static String normalize(String name) {
+        if (name == null) return "";
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        boolean space = false;
+        for (int i = 0; i < decomposed.length(); ) {
+            int cp = decomposed.codePointAt(i);
+            i += Character.charCount(cp);
+            if (Character.getType(cp) == Character.NON_SPACING_MARK || cp == '\'' || cp == '’' || cp == '.') {
+                continue;
+            }
+            if (Character.isLetterOrDigit(cp)) {
+                if (space && sb.length() > 0) sb.append(' ');
+                sb.appendCodePoint(Character.toLowerCase(cp));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the American Soundex code of one normalized word, e.g. {@code T520} for
+     * "tanaka", or null if the word does not start with a letter from a to z.
+     */
+    public static String soundex(String word) {
+        if (word.isEmpty() || word.charAt(0) < 'a' || word.charAt(0) > 'z') return null;
+        char[] code = {Character.toUpperCase(word.charAt(0)), '0', '0', '0'};
+        int length = 1;
+        char previous = SOUNDEX_CODES.charAt(word.charAt(0) - 'a');
+        for (int i = 1; i < word.length() && length < 4; i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') continue;
+            char digit = SOUNDEX_CODES.charAt(c - 'a');
+            if (digit != '0' && digit != previous) {
+                code[length++] = digit;
+            }
+            // H and W do not separate letters with the same code; vowels do
+            if (c != 'h' && c != 'w') previous = digit;
+        }
+        return new String(code);
+    }
+
+    /**
+     * Returns the match keys of a full name: the spelling key and, where it has one,
+     * the Soundex key of each word, without duplicates.
+     */
+    public static Set<String> keys(String fullName) {
+        Set<String> keys = new LinkedHashSet<>();
+        String normalized = normalize(fullName);
+        if (normalized.isEmpty()) return keys;
+        for (String word : normalized.split(" ")) {
+            keys.add(exactKey(word));
+            String phonetic = soundex(word);
+            if (phonetic != null) keys.add(phoneticKey(phonetic));
+        }
+        return keys;
+    }
+
+    static String exactKey(String word) {
+        return "n:" + word;
+    }
+
+    static String phoneticKey(String code) {
+        return "p:" + code;
+    }
+
+    /**
+     * Replaces the stored keys of one user. Runs inside the caller's transaction so the
+     * keys always agree with the saved name.
+     *
+     * @param userId   The id of the user in the users table.
+     * @param fullName The user's current full name.
+     */
+    static void store(Connection conn, long userId, String fullName) throws SQLException {
+        try (PreparedStatement delete = conn.prepareStatement("DELETE FROM user_name_keys WHERE user_id = ?")) {
+            delete.setLong(1, userId);
+            delete.executeUpdate();
+        }
+        try (PreparedStatement insert = conn.prepareStatement("INSERT INTO user_name_keys(name_key, user_id) VALUES(?,?)");
+             PreparedStatement mark = conn.prepareStatement("UPDATE users SET name_normalized = ? WHERE id = ?")) {
+            for (String key : keys(fullName)) {
+                insert.setString(1, key);
+                insert.setLong(2, userId);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            mark.setString(1, normalize(fullName));
+            mark.setLong(2, userId);
+            mark.executeUpdate();
+        }
+    }
+
+    /**
+     * Computes keys for users saved before the key table existed. A user counts as done
+     * once its {@code name_normalized} column is set, so an interrupted backfill resumes
+     * with the remaining users.
+     * <p>
+     * This is migration 7's backfill, which always completes before migration 9 renames
+     * {@code user_rowid}, so it keeps the version 7 column names.
+     * </p>
+     */
+    static Backfill backfill() {
+        return new Backfill() {
+            // Batches resume after the last user done, so none rescans the users already keyed
+            private long lastRowId = Long.MIN_VALUE;
+
+            @Override
+            public int runBatch(Connection conn, int limit) throws SQLException {
+                int rows = 0;
+                try (PreparedStatement select = conn.prepareStatement(
+                             "SELECT rowid, full_name FROM users WHERE rowid > ? AND name_normalized IS NULL ORDER BY rowid LIMIT ?");
+                     PreparedStatement insert = conn.prepareStatement("INSERT OR IGNORE INTO user_name_keys(name_key, user_rowid) VALUES(?,?)");
+                     PreparedStatement mark = conn.prepareStatement("UPDATE users SET name_normalized = ? WHERE rowid = ?")) {
+                    select.setLong(1, lastRowId);
+                    select.setInt(2, limit);
+                    long last = lastRowId;
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) {
+                            long rowId = rs.getLong(1);
+                            String fullName = rs.getString(2);
+                            for (String key : keys(fullName)) {
+                                insert.setString(1, key);
+                                insert.setLong(2, rowId);
+                                insert.addBatch();
+                            }
+                            mark.setString(1, normalize(fullName));
+                            mark.setLong(2, rowId);
+                            mark.addBatch();
+                            last = rowId;
+                            rows++;
+                        }
+                    }
+                    insert.executeBatch();
+                    mark.executeBatch();
+                    lastRowId = last;
+                }
+                return rows;
+            }
+        };
+    }
+}
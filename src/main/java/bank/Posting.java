@@ -0,0 +1,41 @@
+package bank;
+
+/**
+ * A single money movement waiting to be written to the ledger.
+ * <p>
+ * Postings are created by {@link UIManager} and applied by the {@link PostingEngine},
+ * either on their own or grouped into one commit by the {@link LedgerWriter}.
+ * </p>
+ *
+ * @param type        DEPOSIT, WITHDRAWAL, TRANSFER, or SETTLEMENT for approving a pending transaction.
+ * @param txId        The transaction ID (for a settlement, the pending transaction's ID).
+ * @param amountCents The amount in cents (unused for settlements).
+ * @param from        The debited account, or null.
+ * @param to          The credited account, or null.
+ * @param status      The risk status: COMPLETED or PENDING_REVIEW (unused for settlements).
+ */
+public record Posting(String type, String txId, long amountCents, String from, String to, String status) {
+
+    public static Posting deposit(String txId, String accountId, long amountCents, String status) {
+        return new Posting("DEPOSIT", txId, amountCents, null, accountId, status);
+    }
+
+    public static Posting withdrawal(String txId, String accountId, long amountCents, String status) {
+        return new Posting("WITHDRAWAL", txId, amountCents, accountId, null, status);
+    }
+
+    public static Posting transfer(String txId, String fromId, String toId, long amountCents, String status) {
+        return new Posting("TRANSFER", txId, amountCents, fromId, toId, status);
+    }
+
+    /**
+     * Approves a transaction that is waiting in PENDING_REVIEW.
+     */
+    public static Posting settlement(String txId) {
+        return new Posting("SETTLEMENT", txId, 0L, null, null, null);
+    }
+
+    public boolean isSettlement() {
+        return "SETTLEMENT".equals(type);
+    }
+}
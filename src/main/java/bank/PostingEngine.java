@@ -0,0 +1,219 @@
+package bank;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Posts money movements to the ledger, one database transaction per movement.
+ * <p>
+ * Each deposit, withdrawal or transfer checks the balance, debits and credits the
+ * accounts and inserts the transaction row on a single connection, then commits
+ * once. The debit is a conditional {@code UPDATE ... WHERE balance_cents >= ?}, so the
+ * funds check and the write are one atomic step and concurrent postings cannot
+ * overdraw an account or lose each other's updates.
+ * </p>
+ * <p>
+ * {@link #apply(Connection, Posting, Collection)} performs the same work on a transaction
+ * owned by the caller, which lets the {@link LedgerWriter} group many postings into one commit.
+ * Whoever commits is responsible for reporting the touched accounts to
+ * {@link DatabaseManager#balancesChanged} afterwards, which invalidates the {@link BalanceCache}.
+ * </p>
+ */
+public class PostingEngine {
+    private static final String DEBIT_SQL = "UPDATE accounts SET balance_cents = balance_cents - ? WHERE account_id = ? AND balance_cents >= ?";
+    private static final String CREDIT_SQL = "UPDATE accounts SET balance_cents = balance_cents + ? WHERE account_id = ?";
+    private static final String INSERT_SQL = "INSERT INTO transactions(id, type, amount_cents, from_acc, to_acc, status, timestamp) VALUES(?,?,?,?,?,?,?)";
+
+    private final DatabaseManager database;
+
+    /**
+     * @param database The database manager whose connections are used for posting.
+     */
+    public PostingEngine(DatabaseManager database) {
+        this.database = database;
+    }
+
+    /**
+     * Credits an account.
+     *
+     * @param txId        The new transaction's ID.
+     * @param accountId   The account receiving the funds.
+     * @param amountCents The amount to deposit, in cents.
+     * @param status      The risk status; "PENDING_REVIEW" only records the transaction.
+     */
+    public PostingResult deposit(String txId, String accountId, long amountCents, String status) {
+        return post(Posting.deposit(txId, accountId, amountCents, status));
+    }
+
+    /**
+     * Debits an account if it holds enough funds.
+     *
+     * @param txId        The new transaction's ID.
+     * @param accountId   The account the funds are taken from.
+     * @param amountCents The amount to withdraw, in cents.
+     * @param status      The risk status; "PENDING_REVIEW" only records the transaction.
+     */
+    public PostingResult withdraw(String txId, String accountId, long amountCents, String status) {
+        return post(Posting.withdrawal(txId, accountId, amountCents, status));
+    }
+
+    /**
+     * Moves funds between two accounts if the sender holds enough funds.
+     *
+     * @param txId        The new transaction's ID.
+     * @param fromId      The sending account.
+     * @param toId        The receiving account.
+     * @param amountCents The amount to transfer, in cents.
+     * @param status      The risk status; "PENDING_REVIEW" only records the transaction.
+     */
+    public PostingResult transfer(String txId, String fromId, String toId, long amountCents, String status) {
+        return post(Posting.transfer(txId, fromId, toId, amountCents, status));
+    }
+
+    /**
+     * Applies a transaction that was held for review and marks it COMPLETED, in one commit.
+     * The transaction stays pending if the sender no longer has enough funds.
+     *
+     * @param txId The ID of the pending transaction.
+     */
+    public PostingResult settle(String txId) {
+        return post(Posting.settlement(txId));
+    }
+
+    /**
+     * Applies one posting in its own transaction and commits it.
+     */
+    public PostingResult post(Posting posting) {
+        List<String> touched = new ArrayList<>(2);
+        try (Connection conn = database.connect()) {
+            conn.setAutoCommit(false);
+            try {
+                PostingResult result = apply(conn, posting, touched);
+                if (isDurable(result)) {
+                    conn.commit();
+                    database.balancesChanged(touched);
+                } else {
+                    conn.rollback();
+                }
+                return result;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.out.println("Posting failed: " + e.getMessage());
+            return PostingResult.ERROR;
+        }
+    }
+
+    /**
+     * Applies a posting on the caller's open transaction without committing.
+     * If the result is not {@link #isDurable durable}, some of its writes may already
+     * have happened and the caller must roll them back (e.g. to a savepoint).
+     *
+     * @param conn            A connection with auto-commit disabled.
+     * @param posting         The posting to apply.
+     * @param touchedAccounts Receives the IDs of accounts whose balance was written, so the
+     *                        caller can invalidate their cached balances once it commits.
+     * @return The outcome of the posting.
+     * @throws SQLException if a statement fails.
+     */
+    public PostingResult apply(Connection conn, Posting posting, Collection<String> touchedAccounts) throws SQLException {
+        if (posting.isSettlement()) return settle(conn, posting.txId(), touchedAccounts);
+        if (posting.amountCents() <= 0) return PostingResult.ERROR;
+
+        if ("PENDING_REVIEW".equals(posting.status())) {
+            // Held for review: record only, balances move on approval
+            insertTransaction(conn, posting, posting.status());
+            return PostingResult.PENDING;
+        }
+
+        PostingResult result = moveFunds(conn, posting.amountCents(), posting.from(), posting.to(), touchedAccounts);
+        if (result == PostingResult.SUCCESS) {
+            insertTransaction(conn, posting, "COMPLETED");
+        }
+        return result;
+    }
+
+    /**
+     * Whether a result leaves writes that should be committed.
+     */
+    public static boolean isDurable(PostingResult result) {
+        return result == PostingResult.SUCCESS || result == PostingResult.PENDING;
+    }
+
+    private PostingResult settle(Connection conn, String txId, Collection<String> touchedAccounts) throws SQLException {
+        long amountCents;
+        String from;
+        String to;
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT amount_cents, from_acc, to_acc FROM transactions WHERE id = ? AND status = 'PENDING_REVIEW'")) {
+            pstmt.setString(1, txId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) return PostingResult.ERROR;
+                amountCents = rs.getLong("amount_cents");
+                from = rs.getString("from_acc");
+                to = rs.getString("to_acc");
+            }
+        }
+
+        PostingResult result = moveFunds(conn, amountCents, from, to, touchedAccounts);
+        if (result != PostingResult.SUCCESS) return result;
+
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE transactions SET status = 'COMPLETED' WHERE id = ? AND status = 'PENDING_REVIEW'")) {
+            pstmt.setString(1, txId);
+            // Another reviewer settled it first
+            if (pstmt.executeUpdate() == 0) return PostingResult.ERROR;
+        }
+        return PostingResult.SUCCESS;
+    }
+
+    /**
+     * Debits {@code from} (if any) and credits {@code to} (if any) on the caller's transaction.
+     * Stops at the first step that fails; the caller is responsible for rolling back.
+     */
+    private PostingResult moveFunds(Connection conn, long amountCents, String from, String to,
+                                    Collection<String> touchedAccounts) throws SQLException {
+        if (from == null && to == null) return PostingResult.ERROR;
+
+        if (from != null) {
+            try (PreparedStatement pstmt = conn.prepareStatement(DEBIT_SQL)) {
+                pstmt.setLong(1, amountCents);
+                pstmt.setString(2, from);
+                pstmt.setLong(3, amountCents);
+                if (pstmt.executeUpdate() == 0) return PostingResult.INSUFFICIENT;
+            }
+            touchedAccounts.add(from);
+        }
+        if (to != null) {
+            try (PreparedStatement pstmt = conn.prepareStatement(CREDIT_SQL)) {
+                pstmt.setLong(1, amountCents);
+                pstmt.setString(2, to);
+                // Unknown destination account
+                if (pstmt.executeUpdate() == 0) return PostingResult.ERROR;
+            }
+            touchedAccounts.add(to);
+        }
+        return PostingResult.SUCCESS;
+    }
+
+    private void insertTransaction(Connection conn, Posting posting, String status) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            pstmt.setString(1, posting.txId());
+            pstmt.setString(2, posting.type());
+            pstmt.setLong(3, posting.amountCents());
+            pstmt.setString(4, posting.from());
+            pstmt.setString(5, posting.to());
+            pstmt.setString(6, status);
+            pstmt.setString(7, LocalDateTime.now().toString());
+            pstmt.executeUpdate();
+        }
+    }
+}
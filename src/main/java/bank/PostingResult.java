@@ -0,0 +1,19 @@
+package bank;
+
+/**
+ * The outcome of posting a deposit, withdrawal or transfer to the ledger.
+ * <p>
+ * The constant names match the status strings returned by {@link UIManager}'s
+ * transaction methods, so {@code result.name()} can be handed straight to the UI.
+ * </p>
+ */
+public enum PostingResult {
+    /** The money moved and the transaction was recorded as COMPLETED. */
+    SUCCESS,
+    /** The transaction was recorded for manual review; no balances changed. */
+    PENDING,
+    /** The source account does not hold enough funds; nothing was written. */
+    INSUFFICIENT,
+    /** The posting failed (unknown account, database error); nothing was written. */
+    ERROR
+}
@@ -0,0 +1,119 @@
+package bank;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * A sorted in-memory set of identifiers (usernames or account IDs) answering prefix
+ * lookups for type-ahead suggestions.
+ * <p>
+ * The identifiers loaded at startup are kept in one sorted array, which costs little
+ * more than the strings themselves. Identifiers added later go into a small concurrent
+ * skip list. A lookup binary-searches the array, walks the skip list from the same
+ * point, and merges the two in order, so it never touches the database.
+ * </p>
+ * <p>
+ * Identifiers are never removed: users are only deactivated and accounts are never
+ * deleted. Lookups are case-sensitive, like the identifiers themselves.
+ * </p>
+ */
+public class PrefixIndex {
+    private final String[] loaded;
+    private final NavigableSet<String> added = new ConcurrentSkipListSet<>();
+
+    /**
+     * @param identifiers The identifiers present at startup, in any order.
+     */
+    public PrefixIndex(Collection<String> identifiers) {
+        this.loaded = identifiers.toArray(new String[0]);
+        Arrays.sort(loaded);
+    }
+
+    /**
+     * Builds the index of all usernames and keeps it current as users are saved.
+     */
+    public static PrefixIndex usernames(DatabaseManager database) {
+        List<String> usernames = new ArrayList<>();
+        database.streamUsernames(usernames::add);
+        PrefixIndex index = new PrefixIndex(usernames);
+        database.addUserChangeListener(new UserChangeListener() {
+            @Override
+            public void userSaved(String username, String role, String fullName, String dateOfBirth, String phone, String email) {
+                index.add(username);
+            }
+
+            @Override
+            public void userActivationChanged(String username, boolean active) {
+            }
+        });
+        return index;
+    }
+
+    /**
+     * Builds the index of all account IDs and keeps it current as accounts are saved.
+     */
+    public static PrefixIndex accountIds(DatabaseManager database) {
+        List<String> accountIds = new ArrayList<>();
+        database.streamAccountIds(accountIds::add);
+        PrefixIndex index = new PrefixIndex(accountIds);
+        database.addAccountChangeListener(new AccountChangeListener() {
+            @Override
+            public void accountSaved(String accountId, String ownerUsername) {
+                index.add(accountId);
+            }
+
+            @Override
+            public void balancesChanged(Collection<String> accountIds) {
+            }
+        });
+        return index;
+    }
+
+    /**
+     * Adds an identifier; adding one that is already present has no effect.
+     */
+    public void add(String identifier) {
+        if (Arrays.binarySearch(loaded, identifier) < 0) added.add(identifier);
+    }
+
+    /**
+     * Returns up to {@code limit} identifiers starting with the prefix, in sorted order.
+     */
+    public List<String> startingWith(String prefix, int limit) {
+        List<String> matches = new ArrayList<>(Math.min(limit, 16));
+        if (prefix.isEmpty() || limit <= 0) return matches;
+
+        int i = Arrays.binarySearch(loaded, prefix);
+        if (i < 0) i = -i - 1;
+        Iterator<String> later = added.tailSet(prefix, true).iterator();
+        String next = nextMatch(later, prefix);
+
+        while (matches.size() < limit) {
+            String fromLoaded = i < loaded.length && loaded[i].startsWith(prefix) ? loaded[i] : null;
+            if (fromLoaded == null && next == null) break;
+            if (next == null || (fromLoaded != null && fromLoaded.compareTo(next) < 0)) {
+                matches.add(fromLoaded);
+                i++;
+            } else {
+                matches.add(next);
+                next = nextMatch(later, prefix);
+            }
+        }
+        return matches;
+    }
+
+    private static String nextMatch(Iterator<String> it, String prefix) {
+        if (!it.hasNext()) return null;
+        String s = it.next();
+        return s.startsWith(prefix) ? s : null;
+    }
+
+    public int size() {
+        return loaded.length + added.size();
+    }
+}
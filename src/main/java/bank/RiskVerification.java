@@ -11,28 +11,28 @@ package bank;
 public class RiskVerification {
 
     /**
-     * The monetary threshold above which a transaction is considered high risk.
+     * The monetary threshold (in cents) above which a transaction is considered high risk.
      * Current limit: $10,000.00.
      */
-    private static final double RISK_LIMIT = 10000.00;
+    private static final long RISK_LIMIT_CENTS = 10_000_00L;
 
     /**
      * Checks if a given transaction amount exceeds the risk limit.
      *
-     * @param amount The transaction amount to evaluate.
+     * @param amountCents The transaction amount to evaluate, in cents.
      * @return {@code true} if the amount is greater than the risk limit; {@code false} otherwise.
      */
-    public boolean isHighRisk(double amount) {
-        return amount > RISK_LIMIT;
+    public boolean isHighRisk(long amountCents) {
+        return amountCents > RISK_LIMIT_CENTS;
     }
 
     /**
      * Determines the initial status of a transaction based on its risk level.
      *
-     * @param amount The transaction amount.
+     * @param amountCents The transaction amount, in cents.
      * @return "PENDING_REVIEW" if high risk, otherwise "COMPLETED".
      */
-    public String getTransactionStatus(double amount) {
-        return isHighRisk(amount) ? "PENDING_REVIEW" : "COMPLETED";
+    public String getTransactionStatus(long amountCents) {
+        return isHighRisk(amountCents) ? "PENDING_REVIEW" : "COMPLETED";
     }
 }
\ No newline at end of file
@@ -0,0 +1,279 @@
+package bank;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies versioned schema migrations to the database.
+ * <p>
+ * Applied versions are recorded in a {@code schema_version} table. Each pending
+ * migration runs in two phases: its DDL statements execute in a single transaction,
+ * then its optional {@link Backfill} updates existing rows in small batches that
+ * commit one at a time, so other connections can keep reading and writing while a
+ * large table is being rewritten. If the process stops half-way through a backfill,
+ * the next start resumes it without re-running the DDL.
+ * </p>
+ */
+public class SchemaMigrator {
+    private static final String STATE_DDL_APPLIED = "DDL_APPLIED";
+    private static final String STATE_COMPLETE = "COMPLETE";
+
+    private final ConnectionPool pool;
+    private final int batchSize;
+    private final long pauseMillis;
+
+    /**
+     * Creates a migrator using batch settings from the {@code bank.db.migration.batchSize}
+     * (5000) and {@code bank.db.migration.pauseMs} (10) system properties.
+     *
+     * @param pool The pool providing connections to the database.
+     */
+    public SchemaMigrator(ConnectionPool pool) {
+        this(pool, Integer.getInteger("bank.db.migration.batchSize", 5000),
+                Long.getLong("bank.db.migration.pauseMs", 10L));
+    }
+
+    /**
+     * @param pool        The pool providing connections to the database.
+     * @param batchSize   Rows updated per backfill transaction.
+     * @param pauseMillis Pause between backfill batches, giving other writers a turn.
+     */
+    public SchemaMigrator(ConnectionPool pool, int batchSize, long pauseMillis) {
+        this.pool = pool;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    /**
+     * Applies every migration whose version has not completed yet, in version order.
+     *
+     * @param migrations All known migrations, sorted by ascending version.
+     * @throws SQLException if a migration fails; earlier migrations stay applied.
+     */
+    public void migrate(List<Migration> migrations) throws SQLException {
+        try (Connection conn = pool.borrow()) {
+            createVersionTable(conn);
+            Map<Integer, String> applied = loadAppliedVersions(conn);
+
+            for (Migration migration : migrations) {
+                String state = applied.get(migration.version);
+                if (STATE_COMPLETE.equals(state)) continue;
+
+                if (state == null) {
+                    System.out.println("Applying schema migration " + migration.version + ": " + migration.description);
+                    applyDdl(conn, migration);
+                }
+                if (migration.backfill != null) {
+                    runBackfill(conn, migration);
+                }
+                markComplete(conn, migration.version);
+            }
+        }
+    }
+
+    /**
+     * Returns the highest fully applied schema version, or 0 for an empty database.
+     */
+    public int currentVersion() throws SQLException {
+        try (Connection conn = pool.borrow()) {
+            createVersionTable(conn);
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version WHERE state = '" + STATE_COMPLETE + "'")) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private void createVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+                    + "version INTEGER PRIMARY KEY,"
+                    + "description TEXT,"
+                    + "state TEXT NOT NULL,"
+                    + "applied_at TEXT"
+                    + ");");
+        }
+    }
+
+    private Map<Integer, String> loadAppliedVersions(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, state FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("state"));
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Runs the migration's DDL and records it as applied, all in one transaction.
+     */
+    private void applyDdl(Connection conn, Migration migration) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : migration.statements) {
+                    stmt.execute(sql);
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO schema_version(version, description, state, applied_at) VALUES(?,?,?,?)")) {
+                pstmt.setInt(1, migration.version);
+                pstmt.setString(2, migration.description);
+                pstmt.setString(3, STATE_DDL_APPLIED);
+                pstmt.setString(4, LocalDateTime.now().toString());
+                pstmt.executeUpdate();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Migration " + migration.version + " failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Runs the backfill in batches, committing after each one, until no rows remain.
+     */
+    private void runBackfill(Connection conn, Migration migration) throws SQLException {
+        long total = 0;
+        while (true) {
+            int rows;
+            // One short transaction per batch; autocommit is restored in between so the
+            // write lock is released while pausing
+            conn.setAutoCommit(false);
+            try {
+                rows = migration.backfill.runBatch(conn, batchSize);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw new SQLException("Backfill for migration " + migration.version + " failed: " + e.getMessage(), e);
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            if (rows == 0) break;
+            total += rows;
+            System.out.println("Migration " + migration.version + ": backfilled " + total + " rows");
+            pause();
+        }
+    }
+
+    private void pause() {
+        if (pauseMillis <= 0) return;
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void markComplete(Connection conn, int version) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE schema_version SET state = ?, applied_at = ? WHERE version = ?")) {
+            pstmt.setString(1, STATE_COMPLETE);
+            pstmt.setString(2, LocalDateTime.now().toString());
+            pstmt.setInt(3, version);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * One versioned schema change: DDL statements plus an optional data backfill.
+     */
+    public static final class Migration {
+        final int version;
+        final String description;
+        final String[] statements;
+        final Backfill backfill;
+
+        private Migration(int version, String description, String[] statements, Backfill backfill) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+            this.backfill = backfill;
+        }
+
+        /**
+         * Creates a migration from DDL statements that run together in one transaction.
+         */
+        public static Migration of(int version, String description, String... statements) {
+            return new Migration(version, description, statements, null);
+        }
+
+        /**
+         * Returns a copy of this migration that also backfills existing rows.
+         */
+        public Migration withBackfill(Backfill backfill) {
+            return new Migration(version, description, statements, backfill);
+        }
+
+        public int getVersion() { return version; }
+
+        public String getDescription() { return description; }
+    }
+
+    /**
+     * Rewrites existing rows in bounded chunks. Implementations must only select rows
+     * that still need work, so that repeated calls make progress and a restarted
+     * backfill resumes where it stopped. They should also remember the last rowid they
+     * reached and start the next batch after it, so that no batch rescans the rows
+     * already done; {@link Migrations#all()} creates fresh instances for every run.
+     */
+    @FunctionalInterface
+    public interface Backfill {
+        /**
+         * Processes up to {@code limit} pending rows inside the caller's transaction.
+         *
+         * @return The number of rows processed; 0 when the backfill is finished.
+         */
+        int runBatch(Connection conn, int limit) throws SQLException;
+
+        /**
+         * A backfill expressed as a single UPDATE, applied to rows matching {@code pendingCondition}
+         * in rowid order. The SET clause must make those rows stop matching the condition.
+         *
+         * @param table            The table to update.
+         * @param setClause        The SET clause, e.g. {@code "balance_cents = CAST(ROUND(balance * 100) AS INTEGER)"}.
+         * @param pendingCondition Selects rows still to be backfilled, e.g. {@code "balance_cents IS NULL"}.
+         */
+        static Backfill sql(String table, String setClause, String pendingCondition) {
+            // Each batch seeks past the last rowid done instead of scanning from the start again
+            String batchEndSql = "SELECT MAX(rowid) FROM (SELECT rowid FROM " + table
+                    + " WHERE rowid > ? AND (" + pendingCondition + ") ORDER BY rowid LIMIT ?)";
+            String updateSql = "UPDATE " + table + " SET " + setClause
+                    + " WHERE rowid > ? AND rowid <= ? AND (" + pendingCondition + ")";
+            return new Backfill() {
+                private long lastRowId = Long.MIN_VALUE;
+
+                @Override
+                public int runBatch(Connection conn, int limit) throws SQLException {
+                    long batchEnd;
+                    try (PreparedStatement pstmt = conn.prepareStatement(batchEndSql)) {
+                        pstmt.setLong(1, lastRowId);
+                        pstmt.setInt(2, limit);
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            batchEnd = rs.getLong(1);
+                            if (rs.wasNull()) return 0;
+                        }
+                    }
+                    int rows;
+                    try (PreparedStatement pstmt = conn.prepareStatement(updateSql)) {
+                        pstmt.setLong(1, lastRowId);
+                        pstmt.setLong(2, batchEnd);
+                        rows = pstmt.executeUpdate();
+                    }
+                    lastRowId = batchEnd;
+                    return rows;
+                }
+            };
+        }
+    }
+}
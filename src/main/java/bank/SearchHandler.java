@@ -1,6 +1,24 @@
 package bank;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import bank.SearchResultCache.Scope;
+import bank.UserSearchIndex.Field;
 
 /**
  * Handles all search and data retrieval operations for the application.
@@ -9,28 +27,113 @@ import java.util.List;
  * query logic from the main application flow. It routes search requests from
  * the UI to the appropriate database methods.
  * </p>
+ * <p>
+ * Searches return typed records one page at a time, together with the total number of
+ * matches. Customer and employee substring searches on names and usernames are answered
+ * from an in-memory {@link UserSearchIndex} built at startup; keywords shorter than three
+ * characters and date-of-birth searches go to the database, as do account searches. Set
+ * {@code bank.search.memoryIndex=false} to send every search to the database.
+ * </p>
+ * <p>
+ * Date-of-birth searches take an exact date, a month, a year or a range of them, optionally
+ * followed by a name fragment (e.g. "1980-1985 Tanaka"), and are answered by an index seek
+ * on the normalized date of birth; see {@link BirthDates}.
+ * </p>
+ * <p>
+ * {@link #SIMILAR_NAME} searches rank customers by precomputed phonetic and spelling keys,
+ * so a misspelled name is found in one indexed query instead of repeated substring searches.
+ * </p>
+ * <p>
+ * Every result passes through a {@link SearchResultCache}, which user and account writes
+ * invalidate. Keywords are trimmed before searching.
+ * </p>
+ * <p>
+ * {@link #searchAll} runs the customer, account and employee searches concurrently and
+ * merges them into one ranked list within a latency budget.
+ * </p>
+ * <p>
+ * Type-ahead suggestions for usernames and account IDs come from in-memory
+ * {@link PrefixIndex}es, so typing never queries the database.
+ * </p>
  */
 public class SearchHandler {
+    /** Customer search criterion that tolerates misspelled names, see {@link NameKeys}. */
+    public static final String SIMILAR_NAME = "Similar Name";
+
     private final DatabaseManager dbManager;
+    private final UserSearchIndex userIndex;
+    private final SearchResultCache resultCache = new SearchResultCache();
+    private final PrefixIndex usernames;
+    private final PrefixIndex accountIds;
+
+    // Federated search: a few daemon threads, so fan-outs never exhaust the connection pool
+    private final ExecutorService fanOut;
+    private final long budgetMillis;
 
     /**
-     * Constructs a new SearchHandler.
+     * Constructs a new SearchHandler, loads the user search and type-ahead indexes and
+     * registers the result cache.
      *
      * @param dbManager The persistent database manager used to execute queries.
      */
     public SearchHandler(DatabaseManager dbManager) {
         this.dbManager = dbManager;
+        boolean useIndex = Boolean.parseBoolean(System.getProperty("bank.search.memoryIndex", "true"));
+        this.userIndex = useIndex ? UserSearchIndex.load(dbManager) : null;
+        resultCache.register(dbManager);
+        this.usernames = PrefixIndex.usernames(dbManager);
+        this.accountIds = PrefixIndex.accountIds(dbManager);
+
+        int threads = Integer.getInteger("bank.search.federated.threads", 3);
+        this.budgetMillis = Long.getLong("bank.search.federated.budgetMs", 500L);
+        AtomicInteger threadNo = new AtomicInteger();
+        this.fanOut = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "search-fanout-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Returns the cache of search results, e.g. for reporting its per-criteria hit ratios.
+     */
+    public SearchResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Returns the in-memory user index, or null if it is disabled.
+     */
+    public UserSearchIndex getUserIndex() {
+        return userIndex;
     }
 
     /**
      * Searches for customers based on specific criteria.
      *
-     * @param criteria The field to search by (e.g., "Name", "Date of Birth", "ID").
+     * @param criteria The field to search by (e.g., "Name", "Date of Birth", "ID"), or
+     *                 {@link #SIMILAR_NAME} for names that sound alike, best matches first.
      * @param keyword  The search term entered by the user.
-     * @return A formatted string containing the search result or a "not found" message.
+     * @param cursor   The previous page's cursor, or null for the first page.
+     * @param limit    Maximum number of users per page.
+     * @return One page of matching users.
      */
-    public String searchCustomers(String criteria, String keyword) {
-        return dbManager.findUser(criteria, keyword);
+    public SearchResults<UserRecord> searchCustomers(String criteria, String keyword, String cursor, int limit) {
+        String term = keyword.strip();
+        return resultCache.get(Scope.CUSTOMERS, criteria, term, cursor, limit, () -> {
+            if (criteria.equals(SIMILAR_NAME)) {
+                return dbManager.findUsersByNameSound(term, cursor, limit);
+            }
+            BirthDates.Query born = birthDateQuery(criteria, term);
+            if (born != null) {
+                return dbManager.findUsersBornBetween(born, false, cursor, limit);
+            }
+            Field field = indexField(criteria);
+            if (field == null || !canUseIndex(term)) {
+                return dbManager.findUsers(criteria, term, cursor, limit);
+            }
+            return userIndex.search(field, term, u -> true, cursor, limit);
+        }, results -> List.of());
     }
 
     /**
@@ -38,10 +141,15 @@ public class SearchHandler {
      *
      * @param criteria The field to search by (e.g., "Account ID", "Name").
      * @param keyword  The search term.
-     * @return A formatted string containing account details or a "not found" message.
+     * @param cursor   The previous page's cursor, or null for the first page.
+     * @param limit    Maximum number of accounts per page.
+     * @return One page of matching accounts.
      */
-    public String searchAccounts(String criteria, String keyword) {
-        return dbManager.findAccounts(criteria, keyword);
+    public SearchResults<AccountRecord> searchAccounts(String criteria, String keyword, String cursor, int limit) {
+        String term = keyword.strip();
+        return resultCache.get(Scope.ACCOUNTS, criteria, term, cursor, limit,
+                () -> dbManager.findAccounts(criteria, term, cursor, limit),
+                results -> results.getItems().stream().map(a -> SearchResultCache.accountTag(a.accountId())).toList());
     }
 
     /**
@@ -49,10 +157,108 @@ public class SearchHandler {
      *
      * @param criteria The field to search by (e.g., "Name", "ID").
      * @param keyword  The search term.
-     * @return A formatted string containing employee details.
+     * @param cursor   The previous page's cursor, or null for the first page.
+     * @param limit    Maximum number of users per page.
+     * @return One page of matching employees.
      */
-    public String searchEmployees(String criteria, String keyword) {
-        return dbManager.findEmployees(criteria, keyword);
+    public SearchResults<UserRecord> searchEmployees(String criteria, String keyword, String cursor, int limit) {
+        String term = keyword.strip();
+        return resultCache.get(Scope.EMPLOYEES, criteria, term, cursor, limit, () -> {
+            BirthDates.Query born = birthDateQuery(criteria, term);
+            if (born != null) {
+                return dbManager.findUsersBornBetween(born, true, cursor, limit);
+            }
+            Field field = indexField(criteria);
+            if (field == null || !canUseIndex(term)) {
+                return dbManager.findEmployees(criteria, term, cursor, limit);
+            }
+            return userIndex.search(field, term, u -> !"CUSTOMER".equals(u.role()), cursor, limit);
+        }, results -> List.of());
+    }
+
+    /**
+     * Searches customers, accounts and employees for the keyword at once, for tellers who
+     * do not know whether they have a name, a phone number, an ID or an account number.
+     * <p>
+     * Customers are searched by name, ID and phone, accounts by account ID and employees
+     * by name and ID, each on its own thread (and pooled connection when it goes to the
+     * database). Searches still running when the {@code bank.search.federated.budgetMs}
+     * (500) budget runs out are cancelled and listed in the result instead of delaying it.
+     * </p>
+     * <p>
+     * The hits are merged, with a user found by several searches listed once, and ranked
+     * by how closely their ID, name or phone matches the keyword: equal before prefix
+     * before substring, then customers before accounts before employees. The total counts
+     * each merged hit once; see {@link FederatedSearchResults#getTotalCount()}.
+     * </p>
+     *
+     * @param keyword The search term.
+     * @param limit   Maximum number of hits returned, and of results read from each search.
+     */
+    public FederatedSearchResults searchAll(String keyword, int limit) {
+        String term = keyword.strip();
+        Map<String, Callable<SearchResults<?>>> searches = new LinkedHashMap<>();
+        for (String criteria : List.of("Name", "Customer ID", "Phone")) {
+            searches.put("CUSTOMER/" + criteria, () -> searchCustomers(criteria, term, null, limit));
+        }
+        searches.put("ACCOUNT/Account ID", () -> searchAccounts("Account ID", term, null, limit));
+        for (String criteria : List.of("Name", "Employee ID")) {
+            searches.put("EMPLOYEE/" + criteria, () -> searchEmployees(criteria, term, null, limit));
+        }
+
+        List<Future<SearchResults<?>>> futures;
+        try {
+            futures = fanOut.invokeAll(searches.values(), budgetMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new FederatedSearchResults(List.of(), 0, List.copyOf(searches.keySet()));
+        }
+
+        Map<String, SearchHit> best = new HashMap<>();
+        List<String> timedOut = new ArrayList<>();
+        int unread = 0;
+        Iterator<String> names = searches.keySet().iterator();
+        for (Future<SearchResults<?>> future : futures) {
+            String name = names.next();
+            SearchResults<?> results;
+            try {
+                results = future.get();
+            } catch (CancellationException e) {
+                timedOut.add(name);
+                continue;
+            } catch (InterruptedException | ExecutionException e) {
+                System.out.println("Search " + name + " failed: " + e.getMessage());
+                continue;
+            }
+            // Matches beyond the first page cannot be told apart from the other searches' matches
+            unread += Math.max(0, results.getTotalCount() - results.getItems().size());
+            for (Object item : results.getItems()) {
+                SearchHit hit = toHit(item, term);
+                best.merge(hit.source() + "/" + hit.id(), hit, (a, b) -> a.score() >= b.score() ? a : b);
+            }
+        }
+
+        int total = best.size() + unread;
+        List<SearchHit> hits = new ArrayList<>(best.values());
+        hits.sort(Comparator.comparingInt(SearchHit::score).reversed()
+                .thenComparing(SearchHit::source)
+                .thenComparing(SearchHit::id));
+        if (hits.size() > limit) hits = new ArrayList<>(hits.subList(0, limit));
+        return new FederatedSearchResults(hits, total, timedOut);
+    }
+
+    /**
+     * Ranks one search result; users are customers or employees by role, whichever search found them.
+     */
+    private static SearchHit toHit(Object item, String keyword) {
+        if (item instanceof AccountRecord account) {
+            return new SearchHit(SearchHit.Source.ACCOUNT, SearchHit.match(account.accountId(), keyword), null, account);
+        }
+        UserRecord user = (UserRecord) item;
+        int score = Math.max(SearchHit.match(user.username(), keyword),
+                Math.max(SearchHit.match(user.fullName(), keyword), SearchHit.match(user.phone(), keyword)));
+        SearchHit.Source source = "CUSTOMER".equals(user.role()) ? SearchHit.Source.CUSTOMER : SearchHit.Source.EMPLOYEE;
+        return new SearchHit(source, score, user, null);
     }
 
     /**
@@ -60,8 +266,68 @@ public class SearchHandler {
      *
      * @param username The unique username of the customer.
      * @return A list of string arrays, where each array represents an account's details (ID, Type, Balance).
+     *         The list and its arrays are the caller's own; changing them does not reach the cache.
      */
     public List<String[]> getCustomerAccounts(String username) {
-        return dbManager.getUserAccounts(username);
+        List<String[]> cached = resultCache.get(Scope.CUSTOMER_ACCOUNTS, "Owner", username, null, 0,
+                () -> Collections.unmodifiableList(dbManager.getUserAccounts(username)),
+                accounts -> {
+                    List<String> tags = new ArrayList<>(accounts.size() + 1);
+                    tags.add(SearchResultCache.ownerTag(username));
+                    for (String[] account : accounts) tags.add(SearchResultCache.accountTag(account[0]));
+                    return tags;
+                });
+        List<String[]> copy = new ArrayList<>(cached.size());
+        for (String[] account : cached) copy.add(account.clone());
+        return copy;
+    }
+
+    /**
+     * Loads a customer's profile, accounts and recent activity in one pass.
+     *
+     * @param username         The customer to load.
+     * @param recentPerAccount Number of latest transactions to include per account.
+     * @return The overview, or null if there is no such user.
+     */
+    public CustomerOverview getCustomerOverview(String username, int recentPerAccount) {
+        return dbManager.loadCustomerOverview(username, recentPerAccount);
+    }
+
+    /**
+     * Returns up to {@code limit} usernames starting with the prefix, in sorted order.
+     */
+    public List<String> suggestUsernames(String prefix, int limit) {
+        return usernames.startingWith(prefix.strip(), limit);
+    }
+
+    /**
+     * Returns up to {@code limit} account IDs starting with the prefix, in sorted order.
+     */
+    public List<String> suggestAccountIds(String prefix, int limit) {
+        return accountIds.startingWith(prefix.strip(), limit);
+    }
+
+    /**
+     * Parses a date-of-birth search into a date range and name fragment, or returns null
+     * for other criteria and for keywords that do not start with a date, which are then
+     * matched as text.
+     */
+    private static BirthDates.Query birthDateQuery(String criteria, String keyword) {
+        return criteria.contains("Date") ? BirthDates.parseQuery(keyword) : null;
+    }
+
+    /**
+     * Maps a search criterion to the indexed field (name, phone or username), or null for
+     * date-of-birth searches.
+     */
+    private static Field indexField(String criteria) {
+        if (criteria.contains("Name")) return Field.FULL_NAME;
+        if (criteria.contains("Phone")) return Field.PHONE;
+        if (criteria.contains("Date")) return null;
+        return Field.USERNAME;
+    }
+
+    private boolean canUseIndex(String keyword) {
+        return userIndex != null && UserSearchIndex.isSearchable(keyword);
     }
-}
\ No newline at end of file
+}
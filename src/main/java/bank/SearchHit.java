@@ -0,0 +1,42 @@
+package bank;
+
+/**
+ * One result of a federated search: a customer, an account or an employee, with its rank.
+ * Exactly one of {@code user} and {@code account} is set.
+ *
+ * @param source  Which kind of record matched.
+ * @param score   How closely it matched, see {@link #match(String, String)}; higher first.
+ * @param user    The matching customer or employee, or null for accounts.
+ * @param account The matching account, or null for users.
+ */
+public record SearchHit(Source source, int score, UserRecord user, AccountRecord account) {
+
+    /** The kinds of record a federated search returns, in the order they rank on a tie. */
+    public enum Source { CUSTOMER, ACCOUNT, EMPLOYEE }
+
+    /**
+     * Returns the username or account ID that identifies the record.
+     */
+    public String id() {
+        return user != null ? user.username() : account.accountId();
+    }
+
+    /**
+     * Scores how closely a field matches the keyword, ignoring case: 3 if it is equal,
+     * 2 if the field or one of its words starts with the keyword, 1 if it contains it
+     * elsewhere and 0 otherwise.
+     */
+    static int match(String field, String keyword) {
+        if (field == null || keyword.isEmpty()) return 0;
+        if (field.equalsIgnoreCase(keyword)) return 3;
+        int score = 0;
+        int last = field.length() - keyword.length();
+        for (int i = 0; i <= last; i++) {
+            if (field.regionMatches(true, i, keyword, 0, keyword.length())) {
+                if (i == 0 || !Character.isLetterOrDigit(field.charAt(i - 1))) return 2;
+                score = 1;
+            }
+        }
+        return score;
+    }
+}
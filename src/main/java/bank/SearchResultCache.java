@@ -0,0 +1,343 @@
+package bank;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of search results in front of {@link SearchHandler}.
+ * <p>
+ * Results are keyed by scope (customers, employees, accounts, or one customer's
+ * accounts), criteria, keyword, cursor and page size. Search keywords are compared
+ * after trimming and lower-casing, which is how every search path matches them anyway.
+ * The username of a customer's accounts is an exact, case-sensitive key and is used as given.
+ * Entries expire after a time-to-live and the least recently used entry is evicted
+ * once the cache is full.
+ * </p>
+ * <p>
+ * The cache listens to {@link DatabaseManager} writes so that tellers do not see stale
+ * results until the entry expires:
+ * </p>
+ * <ul>
+ *   <li>Saving a user drops every customer, employee and account search, since the new
+ *       name or phone may match any of them. (De)activating a user drops customer and
+ *       employee searches.</li>
+ *   <li>Saving an account drops every account search and the account lists of its owner.</li>
+ *   <li>A balance change drops only the entries that contain one of the changed accounts.</li>
+ * </ul>
+ * <p>
+ * As in {@link BalanceCache}, a result loaded while a matching invalidation happened is
+ * returned but not stored, so a slow search cannot cache a result that a write has already
+ * replaced. Balance changes are checked against the result's own accounts, through a short
+ * log of recently dropped tags, so that a busy ledger does not keep unrelated searches out
+ * of the cache.
+ * </p>
+ */
+public class SearchResultCache implements UserChangeListener, AccountChangeListener {
+
+    /** What a cached search returns. */
+    public enum Scope {
+        CUSTOMERS(true), EMPLOYEES(true), ACCOUNTS(true), CUSTOMER_ACCOUNTS(false);
+
+        /** Whether the keyword is matched ignoring case and surrounding spaces. */
+        final boolean normalized;
+
+        Scope(boolean normalized) {
+            this.normalized = normalized;
+        }
+    }
+
+    private static final Set<Scope> USER_SEARCHES = EnumSet.of(Scope.CUSTOMERS, Scope.EMPLOYEES);
+    private static final Set<Scope> USER_AND_ACCOUNT_SEARCHES = EnumSet.of(Scope.CUSTOMERS, Scope.EMPLOYEES, Scope.ACCOUNTS);
+
+    /** Dropped tags remembered for loads in flight; older loads are not cached. */
+    private static final int TAG_LOG_SIZE = 4096;
+
+    private final int capacity;
+    private final long ttlNanos;
+
+    // Access-ordered for LRU eviction; everything up to the metrics is guarded by this
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<String>> keysByTag = new HashMap<>();
+    private long scopeInvalidations;
+    // Ring of the last TAG_LOG_SIZE dropped tags; drop number n is stored at n % TAG_LOG_SIZE
+    private final String[] droppedTags = new String[TAG_LOG_SIZE];
+    private long tagInvalidations;
+
+    // Metrics, per "SCOPE/criteria"
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * Creates a cache sized by the {@code bank.cache.search.size} (1000) and
+     * {@code bank.cache.search.ttlMs} (30000) system properties. A size of 0 disables caching.
+     */
+    public SearchResultCache() {
+        this(Integer.getInteger("bank.cache.search.size", 1000),
+                Long.getLong("bank.cache.search.ttlMs", 30_000L));
+    }
+
+    /**
+     * @param capacity  Maximum number of cached results; 0 disables caching.
+     * @param ttlMillis How long a result may be served after it was loaded.
+     */
+    public SearchResultCache(int capacity, long ttlMillis) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity must not be negative");
+        if (ttlMillis <= 0) throw new IllegalArgumentException("TTL must be positive");
+        this.capacity = capacity;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * Registers the cache for user and account writes on the given database.
+     */
+    public void register(DatabaseManager database) {
+        database.addUserChangeListener(this);
+        database.addAccountChangeListener(this);
+    }
+
+    /**
+     * Returns the normalized form of a keyword used in cache keys.
+     */
+    public static String normalize(String keyword) {
+        return keyword == null ? "" : keyword.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the cached result, or loads and caches it on a miss.
+     *
+     * @param scope    What the search returns.
+     * @param criteria The search criteria as chosen by the user.
+     * @param keyword  The search keyword; normalized for the key unless the scope matches it exactly.
+     * @param cursor   The page cursor, or null for the first page.
+     * @param limit    The page size.
+     * @param loader   Runs the search on a miss.
+     * @param tagger   Returns the tags (see {@link #accountTag} and {@link #ownerTag}) of a
+     *                 loaded result, whose writes must drop it.
+     */
+    public <T> T get(Scope scope, String criteria, String keyword, String cursor, int limit,
+                     Supplier<T> loader, Function<T, Collection<String>> tagger) {
+        Counters stats = counters.computeIfAbsent(scope + "/" + criteria, k -> new Counters());
+        if (capacity == 0) {
+            stats.misses.incrementAndGet();
+            return loader.get();
+        }
+
+        String term = scope.normalized ? normalize(keyword) : Objects.toString(keyword, "");
+        String key = scope.ordinal() + "\u0001" + criteria + "\u0001" + term
+                + "\u0001" + cursor + "\u0001" + limit;
+        long scopeStamp;
+        long tagStamp;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.loadedAt < ttlNanos) {
+                    stats.hits.incrementAndGet();
+                    @SuppressWarnings("unchecked")
+                    T value = (T) entry.value;
+                    return value;
+                }
+                remove(key);
+                expirations.incrementAndGet();
+            }
+            scopeStamp = scopeInvalidations;
+            tagStamp = tagInvalidations;
+        }
+
+        stats.misses.incrementAndGet();
+        T value = loader.get();
+        Collection<String> tags = tagger.apply(value);
+        synchronized (this) {
+            if (unchangedSince(scopeStamp, tagStamp, tags)) put(key, new Entry(scope, value, tags, System.nanoTime()));
+        }
+        return value;
+    }
+
+    /**
+     * Returns whether no scope was dropped, and none of the tags, since the stamps were taken.
+     */
+    private boolean unchangedSince(long scopeStamp, long tagStamp, Collection<String> tags) {
+        if (scopeStamp != scopeInvalidations) return false;
+        if (tagInvalidations - tagStamp > TAG_LOG_SIZE) return false; // Log no longer covers the load
+        for (long n = tagStamp; n < tagInvalidations; n++) {
+            if (tags.contains(droppedTags[(int) (n % TAG_LOG_SIZE)])) return false;
+        }
+        return true;
+    }
+
+    /** Tag of results that contain the account, dropped when its balance changes. */
+    public static String accountTag(String accountId) {
+        return "a:" + accountId;
+    }
+
+    /** Tag of results that list the accounts of this owner, dropped when one is added. */
+    public static String ownerTag(String username) {
+        return "u:" + username;
+    }
+
+    // --- Invalidation ---
+
+    @Override
+    public void userSaved(String username, String role, String fullName, String dateOfBirth, String phone, String email) {
+        dropScopes(USER_AND_ACCOUNT_SEARCHES);
+    }
+
+    @Override
+    public void userActivationChanged(String username, boolean active) {
+        dropScopes(USER_SEARCHES);
+    }
+
+    @Override
+    public synchronized void accountSaved(String accountId, String ownerUsername) {
+        dropScopes(EnumSet.of(Scope.ACCOUNTS));
+        dropTag(ownerTag(ownerUsername));
+        // Also reaches the previous owner's list if the account was replaced
+        dropTag(accountTag(accountId));
+    }
+
+    @Override
+    public synchronized void balancesChanged(Collection<String> accountIds) {
+        for (String accountId : accountIds) {
+            if (accountId != null) dropTag(accountTag(accountId));
+        }
+    }
+
+    /**
+     * Drops every cached result.
+     */
+    public synchronized void clear() {
+        scopeInvalidations++;
+        entries.clear();
+        keysByTag.clear();
+    }
+
+    private synchronized void dropScopes(Set<Scope> scopes) {
+        scopeInvalidations++;
+        List<String> doomed = new ArrayList<>();
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            if (scopes.contains(e.getValue().scope)) doomed.add(e.getKey());
+        }
+        for (String key : doomed) remove(key);
+    }
+
+    private void dropTag(String tag) {
+        droppedTags[(int) (tagInvalidations++ % TAG_LOG_SIZE)] = tag;
+        Set<String> keys = keysByTag.remove(tag);
+        if (keys == null) return;
+        for (String key : keys) remove(key);
+    }
+
+    private void put(String key, Entry entry) {
+        remove(key);
+        entries.put(key, entry);
+        for (String tag : entry.tags) {
+            keysByTag.computeIfAbsent(tag, t -> new HashSet<>()).add(key);
+        }
+        if (entries.size() > capacity) {
+            Iterator<String> eldest = entries.keySet().iterator();
+            remove(eldest.next());
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) return;
+        for (String tag : entry.tags) {
+            Set<String> keys = keysByTag.get(tag);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) keysByTag.remove(tag);
+        }
+    }
+
+    // --- Metrics ---
+
+    public synchronized int size() { return entries.size(); }
+
+    public long getHitCount() {
+        return counters.values().stream().mapToLong(c -> c.hits.get()).sum();
+    }
+
+    public long getMissCount() {
+        return counters.values().stream().mapToLong(c -> c.misses.get()).sum();
+    }
+
+    public long getEvictionCount() { return evictions.get(); }
+
+    public long getExpirationCount() { return expirations.get(); }
+
+    public synchronized long getInvalidationCount() { return scopeInvalidations + tagInvalidations; }
+
+    public double getHitRatio() {
+        return ratio(getHitCount(), getMissCount());
+    }
+
+    /**
+     * Returns the hit ratio of one kind of search, or 0 if it has not been run.
+     *
+     * @param scope    What the search returns.
+     * @param criteria The search criteria, e.g. "Name".
+     */
+    public double getHitRatio(Scope scope, String criteria) {
+        Counters c = counters.get(scope + "/" + criteria);
+        return c == null ? 0.0 : ratio(c.hits.get(), c.misses.get());
+    }
+
+    /**
+     * Returns the hit ratio of every kind of search run so far, keyed by "SCOPE/criteria".
+     */
+    public Map<String, Double> getHitRatios() {
+        Map<String, Double> ratios = new TreeMap<>();
+        counters.forEach((k, c) -> ratios.put(k, ratio(c.hits.get(), c.misses.get())));
+        return ratios;
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(String.format(
+                "SearchResultCache[size=%d/%d, hits=%d, misses=%d, hitRatio=%.2f, evictions=%d, expirations=%d, invalidations=%d",
+                size(), capacity, getHitCount(), getMissCount(), getHitRatio(), getEvictionCount(),
+                getExpirationCount(), getInvalidationCount()));
+        getHitRatios().forEach((k, r) -> sb.append(String.format(", %s=%.2f", k, r)));
+        return sb.append(']').toString();
+    }
+
+    private static final class Entry {
+        final Scope scope;
+        final Object value;
+        final Collection<String> tags;
+        final long loadedAt;
+
+        Entry(Scope scope, Object value, Collection<String> tags, long loadedAt) {
+            this.scope = scope;
+            this.value = value;
+            this.tags = tags;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private static final class Counters {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+    }
+}
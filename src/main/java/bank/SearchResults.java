@@ -0,0 +1,82 @@
+package bank;
+
+import java.util.List;
+
+/**
+ * One page of search results plus the total number of matches.
+ * <p>
+ * The cursor is an opaque token that is passed back to fetch the page that follows;
+ * it is {@code null} on the last page. It carries the total from the first page, so
+ * later pages do not count the matches again.
+ * </p>
+ *
+ * @param <T> The result type, e.g. {@link UserRecord} or {@link AccountRecord}.
+ */
+public final class SearchResults<T> {
+    private final List<T> items;
+    private final int totalCount;
+    private final String nextCursor;
+
+    public SearchResults(List<T> items, int totalCount, String nextCursor) {
+        this.items = items;
+        this.totalCount = totalCount;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return The number of matches across all pages.
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return The token for the next page, or {@code null} if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    // --- Cursor encoding: "<total>:<position>" ---
+
+    /**
+     * Builds a cursor that resumes after {@code position}.
+     */
+    static String cursor(int totalCount, String position) {
+        return totalCount + ":" + position;
+    }
+
+    /**
+     * Returns the total stored in the cursor, or -1 for the first page.
+     */
+    static int cursorTotal(String cursor) {
+        if (cursor == null) return -1;
+        try {
+            return Integer.parseInt(cursor.substring(0, separator(cursor)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Returns the position stored in the cursor, or null for the first page.
+     */
+    static String cursorPosition(String cursor) {
+        if (cursor == null) return null;
+        return cursor.substring(separator(cursor) + 1);
+    }
+
+    private static int separator(String cursor) {
+        int sep = cursor.indexOf(':');
+        if (sep <= 0) throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+        return sep;
+    }
+}
@@ -0,0 +1,17 @@
+package bank;
+
+/**
+ * A logged-in user, as tracked by the {@link SessionRegistry}.
+ *
+ * @param token    The opaque token that identifies the session to its client.
+ * @param username The logged-in user.
+ * @param role     The user's role at login: CUSTOMER, TELLER or ADMIN.
+ */
+public record Session(String token, String username, String role) {
+
+    @Override
+    public String toString() {
+        // Keeps the token out of logs
+        return "Session[username=" + username + ", role=" + role + "]";
+    }
+}
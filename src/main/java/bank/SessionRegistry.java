@@ -0,0 +1,168 @@
+package bank;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The logged-in sessions of every user served by this process.
+ * <p>
+ * Each login gets a random, unguessable token. Callers pass the token back with each
+ * request and the registry returns the session's user and role, which were read once
+ * at login. A session expires after it has been idle for the timeout, unless it was
+ * opened without idle expiry, as the desktop GUI's is; expired sessions are removed
+ * when they are next looked up and by a sweep at most once a minute.
+ * </p>
+ * <p>
+ * The registry listens to user writes: deactivating a user ends their sessions at once,
+ * and so does saving them with a different role, so that the next request has to log
+ * in again. All methods may be called from any thread.
+ * </p>
+ */
+public class SessionRegistry implements UserChangeListener {
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final SecureRandom random = new SecureRandom();
+    private final long idleNanos;
+    private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    // Metrics
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+
+    /**
+     * Creates a registry with the {@code bank.session.idleMinutes} system property (30) as the idle timeout.
+     */
+    public SessionRegistry() {
+        this(TimeUnit.MINUTES.toMillis(Long.getLong("bank.session.idleMinutes", 30L)));
+    }
+
+    /**
+     * @param idleMillis How long a session may go unused before it expires.
+     */
+    public SessionRegistry(long idleMillis) {
+        if (idleMillis <= 0) throw new IllegalArgumentException("Idle timeout must be positive");
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+    }
+
+    /**
+     * Ends sessions on the given database's user deactivations and role changes.
+     */
+    public void register(DatabaseManager database) {
+        database.addUserChangeListener(this);
+    }
+
+    /**
+     * Starts a session for a user whose credentials have been checked.
+     *
+     * @return The new session, with its token.
+     */
+    public Session open(String username, String role) {
+        return open(username, role, true);
+    }
+
+    /**
+     * Starts a session for a user whose credentials have been checked.
+     *
+     * @param idleExpiry Whether the session expires after the idle timeout. Either way it
+     *                   ends when the user is deactivated or changes role.
+     * @return The new session, with its token.
+     */
+    public Session open(String username, String role, boolean idleExpiry) {
+        sweepIfDue();
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        Session session = new Session(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes), username, role);
+        sessions.put(session.token(), new Entry(session, idleExpiry, System.nanoTime()));
+        opened.incrementAndGet();
+        return session;
+    }
+
+    /**
+     * Returns the session and marks it as used, or returns null if the token is unknown or expired.
+     */
+    public Session get(String token) {
+        if (token == null) return null;
+        Entry entry = sessions.get(token);
+        if (entry == null) return null;
+        long now = System.nanoTime();
+        if (entry.isIdle(now, idleNanos)) {
+            if (sessions.remove(token, entry)) expired.incrementAndGet();
+            return null;
+        }
+        entry.lastUsed = now;
+        return entry.session;
+    }
+
+    /**
+     * Ends a session; unknown tokens are ignored.
+     */
+    public void close(String token) {
+        if (token != null) sessions.remove(token);
+    }
+
+    /**
+     * Ends every session of the user.
+     */
+    public void closeAll(String username) {
+        sessions.values().removeIf(e -> e.session.username().equals(username));
+    }
+
+    private void sweepIfDue() {
+        long now = System.nanoTime();
+        long last = lastSweep.get();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, now)) return;
+        for (Iterator<Entry> it = sessions.values().iterator(); it.hasNext(); ) {
+            if (it.next().isIdle(now, idleNanos)) {
+                it.remove();
+                expired.incrementAndGet();
+            }
+        }
+    }
+
+    // --- Invalidation ---
+
+    @Override
+    public void userSaved(String username, String role, String fullName, String dateOfBirth, String phone, String email) {
+        sessions.values().removeIf(e -> e.session.username().equals(username) && !e.session.role().equals(role));
+    }
+
+    @Override
+    public void userActivationChanged(String username, boolean active) {
+        if (!active) closeAll(username);
+    }
+
+    // --- Metrics ---
+
+    public int size() { return sessions.size(); }
+
+    public long getOpenedCount() { return opened.get(); }
+
+    public long getExpiredCount() { return expired.get(); }
+
+    @Override
+    public String toString() {
+        return String.format("SessionRegistry[active=%d, opened=%d, expired=%d]", size(), getOpenedCount(), getExpiredCount());
+    }
+
+    private static final class Entry {
+        final Session session;
+        final boolean idleExpiry;
+        volatile long lastUsed;
+
+        Entry(Session session, boolean idleExpiry, long lastUsed) {
+            this.session = session;
+            this.idleExpiry = idleExpiry;
+            this.lastUsed = lastUsed;
+        }
+
+        boolean isIdle(long now, long idleNanos) {
+            return idleExpiry && now - lastUsed > idleNanos;
+        }
+    }
+}
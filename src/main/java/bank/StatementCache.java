@@ -0,0 +1,182 @@
+package bank;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches prepared statements for a single pooled physical connection, keyed by SQL text.
+ * <p>
+ * SQLite compiles and plans a statement every time it is prepared. This cache keeps
+ * compiled statements alive for the lifetime of the physical connection, so repeated
+ * calls with the same SQL skip compilation. Statements handed out are wrappers whose
+ * {@code close()} resets the statement (closing any open result set and clearing its
+ * parameters) and returns it to the cache.
+ * </p>
+ * <p>
+ * Instances are confined to the thread currently holding the connection, so they are
+ * not synchronized.
+ * </p>
+ */
+class StatementCache {
+    private final Connection physical;
+    private final int capacity;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    // Access-ordered so the least recently used statement is evicted first
+    private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param physical The physical connection the statements belong to.
+     * @param capacity Maximum number of statements kept open.
+     * @param hits     Shared counter incremented on every cache hit.
+     * @param misses   Shared counter incremented on every cache miss.
+     */
+    StatementCache(Connection physical, int capacity, AtomicLong hits, AtomicLong misses) {
+        this.physical = physical;
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * Returns a prepared statement for the SQL, reusing a cached one when it is free.
+     *
+     * @param sql   The SQL text.
+     * @param owner The connection handle reported by {@code getConnection()}.
+     * @return A statement whose {@code close()} returns it to the cache.
+     */
+    PreparedStatement prepare(String sql, Connection owner) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && !cached.inUse) {
+            hits.incrementAndGet();
+            cached.inUse = true;
+            return cached.newHandle(owner);
+        }
+        misses.incrementAndGet();
+
+        PreparedStatement stmt = physical.prepareStatement(sql);
+        if (cached != null || capacity == 0) {
+            // Same SQL is already in use on this connection: hand out an uncached statement
+            return stmt;
+        }
+        cached = new CachedStatement(stmt);
+        cached.inUse = true;
+        statements.put(sql, cached);
+        evictOverflow();
+        return cached.newHandle(owner);
+    }
+
+    private void evictOverflow() {
+        Iterator<CachedStatement> it = statements.values().iterator();
+        while (statements.size() > capacity && it.hasNext()) {
+            CachedStatement eldest = it.next();
+            if (eldest.inUse) continue;
+            it.remove();
+            closeQuietly(eldest.stmt);
+        }
+    }
+
+    /**
+     * Resets every statement the previous borrower forgot to close, so they can be reused.
+     */
+    void releaseAll() {
+        for (CachedStatement cached : statements.values()) {
+            if (cached.inUse) cached.reset();
+        }
+    }
+
+    /**
+     * Closes every cached statement. Called before the physical connection is closed.
+     */
+    void closeAll() {
+        List<CachedStatement> all = new ArrayList<>(statements.values());
+        statements.clear();
+        for (CachedStatement cached : all) {
+            closeQuietly(cached.stmt);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            System.out.println("Failed to close cached statement: " + e.getMessage());
+        }
+    }
+
+    /**
+     * One compiled statement plus the state of its current borrower.
+     */
+    private static final class CachedStatement {
+        final PreparedStatement stmt;
+        boolean inUse;
+        ResultSet openResult;
+        // Each handle gets a generation so a stale handle cannot touch a reused statement
+        int generation;
+
+        CachedStatement(PreparedStatement stmt) {
+            this.stmt = stmt;
+        }
+
+        PreparedStatement newHandle(Connection owner) {
+            final int handleGeneration = ++generation;
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> invoke(proxy, handleGeneration, owner, method, args));
+        }
+
+        private Object invoke(Object proxy, int handleGeneration, Connection owner, Method method, Object[] args) throws Throwable {
+            boolean live = inUse && generation == handleGeneration;
+            switch (method.getName()) {
+                case "close":
+                    if (live) reset();
+                    return null;
+                case "isClosed":
+                    return !live || stmt.isClosed();
+                case "getConnection":
+                    return owner;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return args[0] == proxy;
+                case "toString":
+                    return "Cached" + stmt;
+                default:
+                    if (!live) throw new SQLException("Statement is closed");
+                    try {
+                        Object result = method.invoke(stmt, args);
+                        if (result instanceof ResultSet rs) openResult = rs;
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+
+        /**
+         * Closes any open cursor (releasing SQLite's read lock) and clears parameters.
+         */
+        void reset() {
+            inUse = false;
+            try {
+                if (openResult != null) openResult.close();
+                stmt.clearParameters();
+            } catch (SQLException e) {
+                System.out.println("Failed to reset cached statement: " + e.getMessage());
+            } finally {
+                openResult = null;
+            }
+        }
+    }
+}
@@ -9,14 +9,14 @@ public class Transaction {
     private String transactionID; // Unique ID for all transactions
     private static int nextTransactionID = 0;
     private String TxStatus; // Status of the transaction, either PENDING_REVIEW, APPROVED, CANCELLED, or COMPLETED
-    private float amount; // The amount of money being transferred
+    private long amount; // The amount of money being transferred, in cents
     private Instant createdAt; // The instant that the transaction was created
     private String fromAccount; // The ID of the account that the money is coming from
     private String toAccount; // The ID of the account that the money is going to
 
 
     // Constructors
-    public Transaction(float amount, String fromAccount, String toAccount){
+    public Transaction(long amount, String fromAccount, String toAccount){
         transactionID = String.valueOf(nextTransactionID);
         nextTransactionID++;
         this.amount = amount;
@@ -47,7 +47,7 @@ public class Transaction {
         return TxStatus;
     }
 
-    public float getAmount(){
+    public long getAmount(){
         return amount;
     }
 
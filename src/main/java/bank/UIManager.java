@@ -1,24 +1,68 @@
 package bank;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * The central controller (Facade) for the application.
  * It coordinates actions between the UI and the specialized Logic Handlers.
  */
 public class UIManager {
+    /** Number of history rows shown before the user asks for more. */
+    public static final int HISTORY_PAGE_SIZE = 20;
+
+    /** Number of search results shown before the user asks for more. */
+    public static final int SEARCH_PAGE_SIZE = 20;
+
+    /** Number of type-ahead suggestions offered while typing an ID. */
+    public static final int SUGGESTION_LIMIT = 10;
+
+    /** Number of latest transactions shown per account in a customer overview. */
+    public static final int RECENT_ACTIVITY_SIZE = 3;
+
     private final DatabaseManager database;
+    private final LedgerWriter ledgerWriter;
+    private final MemoryLedger memoryLedger; // Null unless bank.ledger.memory is set
     
     // Logic Handlers
     private final LoginHandler authHandler;
     private final SearchHandler searchHandler;
     private final RiskVerification riskManager;
     
-    private String currentSessionUser; 
+    private final SessionRegistry sessions = new SessionRegistry();
+    private final AsyncUIManager async = new AsyncUIManager(this);
+
+    // Token of the desktop GUI's own session; it does not expire while the window is open
+    private volatile String desktopToken;
 
     public UIManager() {
-        this.database = new DatabaseManager();
+        this(StorageProfile.fromSystemProperties());
+    }
+
+    /**
+     * Creates the facade on top of a database tuned with the given storage profile.
+     *
+     * @param profile The SQLite tuning profile (durable, balanced or throughput).
+     */
+    public UIManager(StorageProfile profile) {
+        this(new DatabaseManager(profile));
+    }
+
+    /**
+     * Creates the facade on top of an open database, e.g. a temporary one in tests.
+     */
+    UIManager(DatabaseManager database) {
+        this.database = database;
+        this.ledgerWriter = new LedgerWriter(database, new PostingEngine(database));
+        if (MemoryLedger.isEnabled()) {
+            this.memoryLedger = new MemoryLedger(database, ledgerWriter);
+        } else {
+            MemoryLedger.recover(database, ledgerWriter);
+            this.memoryLedger = null;
+        }
         
         // Delegate specific responsibilities to handlers
         this.authHandler = new LoginHandler(database);
@@ -26,6 +70,7 @@ public class UIManager {
         this.riskManager = new RiskVerification();
         
         seedDefaultData();
+        sessions.register(database);
     }
 
     /**
@@ -36,17 +81,28 @@ public class UIManager {
         database.saveUser("teller", "123", "TELLER", "Branch Teller", "1990-05-20", "555-5678", "teller@bank.com");
         database.saveUser("admin", "123", "ADMIN", "System Administrator", "1985-11-15", "555-9999", "admin@bank.com");
         
-        database.saveAccount("853013", "test", "Chequing", 15000.00);
+        database.saveAccount("853013", "test", "Chequing", 15000_00L);
     }
 
     // --- Authentication (Delegated) ---
 
+    /**
+     * Logs the desktop GUI in, replacing any previous desktop session.
+     */
     public boolean handleLogin(String username, String password) {
-        if (authHandler.validateLogin(username, password)) {
-            this.currentSessionUser = username;
-            return true;
-        }
-        return false;
+        if (!authHandler.validateLogin(username, password)) return false;
+        String previous = desktopToken;
+        desktopToken = sessions.open(username, authHandler.getUserRole(username), false).token();
+        sessions.close(previous);
+        return true;
+    }
+
+    /**
+     * Returns the desktop GUI's session, or null once it has logged out or the registry has
+     * ended it, e.g. because the user was deactivated.
+     */
+    private Session desktopSession() {
+        return sessions.get(desktopToken);
     }
 
     public String getDashboardType(String username) {
@@ -54,36 +110,127 @@ public class UIManager {
     }
 
     public String getCurrentUserRole() {
-        if (currentSessionUser == null) return "";
-        return getDashboardType(currentSessionUser);
+        Session session = desktopSession();
+        return session != null ? session.role() : "";
     }
 
     public String getCurrentUserName() {
-        return currentSessionUser != null ? currentSessionUser : "User"; 
+        Session session = desktopSession();
+        return session != null ? session.username() : "User";
     }
 
     public void logout() {
-        this.currentSessionUser = null;
+        String token = desktopToken;
+        desktopToken = null;
+        sessions.close(token);
+    }
+
+    // --- Sessions ---
+    // Used by clients other than the desktop GUI; any number may be logged in at once.
+
+    /**
+     * Checks the credentials and starts a session.
+     *
+     * @return The session token to pass to the session-scoped methods, or null if the login failed.
+     */
+    public String login(String username, String password) {
+        if (!authHandler.validateLogin(username, password)) return null;
+        return sessions.open(username, authHandler.getUserRole(username)).token();
+    }
+
+    /**
+     * Returns the token's session and keeps it alive, or returns null if it is unknown or expired.
+     */
+    public Session getSession(String token) {
+        return sessions.get(token);
+    }
+
+    public String getCurrentUserRole(String token) {
+        Session session = sessions.get(token);
+        return session != null ? session.role() : "";
+    }
+
+    public String getCurrentUserName(String token) {
+        Session session = sessions.get(token);
+        return session != null ? session.username() : "User";
+    }
+
+    /**
+     * Returns the accounts of the session's user, or an empty list if the session has expired.
+     */
+    public List<String[]> getUserAccounts(String token) {
+        Session session = sessions.get(token);
+        return session != null ? database.getUserAccounts(session.username()) : List.of();
+    }
+
+    public void logout(String token) {
+        sessions.close(token);
+    }
+
+    public SessionRegistry getSessionRegistry() {
+        return sessions;
     }
 
     // --- Search Operations (Delegated) ---
 
-    public String searchCustomers(String criteria, String keyword) {
-        return searchHandler.searchCustomers(criteria, keyword);
+    /**
+     * Returns one page of customers matching the keyword.
+     *
+     * @param cursor The previous page's cursor, or null for the first page.
+     */
+    public SearchResults<UserRecord> searchCustomers(String criteria, String keyword, String cursor) {
+        return searchHandler.searchCustomers(criteria, keyword, cursor, SEARCH_PAGE_SIZE);
     }
 
-    public String searchEmployees(String criteria, String keyword) { 
-        return searchHandler.searchEmployees(criteria, keyword); 
+    public SearchResults<UserRecord> searchEmployees(String criteria, String keyword, String cursor) { 
+        return searchHandler.searchEmployees(criteria, keyword, cursor, SEARCH_PAGE_SIZE); 
     }
 
-    public String searchAccounts(String criteria, String keyword) { 
-        return searchHandler.searchAccounts(criteria, keyword); 
+    public SearchResults<AccountRecord> searchAccounts(String criteria, String keyword, String cursor) { 
+        return searchHandler.searchAccounts(criteria, keyword, cursor, SEARCH_PAGE_SIZE); 
     }
     
     public List<String[]> getCustomerAccounts(String username) {
         return searchHandler.getCustomerAccounts(username);
     }
 
+    /**
+     * Returns a customer's profile, accounts with balances and the latest
+     * {@link #RECENT_ACTIVITY_SIZE} transactions of each account, or null if there is no such user.
+     */
+    public CustomerOverview getCustomerOverview(String username) {
+        return searchHandler.getCustomerOverview(username, RECENT_ACTIVITY_SIZE);
+    }
+
+    /**
+     * Searches customers, accounts and employees at once and returns the best matches.
+     */
+    public FederatedSearchResults searchAll(String keyword) {
+        return searchHandler.searchAll(keyword, SEARCH_PAGE_SIZE);
+    }
+
+    /**
+     * Returns customer and employee usernames starting with the typed prefix.
+     */
+    public List<String> suggestUsernames(String prefix) {
+        return searchHandler.suggestUsernames(prefix, SUGGESTION_LIMIT);
+    }
+
+    /**
+     * Returns account IDs starting with the typed prefix.
+     */
+    public List<String> suggestAccountIds(String prefix) {
+        return searchHandler.suggestAccountIds(prefix, SUGGESTION_LIMIT);
+    }
+
+    /**
+     * Returns the search cache hit ratio of each kind of search run so far, keyed by
+     * "SCOPE/criteria" (e.g. "CUSTOMERS/Name").
+     */
+    public Map<String, Double> getSearchCacheHitRatios() {
+        return searchHandler.getResultCache().getHitRatios();
+    }
+
     // --- Data Management (Direct DB) ---
 
     public boolean createCustomerAccount(String name, String dob, String type, String phone, String email, String password) {
@@ -96,24 +243,26 @@ public class UIManager {
         database.saveUser(username, password, "CUSTOMER", name, dob, phone, email);
         
         String newAccId = generateId();
-        database.saveAccount(newAccId, username, type, 0.0);
+        database.saveAccount(newAccId, username, type, 0L);
         
         return true; 
     }
 
     /**
      * Creates a new account for an existing user, optionally with an initial balance.
+     *
+     * @param initialBalanceCents The opening balance, in cents.
      */
-    public void createNewAccount(String username, String type, double initialBalance) {
+    public void createNewAccount(String username, String type, long initialBalanceCents) {
         String newAccId = generateId();
         
         // Save the new account linked to the existing username with the starting balance
-        database.saveAccount(newAccId, username, type, initialBalance);
+        database.saveAccount(newAccId, username, type, initialBalanceCents);
         
         // If there is an initial balance, log it as a deposit transaction history
-        if (initialBalance > 0) {
+        if (initialBalanceCents > 0) {
              String txId = generateTxId();
-             database.saveTransaction(txId, "DEPOSIT", initialBalance, null, newAccId, "COMPLETED");
+             database.saveTransaction(txId, "DEPOSIT", initialBalanceCents, null, newAccId, "COMPLETED");
         }
     }
 
@@ -125,77 +274,69 @@ public class UIManager {
 
     public String processDeposit(String accountId, String amountStr) {
         try {
-            double amount = parseAmount(amountStr);
+            long amount = parseAmount(amountStr);
             
             // Check for high-value transactions requiring review
             String status = riskManager.getTransactionStatus(amount);
-            String txId = generateTxId();
-            
-            database.saveTransaction(txId, "DEPOSIT", amount, null, accountId, status);
-            
-            if ("PENDING_REVIEW".equals(status)) {
-                return "PENDING";
-            }
-
-            updateBalance(accountId, amount); // Positive amount adds funds
-            return "SUCCESS";
-            
+            return post(Posting.deposit(generateTxId(), accountId, amount, status)).name();
         } catch (NumberFormatException e) { return "ERROR"; }
     }
 
     public String processWithdrawal(String accountId, String amountStr) {
         try {
-            double amount = parseAmount(amountStr);
+            long amount = parseAmount(amountStr);
             String status = riskManager.getTransactionStatus(amount);
-            String txId = generateTxId();
-
-            if ("PENDING_REVIEW".equals(status)) {
-                database.saveTransaction(txId, "WITHDRAWAL", amount, accountId, null, status);
-                return "PENDING";
-            }
-
-            double currentBalance = database.getBalance(accountId);
-            if (currentBalance >= amount) {
-                database.saveTransaction(txId, "WITHDRAWAL", amount, accountId, null, status);
-                database.updateBalance(accountId, currentBalance - amount);
-                return "SUCCESS";
-            }
-            return "INSUFFICIENT";
+            return post(Posting.withdrawal(generateTxId(), accountId, amount, status)).name();
         } catch (NumberFormatException e) { return "ERROR"; }
     }
 
     public String performTransfer(String fromId, String toId, String amountStr) {
         try {
-            double amount = parseAmount(amountStr);
+            long amount = parseAmount(amountStr);
             String status = riskManager.getTransactionStatus(amount);
-            String txId = generateTxId();
-
-            if ("PENDING_REVIEW".equals(status)) {
-                database.saveTransaction(txId, "TRANSFER", amount, fromId, toId, status);
-                return "PENDING";
-            }
-
-            if (database.getBalance(fromId) >= amount) {
-                // Attempt atomic transfer in DB
-                if (database.transfer(fromId, toId, amount)) {
-                    database.saveTransaction(txId, "TRANSFER", amount, fromId, toId, "COMPLETED");
-                    return "SUCCESS";
-                }
-                return "ERROR";
-            }
-            return "INSUFFICIENT";
+            return post(Posting.transfer(generateTxId(), fromId, toId, amount, status)).name();
         } catch (Exception e) { return "ERROR"; }
     }
 
+    /**
+     * Queues a posting and waits for its commit. Needs no locking: the ledger writer is the
+     * only thread that moves funds, and a debit is a single conditional update, so the funds
+     * check and the write cannot be separated by another posting.
+     */
+    private PostingResult post(Posting posting) {
+        return submit(posting).join();
+    }
+
+    private CompletableFuture<PostingResult> submit(Posting posting) {
+        return memoryLedger != null ? memoryLedger.submit(posting) : ledgerWriter.submit(posting);
+    }
+
     // --- UI Data Retrieval ---
 
     public List<String[]> getUserAccounts() { 
-        return database.getUserAccounts(currentSessionUser); 
+        Session session = desktopSession();
+        return session != null ? database.getUserAccounts(session.username()) : List.of();
     }
 
     public List<String[]> getAccountHistory(String accountId) { 
         return database.getTransactionHistory(accountId); 
     }
+
+    /**
+     * Returns one page of an account's history, newest first.
+     *
+     * @param cursor The previous page's cursor, or null for the first page.
+     */
+    public HistoryPage getAccountHistoryPage(String accountId, String cursor) {
+        return database.getTransactionHistoryPage(accountId, cursor, HISTORY_PAGE_SIZE);
+    }
+
+    /**
+     * Streams an account's full history to the consumer without materializing it.
+     */
+    public void streamAccountHistory(String accountId, Consumer<String[]> consumer) {
+        database.streamTransactionHistory(accountId, consumer);
+    }
     
     public boolean removeEmployee(String username) { 
         if ("admin".equals(username)) return false; 
@@ -206,12 +347,15 @@ public class UIManager {
         return database.activateUser(username); 
     }
     
-    public double getAccountBalance(String accountId) {
-        return database.getBalance(accountId);
+    /**
+     * Returns the account balance in cents.
+     */
+    public long getAccountBalance(String accountId) {
+        return memoryLedger != null ? memoryLedger.getBalance(accountId) : database.getBalance(accountId);
     }
 
     public String getFormattedBalance(String accountId) {
-        return String.format("$%.2f", getAccountBalance(accountId));
+        return Money.format(getAccountBalance(accountId));
     }
 
     public List<String[]> getPendingTransactions() {
@@ -220,38 +364,33 @@ public class UIManager {
 
     // --- Review Logic ---
 
-    public void approveTransaction(String transactionID) {
-        double amount = database.getTransactionAmount(transactionID);
-        String[] parties = database.getTransactionParties(transactionID); // [from, to]
+    /**
+     * Settles a transaction held for review.
+     *
+     * @return "SUCCESS", "INSUFFICIENT" if the sender is short of funds (it stays pending),
+     *         or "ERROR" if the transaction is not pending.
+     */
+    public String approveTransaction(String transactionID) {
+        // Balance movement and status change commit together
+        return submit(Posting.settlement(transactionID)).join().name();
+    }
 
-        if (parties != null) {
-            boolean success = false;
-            
-            // Identify transaction type based on null parties
-            if (parties[0] != null && parties[1] != null) {
-                 // Transfer: Sender -> Receiver
-                 success = database.transfer(parties[0], parties[1], amount);
-            } else if (parties[1] != null) { 
-                 // Deposit: No Sender -> Receiver
-                 updateBalance(parties[1], amount); 
-                 success = true; 
-            } else if (parties[0] != null) { 
-                 // Withdrawal: Sender -> No Receiver
-                 double cur = database.getBalance(parties[0]); 
-                 if (cur >= amount) { 
-                     database.updateBalance(parties[0], cur - amount); 
-                     success = true; 
-                 } 
-            }
-
-            if (success) {
-                database.updateTransactionStatus(transactionID, "COMPLETED");
-            }
-        }
+    /**
+     * Cancels a transaction held for review.
+     *
+     * @return true if it was pending and is now cancelled; false if it is unknown or no
+     *         longer pending, e.g. because it was approved first.
+     */
+    public boolean denyTransaction(String transactionID) {
+        if (memoryLedger != null) return memoryLedger.cancel(transactionID);
+        return database.cancelPendingTransaction(transactionID);
     }
 
-    public void denyTransaction(String transactionID) {
-        database.updateTransactionStatus(transactionID, "CANCELLED");
+    /**
+     * Returns the transaction's status, e.g. "COMPLETED", or null if there is no such transaction.
+     */
+    public String getTransactionStatus(String transactionID) {
+        return database.getTransactionStatus(transactionID);
     }
     
     // Legacy overload for simpler creation calls (Used by Tests/Main if needed)
@@ -259,22 +398,38 @@ public class UIManager {
         createCustomerAccount(name, dob, type, "N/A", "N/A", "123");
     }
 
+    /**
+     * Returns the non-blocking view of this facade that the Swing pages use, so that
+     * database calls run off the event dispatch thread.
+     */
+    public AsyncUIManager async() {
+        return async;
+    }
+
+    /**
+     * Writes out every queued posting (and, with the in-memory ledger, a final snapshot).
+     * Called once on shutdown.
+     */
+    public void close() {
+        async.close();
+        if (memoryLedger != null) memoryLedger.close();
+        ledgerWriter.close();
+    }
+
     // --- Helpers ---
 
     private String generateId() {
         return String.valueOf((int)(Math.random() * 1000000));
     }
 
+    /**
+     * A full random UUID: journal replay and duplicate checks identify postings by ID alone.
+     */
     private String generateTxId() {
-        return UUID.randomUUID().toString().substring(0, 8);
-    }
-
-    private double parseAmount(String amountStr) {
-        return Double.parseDouble(amountStr.replace("$", "").trim());
+        return UUID.randomUUID().toString();
     }
 
-    private void updateBalance(String accountId, double amountToAdd) {
-        double cur = database.getBalance(accountId);
-        database.updateBalance(accountId, cur + amountToAdd);
+    private long parseAmount(String amountStr) {
+        return Money.parseCents(amountStr);
     }
 }
\ No newline at end of file
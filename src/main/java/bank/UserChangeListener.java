@@ -0,0 +1,23 @@
+package bank;
+
+/**
+ * Receives notifications after {@link DatabaseManager} has written a user row.
+ * <p>
+ * Listeners are called on the thread that performed the write, after the change is
+ * committed. They must be quick and must not call back into the database manager.
+ * </p>
+ */
+public interface UserChangeListener {
+
+    /**
+     * A user was created or updated by {@link DatabaseManager#saveUser}. Saving always
+     * leaves the user active.
+     */
+    void userSaved(String username, String role, String fullName, String dateOfBirth, String phone, String email);
+
+    /**
+     * A user was deactivated by {@link DatabaseManager#deleteUser} or reactivated by
+     * {@link DatabaseManager#activateUser}.
+     */
+    void userActivationChanged(String username, boolean active);
+}
@@ -0,0 +1,16 @@
+package bank;
+
+/**
+ * A user row as returned by searches.
+ *
+ * @param username    The unique login name, shown to tellers as the customer or employee ID.
+ * @param role        CUSTOMER, TELLER or ADMIN.
+ * @param fullName    The user's full legal name.
+ * @param dateOfBirth Date of birth as entered, or null.
+ * @param phone       Contact phone number, or null.
+ * @param email       Contact email address, or null.
+ * @param active      False once the user has been deactivated.
+ */
+public record UserRecord(String username, String role, String fullName, String dateOfBirth,
+                         String phone, String email, boolean active) {
+}
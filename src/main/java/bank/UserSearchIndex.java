@@ -0,0 +1,434 @@
+package bank;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * An in-memory trigram index over users for case-insensitive substring search.
+ * <p>
+ * Every user is stored once under an integer document number. Each indexed field is
+ * split into overlapping three-character sequences (trigrams) and the document number
+ * is appended to the posting list of every trigram. A search intersects the posting
+ * lists of the keyword's trigrams and then checks the few remaining candidates
+ * against the keyword itself, so it never scans the user list and never touches SQLite.
+ * </p>
+ * <p>
+ * Document numbers only grow, which keeps posting lists sorted and results in the order
+ * users were loaded or created. Changing an indexed field retires the old document and
+ * adds a new one; retired documents are dropped by an in-memory rebuild once they make
+ * up a quarter of the index. Activation changes update the stored flag in place.
+ * </p>
+ * <p>
+ * The index is kept current through {@link UserChangeListener}. It is safe for concurrent
+ * searches and updates.
+ * </p>
+ */
+public class UserSearchIndex implements UserChangeListener {
+
+    /** The user fields that can be searched. */
+    public enum Field { USERNAME, FULL_NAME, PHONE, EMAIL }
+
+    /** Keywords of fewer code points than a trigram cannot be answered by the index. */
+    public static final int MIN_KEYWORD_LENGTH = 3;
+
+    private static final Field[] FIELDS = Field.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Parallel arrays indexed by document number; all guarded by lock
+    private String[] usernames = new String[1024];
+    private String[] roles = new String[1024];
+    private String[] fullNames = new String[1024];
+    private String[] datesOfBirth = new String[1024];
+    private String[] phones = new String[1024];
+    private String[] emails = new String[1024];
+    private BitSet active = new BitSet();
+    private BitSet retired = new BitSet();
+    private int docCount;
+    private int retiredCount;
+
+    private Map<String, Integer> docByUsername = new HashMap<>();
+    private TrigramTable postings = new TrigramTable();
+
+    /**
+     * Builds the index from every user in the database and registers it for updates.
+     * Meant to run at startup, before other threads start writing users.
+     */
+    public static UserSearchIndex load(DatabaseManager database) {
+        UserSearchIndex index = new UserSearchIndex();
+        database.addUserChangeListener(index);
+        database.streamUsers(row -> index.put(row[0], row[1], row[2], row[3], row[4], row[5], "1".equals(row[6])));
+        return index;
+    }
+
+    /**
+     * Returns whether the index can answer a search for this keyword. Counts code points,
+     * as the SQLite trigram tokenizer does, so that the index and the database fallback
+     * agree on which keywords are too short.
+     */
+    public static boolean isSearchable(String keyword) {
+        return keyword != null && keyword.codePointCount(0, keyword.length()) >= MIN_KEYWORD_LENGTH;
+    }
+
+    /**
+     * Finds users whose field contains the keyword, ignoring case, one page at a time.
+     * The first page also counts every match; later pages reuse the count from the cursor.
+     * Cursors refer to document numbers, so a page requested after the index has been
+     * compacted may skip or repeat users.
+     *
+     * @param field   The field to search.
+     * @param keyword The substring to look for; must be {@link #isSearchable searchable}.
+     * @param filter  Extra condition a user must satisfy, e.g. not being a customer.
+     * @param cursor  The previous page's cursor, or null for the first page.
+     * @param limit   Maximum number of users per page.
+     * @return Matching users in insertion order.
+     */
+    public SearchResults<UserRecord> search(Field field, String keyword, Predicate<UserRecord> filter, String cursor, int limit) {
+        if (!isSearchable(keyword)) throw new IllegalArgumentException("Keyword too short for trigram search: " + keyword);
+        int total = SearchResults.cursorTotal(cursor);
+        int afterDoc = cursor == null ? -1 : parseDoc(cursor);
+        boolean counting = total < 0;
+        if (counting) total = 0;
+
+        List<UserRecord> page = new ArrayList<>(Math.min(limit, 64));
+        int lastDoc = -1;
+        boolean more = false;
+        lock.readLock().lock();
+        try {
+            Postings[] lists = lookup(field, keyword);
+            if (lists == null) return new SearchResults<>(page, 0, null);
+
+            Postings smallest = lists[0];
+            int start = Arrays.binarySearch(smallest.docs, 0, smallest.size, afterDoc + 1);
+            if (start < 0) start = -start - 1;
+            for (int i = start; i < smallest.size; i++) {
+                int doc = smallest.docs[i];
+                if (retired.get(doc) || !containsAll(lists, doc)) continue;
+                if (!containsIgnoreCase(fieldValue(field, doc), keyword)) continue;
+
+                UserRecord user = record(doc);
+                if (!filter.test(user)) continue;
+                if (page.size() < limit) {
+                    page.add(user);
+                    lastDoc = doc;
+                } else {
+                    more = true;
+                }
+                if (counting) total++;
+                else if (more) break;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        String next = more ? SearchResults.cursor(total, Integer.toString(lastDoc)) : null;
+        return new SearchResults<>(page, total, next);
+    }
+
+    private static int parseDoc(String cursor) {
+        try {
+            return Integer.parseInt(SearchResults.cursorPosition(cursor));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Returns the posting lists of the keyword's trigrams, smallest first,
+     * or null if some trigram never occurs.
+     */
+    private Postings[] lookup(Field field, String keyword) {
+        long[] keys = trigramKeys(field, keyword);
+        Postings[] lists = new Postings[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = postings.get(keys[i]);
+            if (lists[i] == null) return null;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        return lists;
+    }
+
+    private static boolean containsAll(Postings[] lists, int doc) {
+        for (int i = 1; i < lists.length; i++) {
+            if (Arrays.binarySearch(lists[i].docs, 0, lists[i].size, doc) < 0) return false;
+        }
+        return true;
+    }
+
+    private static boolean containsIgnoreCase(String value, String keyword) {
+        if (value == null) return false;
+        int last = value.length() - keyword.length();
+        for (int i = 0; i <= last; i++) {
+            if (value.regionMatches(true, i, keyword, 0, keyword.length())) return true;
+        }
+        return false;
+    }
+
+    // --- Updates ---
+
+    @Override
+    public void userSaved(String username, String role, String fullName, String dateOfBirth, String phone, String email) {
+        put(username, role, fullName, dateOfBirth, phone, email, true);
+    }
+
+    @Override
+    public void userActivationChanged(String username, boolean isActive) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByUsername.get(username);
+            if (doc != null) active.set(doc, isActive);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a user or replaces the stored copy of an existing one.
+     */
+    void put(String username, String role, String fullName, String dateOfBirth, String phone, String email, boolean isActive) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = docByUsername.get(username);
+            if (existing != null) {
+                int doc = existing;
+                if (sameIndexedFields(doc, fullName, phone, email)) {
+                    // Only stored fields changed: no need to touch the posting lists
+                    roles[doc] = role == null ? null : role.intern();
+                    datesOfBirth[doc] = dateOfBirth;
+                    active.set(doc, isActive);
+                    return;
+                }
+                retired.set(doc);
+                retiredCount++;
+            }
+
+            int doc = append(username, role, fullName, dateOfBirth, phone, email, isActive);
+            docByUsername.put(username, doc);
+            if (retiredCount > docCount / 4 && retiredCount > 1024) compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean sameIndexedFields(int doc, String fullName, String phone, String email) {
+        return Objects.equals(fullNames[doc], fullName)
+                && Objects.equals(phones[doc], phone)
+                && Objects.equals(emails[doc], email);
+    }
+
+    private int append(String username, String role, String fullName, String dateOfBirth, String phone, String email, boolean isActive) {
+        if (docCount == usernames.length) grow();
+        int doc = docCount++;
+        usernames[doc] = username;
+        // Roles repeat for every user; share one instance per distinct role
+        roles[doc] = role == null ? null : role.intern();
+        fullNames[doc] = fullName;
+        datesOfBirth[doc] = dateOfBirth;
+        phones[doc] = phone;
+        emails[doc] = email;
+        active.set(doc, isActive);
+
+        for (Field field : FIELDS) {
+            String value = fieldValue(field, doc);
+            if (value == null) continue;
+            for (long key : trigramKeys(field, value)) {
+                postings.getOrCreate(key).add(doc);
+            }
+        }
+        return doc;
+    }
+
+    private void grow() {
+        int capacity = usernames.length * 2;
+        usernames = Arrays.copyOf(usernames, capacity);
+        roles = Arrays.copyOf(roles, capacity);
+        fullNames = Arrays.copyOf(fullNames, capacity);
+        datesOfBirth = Arrays.copyOf(datesOfBirth, capacity);
+        phones = Arrays.copyOf(phones, capacity);
+        emails = Arrays.copyOf(emails, capacity);
+    }
+
+    /**
+     * Rebuilds the index from its live documents, dropping retired ones.
+     */
+    private void compact() {
+        String[] oldUsernames = usernames, oldRoles = roles, oldNames = fullNames,
+                oldDobs = datesOfBirth, oldPhones = phones, oldEmails = emails;
+        BitSet oldActive = active, oldRetired = retired;
+        int oldCount = docCount;
+
+        int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, oldCount - retiredCount)) * 2);
+        usernames = new String[capacity];
+        roles = new String[capacity];
+        fullNames = new String[capacity];
+        datesOfBirth = new String[capacity];
+        phones = new String[capacity];
+        emails = new String[capacity];
+        active = new BitSet();
+        retired = new BitSet();
+        docCount = 0;
+        retiredCount = 0;
+        docByUsername = new HashMap<>();
+        postings = new TrigramTable();
+
+        for (int doc = 0; doc < oldCount; doc++) {
+            if (oldRetired.get(doc)) continue;
+            int newDoc = append(oldUsernames[doc], oldRoles[doc], oldNames[doc], oldDobs[doc],
+                    oldPhones[doc], oldEmails[doc], oldActive.get(doc));
+            docByUsername.put(oldUsernames[doc], newDoc);
+        }
+    }
+
+    // --- Helpers ---
+
+    private String fieldValue(Field field, int doc) {
+        return switch (field) {
+            case USERNAME -> usernames[doc];
+            case FULL_NAME -> fullNames[doc];
+            case PHONE -> phones[doc];
+            case EMAIL -> emails[doc];
+        };
+    }
+
+    private UserRecord record(int doc) {
+        return new UserRecord(usernames[doc], roles[doc], fullNames[doc], datesOfBirth[doc],
+                phones[doc], emails[doc], active.get(doc));
+    }
+
+    /**
+     * Encodes each lower-cased trigram of the text together with the field as a single
+     * long: 2 bits of field followed by three 16-bit characters. Repeated trigrams are
+     * kept; {@link Postings#add} ignores a document added twice in a row.
+     */
+    private static long[] trigramKeys(Field field, String text) {
+        int count = text.length() - 2;
+        if (count <= 0) return new long[0];
+        long[] keys = new long[count];
+        long prefix = (long) field.ordinal() << 48;
+        for (int i = 0; i < count; i++) {
+            keys[i] = prefix
+                    | ((long) Character.toLowerCase(text.charAt(i)) << 32)
+                    | ((long) Character.toLowerCase(text.charAt(i + 1)) << 16)
+                    | Character.toLowerCase(text.charAt(i + 2));
+        }
+        return keys;
+    }
+
+    // --- Metrics ---
+
+    /** Number of searchable (non-retired) users. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - retiredCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Number of distinct trigrams across all fields. */
+    public int getTrigramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Total number of posting list entries. */
+    public long getPostingCount() {
+        lock.readLock().lock();
+        try {
+            long total = 0;
+            for (Postings list : postings.lists) {
+                if (list != null) total += list.size;
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("UserSearchIndex[users=%d, trigrams=%d, postings=%d]",
+                size(), getTrigramCount(), getPostingCount());
+    }
+
+    /**
+     * Maps trigram keys to posting lists with open addressing on primitive longs,
+     * avoiding a boxed key per lookup while the index is built.
+     */
+    private static final class TrigramTable {
+        long[] keys = new long[1 << 12];
+        Postings[] lists = new Postings[1 << 12];
+        int size;
+
+        Postings get(long key) {
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); lists[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) return lists[i];
+            }
+            return null;
+        }
+
+        Postings getOrCreate(long key) {
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            for (; lists[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) return lists[i];
+            }
+            Postings list = new Postings();
+            keys[i] = key;
+            lists[i] = list;
+            if (++size > keys.length / 2) resize();
+            return list;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Postings[] oldLists = lists;
+            keys = new long[oldKeys.length * 2];
+            lists = new Postings[oldLists.length * 2];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldLists[j] == null) continue;
+                int i = slot(oldKeys[j], mask);
+                while (lists[i] != null) i = (i + 1) & mask;
+                keys[i] = oldKeys[j];
+                lists[i] = oldLists[j];
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h >>> 32) & mask;
+        }
+    }
+
+    /**
+     * A growable, ascending list of document numbers.
+     */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) return;
+            if (size == docs.length) docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+            docs[size++] = doc;
+        }
+    }
+}
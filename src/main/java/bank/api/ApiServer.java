@@ -0,0 +1,410 @@
+package bank.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import bank.AccountRecord;
+import bank.FederatedSearchResults;
+import bank.HistoryPage;
+import bank.Money;
+import bank.SearchHit;
+import bank.SearchResults;
+import bank.Session;
+import bank.UIManager;
+import bank.UserRecord;
+
+/**
+ * A headless HTTP/JSON front end to the {@link UIManager}, for integrations and load tests.
+ * <p>
+ * The server is the JDK's built-in {@code com.sun.net.httpserver}, with every request
+ * handled on its own virtual thread, so a request waiting on the database or the ledger
+ * does not hold a platform thread and thousands of connections can be open at once.
+ * </p>
+ * <p>
+ * Clients log in with {@code POST /api/login} and send the returned token as
+ * {@code Authorization: Bearer <token>} on every other request. Customers may only read
+ * and transfer from their own accounts; deposits, withdrawals, searches and the review of
+ * pending transactions are for tellers and admins. Endpoints:
+ * </p>
+ * <pre>
+ * POST /api/login                  {"username", "password"} -&gt; {"token", "username", "role"}
+ * POST /api/logout
+ * GET  /api/accounts               the caller's accounts
+ * GET  /api/accounts/{id}          balance
+ * GET  /api/accounts/{id}/history  ?cursor= ; one page, newest first
+ * POST /api/deposits               {"accountId", "amount"}
+ * POST /api/withdrawals            {"accountId", "amount"}
+ * POST /api/transfers              {"from", "to", "amount"}
+ * GET  /api/search                 ?q= [&amp;scope=customers|employees|accounts&amp;criteria=&amp;cursor=]
+ * GET  /api/pending
+ * POST /api/pending/{id}/approve
+ * POST /api/pending/{id}/deny
+ * </pre>
+ * <p>
+ * Amounts are decimal strings or numbers in dollars, as typed on the teller pages.
+ * Postings and approvals answer 200 when completed, 202 when held for review, 409 on
+ * insufficient funds and 400 otherwise. Denials answer 200, 404 for an unknown transaction
+ * and 409 for one that is no longer pending. Errors carry an {@code "error"} message.
+ * </p>
+ */
+public class ApiServer {
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final UIManager ui;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Metrics
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * Creates a server on the port with the {@code bank.api.backlog} system property (4096)
+     * as the accept backlog. Call {@link #start()} to begin serving.
+     *
+     * @param port The TCP port; 0 picks a free one.
+     */
+    public ApiServer(UIManager ui, int port) throws IOException {
+        this.ui = ui;
+        this.server = HttpServer.create(new InetSocketAddress(port), Integer.getInteger("bank.api.backlog", 4096));
+        server.createContext("/api/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting connections, waits up to the delay for requests in progress, then stops.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public long getRequestCount() { return requests.get(); }
+
+    /** Number of requests answered with a 5xx status. */
+    public long getFailureCount() { return failures.get(); }
+
+    // --- Dispatch ---
+
+    private void handle(HttpExchange exchange) {
+        requests.incrementAndGet();
+        Response response;
+        try {
+            response = route(exchange);
+        } catch (ApiError e) {
+            response = error(e.status, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            response = error(400, e.getMessage());
+        } catch (RuntimeException e) {
+            System.out.println("API error on " + exchange.getRequestURI().getPath() + ": " + e);
+            response = error(500, "Internal error");
+        }
+        if (response.status >= 500) failures.incrementAndGet();
+        try {
+            byte[] body = Json.write(response.body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(response.status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException e) {
+            // The client went away
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Response route(HttpExchange exchange) throws ApiError {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        switch (path[0]) {
+            case "login" -> {
+                requireMethod(method, "POST");
+                return login(readBody(exchange));
+            }
+            case "logout" -> {
+                requireMethod(method, "POST");
+                ui.logout(requireSession(exchange).token());
+                return ok(Map.of("loggedOut", true));
+            }
+            case "accounts" -> {
+                requireMethod(method, "GET");
+                Session session = requireSession(exchange);
+                if (path.length == 1) return accounts(session);
+                requireAccountAccess(session, path[1]);
+                if (path.length == 2) return balance(path[1]);
+                if (path.length == 3 && path[2].equals("history")) return history(path[1], query.get("cursor"));
+            }
+            case "deposits" -> {
+                requireMethod(method, "POST");
+                requireStaff(requireSession(exchange));
+                Map<String, Object> body = readBody(exchange);
+                return posting(ui.processDeposit(field(body, "accountId"), field(body, "amount")));
+            }
+            case "withdrawals" -> {
+                requireMethod(method, "POST");
+                requireStaff(requireSession(exchange));
+                Map<String, Object> body = readBody(exchange);
+                return posting(ui.processWithdrawal(field(body, "accountId"), field(body, "amount")));
+            }
+            case "transfers" -> {
+                requireMethod(method, "POST");
+                Session session = requireSession(exchange);
+                Map<String, Object> body = readBody(exchange);
+                String from = field(body, "from");
+                requireAccountAccess(session, from);
+                return posting(ui.performTransfer(from, field(body, "to"), field(body, "amount")));
+            }
+            case "search" -> {
+                requireMethod(method, "GET");
+                requireStaff(requireSession(exchange));
+                return search(query);
+            }
+            case "pending" -> {
+                Session session = requireSession(exchange);
+                requireStaff(session);
+                if (path.length == 1) {
+                    requireMethod(method, "GET");
+                    return pending();
+                }
+                if (path.length == 3) {
+                    requireMethod(method, "POST");
+                    return review(path[1], path[2]);
+                }
+            }
+            default -> { }
+        }
+        throw new ApiError(404, "No such endpoint");
+    }
+
+    // --- Endpoints ---
+
+    private Response login(Map<String, Object> body) throws ApiError {
+        String token = ui.login(field(body, "username"), field(body, "password"));
+        if (token == null) throw new ApiError(401, "Invalid username or password");
+        Session session = ui.getSession(token);
+        return ok(map("token", token, "username", session.username(), "role", session.role()));
+    }
+
+    private Response accounts(Session session) {
+        List<Map<String, Object>> accounts = new ArrayList<>();
+        for (String[] row : ui.getUserAccounts(session.token())) {
+            accounts.add(map("accountId", row[0], "type", row[1], "balance", row[2]));
+        }
+        return ok(accounts);
+    }
+
+    private Response balance(String accountId) {
+        long cents = ui.getAccountBalance(accountId);
+        return ok(map("accountId", accountId, "balanceCents", cents, "balance", Money.format(cents)));
+    }
+
+    private Response history(String accountId, String cursor) {
+        HistoryPage page = ui.getAccountHistoryPage(accountId, cursor);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (String[] row : page.getRows()) {
+            rows.add(map("type", row[0], "amount", row[1], "toAccount", row[2], "timestamp", row[3]));
+        }
+        return ok(map("rows", rows, "nextCursor", page.getNextCursor()));
+    }
+
+    private Response posting(String result) {
+        int status = switch (result) {
+            case "SUCCESS" -> 200;
+            case "PENDING" -> 202;
+            case "INSUFFICIENT" -> 409;
+            default -> 400;
+        };
+        return new Response(status, map("result", result));
+    }
+
+    private Response search(Map<String, String> query) throws ApiError {
+        String keyword = query.get("q");
+        if (keyword == null || keyword.isBlank()) throw new ApiError(400, "Missing query parameter: q");
+        String scope = query.getOrDefault("scope", "all");
+        String cursor = query.get("cursor");
+
+        if (scope.equals("all")) {
+            FederatedSearchResults results = ui.searchAll(keyword);
+            List<Map<String, Object>> hits = new ArrayList<>();
+            for (SearchHit hit : results.getHits()) {
+                hits.add(map("source", hit.source().name(), "score", hit.score(),
+                        hit.user() != null ? "user" : "account",
+                        hit.user() != null ? user(hit.user()) : account(hit.account())));
+            }
+            return ok(map("hits", hits, "totalCount", results.getTotalCount(), "timedOut", results.getTimedOut()));
+        }
+
+        SearchResults<?> results = switch (scope) {
+            case "customers" -> ui.searchCustomers(query.getOrDefault("criteria", "Name"), keyword, cursor);
+            case "employees" -> ui.searchEmployees(query.getOrDefault("criteria", "Name"), keyword, cursor);
+            case "accounts" -> ui.searchAccounts(query.getOrDefault("criteria", "Account ID"), keyword, cursor);
+            default -> throw new ApiError(400, "Unknown search scope: " + scope);
+        };
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (Object item : results.getItems()) {
+            items.add(item instanceof UserRecord u ? user(u) : account((AccountRecord) item));
+        }
+        return ok(map("items", items, "totalCount", results.getTotalCount(), "nextCursor", results.getNextCursor()));
+    }
+
+    private Response pending() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (String[] row : ui.getPendingTransactions()) {
+            rows.add(map("transactionId", row[0], "fromAccount", row[1], "amount", row[2], "type", row[3]));
+        }
+        return ok(rows);
+    }
+
+    private Response review(String transactionId, String action) throws ApiError {
+        switch (action) {
+            case "approve" -> {
+                return posting(ui.approveTransaction(transactionId));
+            }
+            case "deny" -> {
+                if (!ui.denyTransaction(transactionId)) {
+                    if (ui.getTransactionStatus(transactionId) == null) throw new ApiError(404, "No such transaction");
+                    throw new ApiError(409, "Transaction is no longer pending");
+                }
+                return ok(map("transactionId", transactionId, "action", action));
+            }
+            default -> throw new ApiError(404, "No such endpoint");
+        }
+    }
+
+    private static Map<String, Object> user(UserRecord u) {
+        return map("username", u.username(), "role", u.role(), "fullName", u.fullName(),
+                "dateOfBirth", u.dateOfBirth(), "phone", u.phone(), "email", u.email(), "active", u.active());
+    }
+
+    private static Map<String, Object> account(AccountRecord a) {
+        return map("accountId", a.accountId(), "owner", a.ownerUsername(), "type", a.type(),
+                "balanceCents", a.balanceCents(), "balance", Money.format(a.balanceCents()));
+    }
+
+    // --- Access control ---
+
+    private Session requireSession(HttpExchange exchange) throws ApiError {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) throw new ApiError(401, "Missing bearer token");
+        Session session = ui.getSession(header.substring("Bearer ".length()).strip());
+        if (session == null) throw new ApiError(401, "Session expired or unknown");
+        return session;
+    }
+
+    private static void requireStaff(Session session) throws ApiError {
+        if (!isStaff(session)) throw new ApiError(403, "Tellers and admins only");
+    }
+
+    private void requireAccountAccess(Session session, String accountId) throws ApiError {
+        if (isStaff(session)) return;
+        for (String[] row : ui.getUserAccounts(session.token())) {
+            if (row[0].equals(accountId)) return;
+        }
+        throw new ApiError(403, "Not your account");
+    }
+
+    private static boolean isStaff(Session session) {
+        return "TELLER".equals(session.role()) || "ADMIN".equals(session.role());
+    }
+
+    // --- Request parsing ---
+
+    private static void requireMethod(String method, String expected) throws ApiError {
+        if (!method.equals(expected)) throw new ApiError(405, "Use " + expected);
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws ApiError {
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        } catch (IOException e) {
+            throw new ApiError(400, "Cannot read request body");
+        }
+        if (bytes.length > MAX_BODY_BYTES) throw new ApiError(413, "Request body too large");
+        Object body = Json.parse(new String(bytes, StandardCharsets.UTF_8));
+        if (!(body instanceof Map<?, ?>)) throw new ApiError(400, "Expected a JSON object");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> map = (Map<String, Object>) body;
+        return map;
+    }
+
+    /**
+     * Returns a required string or number field of the body as text.
+     */
+    private static String field(Map<String, Object> body, String name) throws ApiError {
+        Object value = body.get(name);
+        if (!(value instanceof String s) || s.isBlank()) throw new ApiError(400, "Missing field: " + name);
+        return s;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    // --- Responses ---
+
+    /**
+     * Builds an ordered map from alternating keys and values; values may be null.
+     */
+    private static Map<String, Object> map(Object... keysAndValues) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return map;
+    }
+
+    private static Response ok(Object body) {
+        return new Response(200, body);
+    }
+
+    private static Response error(int status, String message) {
+        return new Response(status, Map.of("error", message == null ? "Error" : message));
+    }
+
+    private record Response(int status, Object body) {
+    }
+
+    private static final class ApiError extends Exception {
+        final int status;
+
+        ApiError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
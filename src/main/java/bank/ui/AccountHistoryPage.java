@@ -5,13 +5,15 @@ import java.awt.Font;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.SwingConstants;
 
+import bank.AsyncUIManager;
+import bank.AsyncUIManager.AccountView;
 import bank.UIManager;
 
 /**
@@ -20,6 +22,10 @@ import bank.UIManager;
  * This screen fetches real-time balance and transaction logs from the database
  * via the {@link UIManager} facade. It is used by Customers to track their spending.
  * </p>
+ * <p>
+ * The window opens at once; the balance and the first page of history are loaded
+ * together in the background and filled in when they arrive.
+ * </p>
  */
 public class AccountHistoryPage extends JFrame {
     private final UIManager uiManager;
@@ -50,13 +56,16 @@ public class AccountHistoryPage extends JFrame {
         gbc.gridy = 0;
         add(headerLabel, gbc);
 
-        // Display Live Account Data
-        String liveBalance = uiManager.getFormattedBalance(accountId);
+        // Display Live Account Data; balance and history are read in parallel off the EDT
+        CompletableFuture<AccountView> view = uiManager.async().loadAccountView(accountId);
         String currentUser = uiManager.getCurrentUserName();
 
         addLabel(gbc, 1, "Account ID: " + accountId);
         addLabel(gbc, 2, "Owner: " + currentUser);
-        addLabel(gbc, 3, "Current Balance: " + liveBalance);
+        JLabel balanceLabel = addLabel(gbc, 3, "Current Balance: Loading...");
+        AsyncUIManager.onEdt(view,
+                v -> balanceLabel.setText("Current Balance: " + v.formattedBalance()),
+                error -> balanceLabel.setText("Current Balance: unavailable"));
 
         // Transaction List Header
         JLabel historyHeader = new JLabel("Recent Transactions:");
@@ -65,28 +74,11 @@ public class AccountHistoryPage extends JFrame {
         gbc.insets = new Insets(20, 10, 5, 10);
         add(historyHeader, gbc);
 
-        // Load Transaction History from Database
-        List<String[]> history = uiManager.getAccountHistory(accountId);
-        int currentRow = 5;
-        
-        if (history.isEmpty()) {
-            gbc.gridy = currentRow++;
-            gbc.insets = new Insets(5, 20, 5, 10);
-            JLabel noTrans = new JLabel("No transactions found.");
-            noTrans.setForeground(Color.GRAY);
-            add(noTrans, gbc);
-        } else {
-            gbc.insets = new Insets(2, 20, 2, 10);
-            
-            for (String[] tx : history) {
-                String type = tx[0];
-                String amount = tx[1];
-                String date = tx[3].length() > 10 ? tx[3].substring(0, 10) : tx[3];
-                
-                String labelText = String.format("%s $%s (%s)", type, amount, date);
-                addLabel(gbc, currentRow++, labelText);
-            }
-        }
+        // Load the first page of Transaction History; older pages load on demand
+        gbc.gridy = 5;
+        gbc.insets = new Insets(5, 20, 5, 10);
+        add(new HistoryListPanel(uiManager, accountId, "No transactions found.", view.thenApply(AccountView::firstPage)), gbc);
+        int currentRow = 6;
 
         // Navigation Controls
         JButton backButton = new JButton("Back to Dashboard");
@@ -110,9 +102,10 @@ public class AccountHistoryPage extends JFrame {
     /**
      * Helper method to add a standard label to a specific row in the grid.
      */
-    private void addLabel(GridBagConstraints gbc, int row, String text) {
+    private JLabel addLabel(GridBagConstraints gbc, int row, String text) {
         JLabel label = new JLabel(text);
         gbc.gridy = row;
         add(label, gbc);
+        return label;
     }
 }
\ No newline at end of file
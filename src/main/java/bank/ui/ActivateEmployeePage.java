@@ -13,6 +13,7 @@ import javax.swing.JOptionPane;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 
+import bank.AsyncUIManager;
 import bank.UIManager;
 
 /**
@@ -78,13 +79,20 @@ public class ActivateEmployeePage extends JFrame {
             }
 
             // Call backend to update status
-            if (uiManager.activateEmployee(username)) {
-                JOptionPane.showMessageDialog(this, "Employee account activated successfully.");
-                dispose();
-                new AdminDashboard(uiManager);
-            } else {
-                JOptionPane.showMessageDialog(this, "Error: User not found.", "Activation Failed", JOptionPane.ERROR_MESSAGE);
-            }
+            activateButton.setEnabled(false);
+            AsyncUIManager.onEdt(uiManager.async().activateEmployee(username), activated -> {
+                activateButton.setEnabled(true);
+                if (activated) {
+                    JOptionPane.showMessageDialog(this, "Employee account activated successfully.");
+                    dispose();
+                    new AdminDashboard(uiManager);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Error: User not found.", "Activation Failed", JOptionPane.ERROR_MESSAGE);
+                }
+            }, error -> {
+                activateButton.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Error: The bank could not be reached. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+            });
         });
 
         gbc.gridy = 3;
@@ -1,5 +1,7 @@
 package bank.ui;
 
+import bank.AsyncUIManager;
+import bank.Money;
 import bank.UIManager;
 import javax.swing.*;
 import java.awt.*;
@@ -78,22 +80,26 @@ public class AddAccountPage extends JFrame {
             String type = (String) typeBox.getSelectedItem();
             String depositStr = depositField.getText();
             
-            double amount = 0.0;
+            long amount;
             try {
-                amount = Double.parseDouble(depositStr.replace("$", "").trim());
+                amount = Money.parseCents(depositStr);
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(this, "Invalid deposit amount.", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
 
             // Call backend to create the account with the initial balance
-            uiManager.createNewAccount(customerId, type, amount);
-
-            JOptionPane.showMessageDialog(this, type + " Account created successfully with $" + amount);
-            dispose();
-            
-            // Return to Search Page to refresh the account list
-            new SearchCustomerPage(uiManager);
+            createBtn.setEnabled(false);
+            AsyncUIManager.onEdt(uiManager.async().createNewAccount(customerId, type, amount), done -> {
+                JOptionPane.showMessageDialog(this, type + " Account created successfully with " + Money.format(amount));
+                dispose();
+
+                // Return to Search Page to refresh the account list
+                new SearchCustomerPage(uiManager);
+            }, error -> {
+                createBtn.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Error: The bank could not be reached. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+            });
         });
 
         gbc.gridy = 4;
@@ -16,6 +16,7 @@ import javax.swing.JPasswordField;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 
+import bank.AsyncUIManager;
 import bank.UIManager;
 
 /**
@@ -104,26 +105,31 @@ public class CreateCustomerPage extends JFrame {
             }
 
             // Call backend to create user and account
-            boolean success = uiManager.createCustomerAccount(name, dob, type, phone, email, password);
-            
-            if (success) {
-                String msg = "Customer Account Created!\nUsername: " + name.toLowerCase().replace(" ", "");
-                
-                // Prompt for manual deposit if needed
-                if (!deposit.isEmpty() && !deposit.equals("0") && !deposit.equals("0.00")) {
-                    msg += "\n\nNOTE: Please process the deposit of " + deposit + " manually.";
+            createBtn.setEnabled(false);
+            AsyncUIManager.onEdt(uiManager.async().createCustomerAccount(name, dob, type, phone, email, password), success -> {
+                createBtn.setEnabled(true);
+                if (success) {
+                    String msg = "Customer Account Created!\nUsername: " + name.toLowerCase().replace(" ", "");
+
+                    // Prompt for manual deposit if needed
+                    if (!deposit.isEmpty() && !deposit.equals("0") && !deposit.equals("0.00")) {
+                        msg += "\n\nNOTE: Please process the deposit of " + deposit + " manually.";
+                    }
+
+                    JOptionPane.showMessageDialog(this, msg);
+                    dispose();
+                    new TellerDashboard(uiManager);
+                } else {
+                    // Handle duplicate user error
+                    JOptionPane.showMessageDialog(this, 
+                        "Error: A customer with this name already exists.\nUse 'Search for Customer' to add a new account instead.", 
+                        "Creation Failed", 
+                        JOptionPane.ERROR_MESSAGE);
                 }
-                
-                JOptionPane.showMessageDialog(this, msg);
-                dispose();
-                new TellerDashboard(uiManager);
-            } else {
-                // Handle duplicate user error
-                JOptionPane.showMessageDialog(this, 
-                    "Error: A customer with this name already exists.\nUse 'Search for Customer' to add a new account instead.", 
-                    "Creation Failed", 
-                    JOptionPane.ERROR_MESSAGE);
-            }
+            }, error -> {
+                createBtn.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Error: The bank could not be reached. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+            });
         });
 
         gbc.gridy = currentRow++;
@@ -14,6 +14,7 @@ import javax.swing.JPasswordField;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 
+import bank.AsyncUIManager;
 import bank.UIManager;
 
 /**
@@ -94,11 +95,15 @@ public class CreateEmployeePage extends JFrame {
                 return;
             }
 
-            // Save the new Teller to the database
-            uiManager.createEmployee(newUser, newPass);
-            
-            dispose();
-            new AdminStatusPage(uiManager, newUser, newPass);
+            // Save the new Teller to the database off the EDT
+            enterButton.setEnabled(false);
+            AsyncUIManager.onEdt(uiManager.async().createEmployee(newUser, newPass), done -> {
+                dispose();
+                new AdminStatusPage(uiManager, newUser, newPass);
+            }, error -> {
+                enterButton.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Error: The bank could not be reached. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+            });
         });
 
         gbc.gridy = 5;
@@ -6,7 +6,6 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.GridLayout;
 import java.awt.Insets;
-import java.util.List;
 
 import javax.swing.JButton;
 import javax.swing.JFrame;
@@ -14,6 +13,7 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.SwingConstants;
 
+import bank.AsyncUIManager;
 import bank.UIManager;
 
 /**
@@ -56,26 +56,42 @@ public class CustomerDashboard extends JFrame {
         add(welcomeLabel, gbc);
 
         // Dynamic Account Loading
-        // Retrieve the list of accounts associated with the logged-in user
-        List<String[]> accounts = uiManager.getUserAccounts();
-        
-        int currentRow = 1;
-        
-        if (accounts.isEmpty()) {
-            gbc.gridy = currentRow++;
-            JLabel noAcc = new JLabel("No accounts found.", SwingConstants.CENTER);
-            add(noAcc, gbc);
-        } else {
-            for (String[] acc : accounts) {
-                // Data format: [AccountID, Type, Balance]
-                String id = acc[0];
-                String type = acc[1];
-                String balance = "$" + acc[2];
-                
-                // Add a row for this account
-                addAccountRow(gbc, currentRow++, type + " (" + id + ")", balance, "View History", id);
+        // Retrieve the list of accounts associated with the logged-in user off the EDT
+        JPanel accountsPanel = new JPanel(new GridBagLayout());
+        accountsPanel.add(new JLabel("Loading accounts...", SwingConstants.CENTER));
+        gbc.gridy = 1;
+        add(accountsPanel, gbc);
+        int currentRow = 2;
+
+        AsyncUIManager.onEdt(uiManager.async().getUserAccounts(), accounts -> {
+            accountsPanel.removeAll();
+            GridBagConstraints rowGbc = new GridBagConstraints();
+            rowGbc.insets = new Insets(10, 10, 10, 10);
+            rowGbc.fill = GridBagConstraints.HORIZONTAL;
+
+            if (accounts.isEmpty()) {
+                JLabel noAcc = new JLabel("No accounts found.", SwingConstants.CENTER);
+                accountsPanel.add(noAcc, rowGbc);
+            } else {
+                int row = 0;
+                for (String[] acc : accounts) {
+                    // Data format: [AccountID, Type, Balance]
+                    String id = acc[0];
+                    String type = acc[1];
+                    String balance = "$" + acc[2];
+
+                    // Add a row for this account
+                    addAccountRow(accountsPanel, rowGbc, row++, type + " (" + id + ")", balance, "View History", id);
+                }
             }
-        }
+            accountsPanel.revalidate();
+            accountsPanel.repaint();
+        }, error -> {
+            accountsPanel.removeAll();
+            accountsPanel.add(new JLabel("Your accounts could not be loaded. Please try again.", SwingConstants.CENTER));
+            accountsPanel.revalidate();
+            accountsPanel.repaint();
+        });
 
         // Action Buttons
         JButton transButton = new JButton("Make a Transaction");
@@ -111,6 +127,7 @@ public class CustomerDashboard extends JFrame {
     /**
      * Helper method to add a standardized row displaying account info and a history button.
      *
+     * @param panel       The panel the row is added to.
      * @param gbc         The GridBagConstraints layout object.
      * @param row         The row index to place this account.
      * @param accountName The display name of the account (Type + ID).
@@ -118,7 +135,7 @@ public class CustomerDashboard extends JFrame {
      * @param btnText     The label for the action button.
      * @param accountId   The ID used to link to the history page.
      */
-    private void addAccountRow(GridBagConstraints gbc, int row, String accountName, String balance, String btnText, String accountId) {
+    private void addAccountRow(JPanel panel, GridBagConstraints gbc, int row, String accountName, String balance, String btnText, String accountId) {
         gbc.gridwidth = 1;
         gbc.gridy = row;
         
@@ -132,7 +149,7 @@ public class CustomerDashboard extends JFrame {
         
         gbc.gridx = 0;
         gbc.weightx = 0.7;
-        add(textPanel, gbc);
+        panel.add(textPanel, gbc);
 
         // Right Column: History Button
         JButton historyBtn = new JButton(btnText);
@@ -148,7 +165,7 @@ public class CustomerDashboard extends JFrame {
         
         gbc.gridx = 1;
         gbc.weightx = 0.3;
-        add(historyBtn, gbc);
+        panel.add(historyBtn, gbc);
         
         // Reset grid configuration
         gbc.weightx = 0;
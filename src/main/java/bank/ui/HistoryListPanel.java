@@ -0,0 +1,112 @@
+package bank.ui;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.util.concurrent.CompletableFuture;
+
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListModel;
+import javax.swing.JButton;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+
+import bank.AsyncUIManager;
+import bank.HistoryPage;
+import bank.UIManager;
+
+/**
+ * A scrollable transaction history list that loads one page at a time.
+ * <p>
+ * Only the first page is fetched when the panel is created. The "Load More" button
+ * fetches the next page using the cursor returned with the previous one, so opening
+ * a busy account no longer reads its entire history.
+ * </p>
+ * <p>
+ * Pages are fetched off the event dispatch thread; the button is disabled until the
+ * page arrives so that the same page is not requested twice.
+ * </p>
+ */
+public class HistoryListPanel extends JPanel {
+    private final UIManager uiManager;
+    private final String accountId;
+    private final String emptyMessage;
+
+    private final DefaultListModel<String> listModel = new DefaultListModel<>();
+    private final JButton loadMoreButton = new JButton("Load More");
+    private String nextCursor;
+
+    /**
+     * Creates the panel and loads the first page of history.
+     *
+     * @param manager      The application controller used for data access.
+     * @param accountId    The account whose history is shown.
+     * @param emptyMessage The text shown when the account has no transactions.
+     */
+    public HistoryListPanel(UIManager manager, String accountId, String emptyMessage) {
+        this(manager, accountId, emptyMessage, manager.async().getAccountHistoryPage(accountId, null));
+    }
+
+    /**
+     * Creates the panel and shows the first page once the given call completes, e.g. when
+     * the page is loaded together with other account data.
+     *
+     * @param firstPage The pending first page of history.
+     */
+    public HistoryListPanel(UIManager manager, String accountId, String emptyMessage, CompletableFuture<HistoryPage> firstPage) {
+        super(new BorderLayout(0, 5));
+        this.uiManager = manager;
+        this.accountId = accountId;
+        this.emptyMessage = emptyMessage;
+
+        JList<String> historyList = new JList<>(listModel);
+        historyList.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
+        JScrollPane scroll = new JScrollPane(historyList);
+        scroll.setPreferredSize(new Dimension(400, 150));
+        add(scroll, BorderLayout.CENTER);
+
+        loadMoreButton.addActionListener(e -> loadNextPage());
+        add(loadMoreButton, BorderLayout.SOUTH);
+
+        load(firstPage);
+    }
+
+    /**
+     * Requests the page after the last one shown.
+     */
+    private void loadNextPage() {
+        load(uiManager.async().getAccountHistoryPage(accountId, nextCursor));
+    }
+
+    private void load(CompletableFuture<HistoryPage> page) {
+        loadMoreButton.setEnabled(false);
+        loadMoreButton.setText("Loading...");
+        AsyncUIManager.onEdt(page, this::showPage, error -> {
+            if (listModel.isEmpty()) listModel.addElement("Could not load transactions.");
+            loadMoreButton.setText("Retry");
+            loadMoreButton.setEnabled(true);
+        });
+    }
+
+    /**
+     * Appends a page of transactions to the list.
+     */
+    private void showPage(HistoryPage page) {
+        listModel.removeElement("Could not load transactions.");
+        if (page.getRows().isEmpty() && listModel.isEmpty()) {
+            listModel.addElement(emptyMessage);
+        }
+        for (String[] tx : page.getRows()) {
+            // Format: [Type, Amount, To_Acc, Timestamp]
+            String date = tx[3].length() > 10 ? tx[3].substring(0, 10) : tx[3];
+            listModel.addElement(String.format("%s $%s (%s)", tx[0], tx[1], date));
+        }
+
+        nextCursor = page.getNextCursor();
+        loadMoreButton.setText("Load More");
+        loadMoreButton.setEnabled(true);
+        loadMoreButton.setVisible(page.hasMore());
+        revalidate();
+    }
+}
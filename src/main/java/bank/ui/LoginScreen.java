@@ -13,6 +13,7 @@ import javax.swing.JPasswordField;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 
+import bank.AsyncUIManager;
 import bank.UIManager;
 
 /**
@@ -91,25 +92,30 @@ public class LoginScreen extends JFrame {
             String user = userField.getText();
             String pass = new String(passField.getPassword());
             
-            // Validate credentials against the database
-            if (uiManager.handleLogin(user, pass)) {
-                JOptionPane.showMessageDialog(this, "Login Successful!");
-                dispose(); 
+            // Validate credentials against the database off the EDT
+            loginButton.setEnabled(false);
+            AsyncUIManager.onEdt(uiManager.async().handleLogin(user, pass), role -> {
+                loginButton.setEnabled(true);
+                if (role != null) {
+                    JOptionPane.showMessageDialog(this, "Login Successful!");
+                    dispose(); 
 
-                // Route to the correct dashboard based on User Role
-                String role = uiManager.getDashboardType(user);
-                
-                if ("ADMIN".equals(role)) {
-                    new AdminDashboard(uiManager);
-                } else if ("TELLER".equals(role)) {
-                    new TellerDashboard(uiManager);
+                    // Route to the correct dashboard based on User Role
+                    if ("ADMIN".equals(role)) {
+                        new AdminDashboard(uiManager);
+                    } else if ("TELLER".equals(role)) {
+                        new TellerDashboard(uiManager);
+                    } else {
+                        new CustomerDashboard(uiManager);
+                    }
                 } else {
-                    new CustomerDashboard(uiManager);
+                    JOptionPane.showMessageDialog(this, "Invalid Credentials", "Login Failed", JOptionPane.ERROR_MESSAGE);
+                    passField.setText(""); // Reset password field
                 }
-            } else {
-                JOptionPane.showMessageDialog(this, "Invalid Credentials", "Login Failed", JOptionPane.ERROR_MESSAGE);
-                passField.setText(""); // Reset password field
-            }
+            }, error -> {
+                loginButton.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Error: The bank could not be reached. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+            });
         });
 
         setVisible(true);
@@ -13,6 +13,7 @@ import javax.swing.JOptionPane;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 
+import bank.AsyncUIManager;
 import bank.UIManager;
 
 /**
@@ -89,13 +90,20 @@ public class RemoveEmployeePage extends JFrame {
 
             if (confirm == JOptionPane.YES_OPTION) {
                 // Call Facade to perform Soft Delete
-                if (uiManager.removeEmployee(username)) {
-                    JOptionPane.showMessageDialog(this, "Employee access removed successfully.");
-                    dispose();
-                    new AdminDashboard(uiManager);
-                } else {
-                    JOptionPane.showMessageDialog(this, "Error: User not found or could not be removed.", "Removal Failed", JOptionPane.ERROR_MESSAGE);
-                }
+                removeButton.setEnabled(false);
+                AsyncUIManager.onEdt(uiManager.async().removeEmployee(username), removed -> {
+                    removeButton.setEnabled(true);
+                    if (removed) {
+                        JOptionPane.showMessageDialog(this, "Employee access removed successfully.");
+                        dispose();
+                        new AdminDashboard(uiManager);
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Error: User not found or could not be removed.", "Removal Failed", JOptionPane.ERROR_MESSAGE);
+                    }
+                }, error -> {
+                    removeButton.setEnabled(true);
+                    JOptionPane.showMessageDialog(this, "Error: The bank could not be reached. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+                });
             }
         });
 
@@ -9,7 +9,6 @@ import java.awt.Font;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
-import java.util.List;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -22,6 +21,7 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.SwingConstants;
 
+import bank.AsyncUIManager;
 import bank.UIManager;
 
 /**
@@ -59,15 +59,17 @@ public class ReviewPendingTransactionsPage extends JFrame {
         JPanel listPanel = new JPanel();
         listPanel.setLayout(new BoxLayout(listPanel, BoxLayout.Y_AXIS));
         
-        // Retrieve pending transactions from the database
-        List<String[]> pendingList = uiManager.getPendingTransactions();
-        
-        if (pendingList.isEmpty()) {
-            JLabel emptyLabel = new JLabel("No pending transactions found.");
-            emptyLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-            listPanel.add(Box.createVerticalStrut(20));
-            listPanel.add(emptyLabel);
-        } else {
+        // Retrieve pending transactions from the database, off the EDT
+        JLabel statusLabel = new JLabel("Loading pending transactions...");
+        statusLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        listPanel.add(Box.createVerticalStrut(20));
+        listPanel.add(statusLabel);
+        AsyncUIManager.onEdt(uiManager.async().getPendingTransactions(), pendingList -> {
+            if (pendingList.isEmpty()) {
+                statusLabel.setText("No pending transactions found.");
+                return;
+            }
+            listPanel.removeAll();
             for (String[] tx : pendingList) {
                 // Data format: [ID, From_Account, Amount, Type]
                 String id = tx[0];
@@ -76,7 +78,9 @@ public class ReviewPendingTransactionsPage extends JFrame {
                 
                 addTransactionCard(listPanel, id, customer, amount);
             }
-        }
+            listPanel.revalidate();
+            listPanel.repaint();
+        }, error -> statusLabel.setText("Pending transactions could not be loaded."));
 
         JScrollPane scrollPane = new JScrollPane(listPanel);
         add(scrollPane, BorderLayout.CENTER);
@@ -137,31 +141,56 @@ public class ReviewPendingTransactionsPage extends JFrame {
         approveBtn.setBackground(new Color(144, 238, 144)); // Green
         approveBtn.setOpaque(true);
         approveBtn.setBorderPainted(false);
+        // Deny Button
+        JButton denyBtn = new JButton("Deny");
+
         approveBtn.addActionListener(e -> {
-            uiManager.approveTransaction(id);
-            
-            // Refresh UI locally
-            container.remove(card);
-            container.revalidate();
-            container.repaint();
-            
-            JOptionPane.showMessageDialog(this, "Transaction " + id + " Approved.");
+            approveBtn.setEnabled(false);
+            denyBtn.setEnabled(false);
+            AsyncUIManager.onEdt(uiManager.async().approveTransaction(id), status -> {
+                if ("INSUFFICIENT".equals(status)) {
+                    // Still pending; it can be approved once the sender has the funds
+                    approveBtn.setEnabled(true);
+                    denyBtn.setEnabled(true);
+                    JOptionPane.showMessageDialog(this, "Transaction " + id + " stays pending: insufficient funds.",
+                            "Not Approved", JOptionPane.WARNING_MESSAGE);
+                    return;
+                }
+                // Refresh UI locally
+                removeCard(container, card);
+                if ("SUCCESS".equals(status)) {
+                    JOptionPane.showMessageDialog(this, "Transaction " + id + " Approved.");
+                } else {
+                    JOptionPane.showMessageDialog(this, "Transaction " + id + " is no longer pending.",
+                            "Not Approved", JOptionPane.ERROR_MESSAGE);
+                }
+            }, error -> {
+                approveBtn.setEnabled(true);
+                denyBtn.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Error: The bank could not be reached. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+            });
         });
 
-        // Deny Button
-        JButton denyBtn = new JButton("Deny");
         denyBtn.setBackground(new Color(255, 102, 102)); // Red
         denyBtn.setOpaque(true);
         denyBtn.setBorderPainted(false);
         denyBtn.addActionListener(e -> {
             int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to deny transaction " + id + "?");
             if (confirm == JOptionPane.YES_OPTION) {
-                uiManager.denyTransaction(id);
-                
-                // Refresh UI locally
-                container.remove(card);
-                container.revalidate();
-                container.repaint();
+                approveBtn.setEnabled(false);
+                denyBtn.setEnabled(false);
+                // Refresh UI locally once denied
+                AsyncUIManager.onEdt(uiManager.async().denyTransaction(id), denied -> {
+                    if (!denied) {
+                        JOptionPane.showMessageDialog(this, "Transaction " + id + " is no longer pending.",
+                                "Not Denied", JOptionPane.ERROR_MESSAGE);
+                    }
+                    removeCard(container, card);
+                }, error -> {
+                    approveBtn.setEnabled(true);
+                    denyBtn.setEnabled(true);
+                    JOptionPane.showMessageDialog(this, "Error: The bank could not be reached. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+                });
             }
         });
 
@@ -175,4 +204,10 @@ public class ReviewPendingTransactionsPage extends JFrame {
         container.add(card);
         container.add(Box.createRigidArea(new Dimension(0, 10))); // Spacing between cards
     }
+
+    private static void removeCard(JPanel container, JPanel card) {
+        container.remove(card);
+        container.revalidate();
+        container.repaint();
+    }
 }
\ No newline at end of file
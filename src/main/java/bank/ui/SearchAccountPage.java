@@ -6,16 +6,21 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.GridLayout;
 import java.awt.Insets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 
+import bank.AccountRecord;
+import bank.Money;
 import bank.UIManager;
 
 /**
@@ -24,6 +29,7 @@ import bank.UIManager;
  * This page allows Tellers to look up accounts using criteria such as Account ID,
  * Customer Name, or Phone Number. Unlike the Customer Search, this result focuses
  * on financial ledger details (Balance, Type) rather than personal profile info.
+ * Matching account IDs are suggested while typing.
  * </p>
  */
 public class SearchAccountPage extends JFrame {
@@ -71,6 +77,10 @@ public class SearchAccountPage extends JFrame {
         gbc.gridy = 4;
         add(keywordField, gbc);
 
+        // Suggest matching account IDs while typing
+        new SuggestionPopup(keywordField, text -> "Account ID".equals(criteriaBox.getSelectedItem())
+                ? uiManager.async().suggestAccountIds(text) : CompletableFuture.completedFuture(List.of()));
+
         // Search Button
         JButton searchButton = new JButton("Search");
         searchButton.setBackground(new Color(100, 149, 237)); // Cornflower Blue
@@ -115,6 +125,7 @@ public class SearchAccountPage extends JFrame {
      */
     private void showResultPanel(String criteria, String keyword) {
         getContentPane().removeAll();
+        setSize(500, 550); // Room for the match list above the details
         setLayout(new GridBagLayout());
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.insets = new Insets(10, 10, 10, 10);
@@ -122,63 +133,58 @@ public class SearchAccountPage extends JFrame {
         gbc.gridx = 0;
 
         // Header
-        JLabel header = new JLabel("Account Search Result", SwingConstants.CENTER);
+        JLabel header = new JLabel("Account Search Results", SwingConstants.CENTER);
         header.setFont(new Font("Arial", Font.BOLD, 16));
         gbc.gridy = 0;
         gbc.gridwidth = 2;
         add(header, gbc);
 
-        // Execute Search
-        String resultString = uiManager.searchAccounts(criteria, keyword);
-        boolean found = resultString.startsWith("ID:");
-
-        // Result Display Card
+        // Result Display Card (shows the selected match)
         JPanel accountCard = new JPanel(new GridLayout(3, 1));
         accountCard.setBorder(BorderFactory.createTitledBorder("Account Details"));
         accountCard.setBackground(new Color(240, 248, 255)); // Alice Blue
-        
-        String accountId = "";
-
-        if (found) {
-            // Parse the raw string returned by the backend
-            // Expected Format: "ID: <id>, Type: <type>, Owner: <owner>, Balance: $<balance>"
-            try {
-                String[] parts = resultString.split(", ");
-                accountId = parts[0].substring(4); // Extract ID after "ID: "
-                String type = parts[1].substring(6);
-                String balance = parts[3].substring(9);
-
-                accountCard.add(new JLabel("Account ID: " + accountId)); 
-                accountCard.add(new JLabel("Type: " + type));
-                accountCard.add(new JLabel("Current Balance: " + balance)); 
-            } catch (Exception e) {
-                accountCard.add(new JLabel("Error parsing account data."));
-            }
-        } else {
-            accountCard.add(new JLabel(resultString)); // Display "No account found."
-        }
-        
+
+        // Action Button: Manage Account (Only if found)
+        JButton viewBtn = new JButton("Manage This Account");
+        viewBtn.setBackground(new Color(173, 216, 230)); // Light Blue
+        viewBtn.setOpaque(true);
+        viewBtn.setBorderPainted(false);
+        viewBtn.setVisible(false);
+
+        // Execute Search in the background: every match, one page at a time
+        SearchResultsPanel<AccountRecord> results = new SearchResultsPanel<>(
+                cursor -> uiManager.async().searchAccounts(criteria, keyword, cursor),
+                account -> account.type() + " (ID: " + account.accountId() + ") - " + account.ownerUsername(),
+                account -> showAccount(account, accountCard),
+                found -> {
+                    if (found) {
+                        viewBtn.setVisible(true);
+                    } else {
+                        accountCard.add(new JLabel("No account found matching " + criteria + ": " + keyword));
+                        accountCard.revalidate();
+                    }
+                });
+        results.setBorder(BorderFactory.createTitledBorder("Matches"));
         gbc.gridy = 1;
         gbc.gridwidth = 2;
+        add(results, gbc);
+
+        gbc.gridy = 2;
         add(accountCard, gbc);
 
-        // Action Button: Manage Account (Only if found)
-        if (found) {
-            JButton viewBtn = new JButton("Manage This Account");
-            viewBtn.setBackground(new Color(173, 216, 230)); // Light Blue
-            viewBtn.setOpaque(true);
-            viewBtn.setBorderPainted(false);
-            
-            final String targetId = accountId;
-            viewBtn.addActionListener(e -> {
-                dispose();
-                // Navigate to the management page for this specific account
-                new TellerAccountPage(uiManager, targetId);
-            });
-            
-            gbc.gridy = 2;
-            add(viewBtn, gbc);
-        }
+        viewBtn.addActionListener(e -> {
+            AccountRecord target = results.getSelected();
+            if (target == null) {
+                JOptionPane.showMessageDialog(this, "Please select an account from the list.");
+                return;
+            }
+            dispose();
+            // Navigate to the management page for this specific account
+            new TellerAccountPage(uiManager, target.accountId());
+        });
+
+        gbc.gridy = 3;
+        add(viewBtn, gbc);
 
         // Navigation: Reset Search
         JButton backButton = new JButton("Back to Search");
@@ -190,10 +196,22 @@ public class SearchAccountPage extends JFrame {
             new SearchAccountPage(uiManager); // Reload the search form
         });
 
-        gbc.gridy = 3;
+        gbc.gridy = 4;
         add(backButton, gbc);
 
         revalidate();
         repaint();
     }
+
+    /**
+     * Fills the details card for the selected account.
+     */
+    private void showAccount(AccountRecord account, JPanel accountCard) {
+        accountCard.removeAll();
+        accountCard.add(new JLabel("Account ID: " + account.accountId()));
+        accountCard.add(new JLabel("Type: " + account.type()));
+        accountCard.add(new JLabel("Current Balance: " + Money.format(account.balanceCents())));
+        accountCard.revalidate();
+        accountCard.repaint();
+    }
 }
\ No newline at end of file
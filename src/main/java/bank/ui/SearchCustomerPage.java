@@ -8,6 +8,7 @@ import java.awt.GridBagLayout;
 import java.awt.GridLayout;
 import java.awt.Insets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import javax.swing.BorderFactory;
 import javax.swing.DefaultListModel;
@@ -22,18 +23,27 @@ import javax.swing.JScrollPane;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 
+import bank.AccountRecord;
+import bank.AsyncUIManager;
+import bank.CustomerOverview;
+import bank.Money;
+import bank.SearchHandler;
 import bank.UIManager;
+import bank.UserRecord;
 
 /**
  * The UI screen for searching Customer profiles.
  * <p>
  * This page allows Tellers to find customers using various criteria (Name, DOB, ID).
+ * "Similar Name" also finds misspelled names, best matches first, and matching
+ * customer IDs are suggested while typing.
  * The results display personal details and a list of associated accounts, which can
  * be managed directly from this screen.
  * </p>
  */
 public class SearchCustomerPage extends JFrame {
     private final UIManager uiManager;
+    private String shownCustomer; // The customer whose overview the account list is waiting for
 
     /**
      * Constructs the Search Customer form.
@@ -64,7 +74,7 @@ public class SearchCustomerPage extends JFrame {
         gbc.gridy = 1;
         add(new JLabel("Search by:"), gbc);
 
-        String[] criteria = {"Name", "Date of Birth", "Customer ID"};
+        String[] criteria = {"Name", SearchHandler.SIMILAR_NAME, "Date of Birth", "Customer ID"};
         JComboBox<String> criteriaBox = new JComboBox<>(criteria);
         gbc.gridy = 2;
         add(criteriaBox, gbc);
@@ -74,9 +84,15 @@ public class SearchCustomerPage extends JFrame {
         add(new JLabel("Keywords:"), gbc);
 
         JTextField keywordField = new JTextField();
+        keywordField.setToolTipText("Date of Birth accepts a date, month, year or range, "
+                + "optionally followed by a name, e.g. 1980-1985 Tanaka");
         gbc.gridy = 4;
         add(keywordField, gbc);
 
+        // Suggest matching customer IDs while typing
+        new SuggestionPopup(keywordField, text -> "Customer ID".equals(criteriaBox.getSelectedItem())
+                ? uiManager.async().suggestUsernames(text) : CompletableFuture.completedFuture(List.of()));
+
         // Search Button
         JButton searchButton = new JButton("Search");
         searchButton.setBackground(new Color(100, 149, 237)); // Cornflower Blue
@@ -116,6 +132,7 @@ public class SearchCustomerPage extends JFrame {
      */
     private void showResultPanel(String criteria, String keyword) {
         getContentPane().removeAll();
+        setSize(500, 700); // Room for the match list above the profile
         setLayout(new GridBagLayout());
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.insets = new Insets(10, 10, 10, 10);
@@ -123,78 +140,55 @@ public class SearchCustomerPage extends JFrame {
         gbc.gridx = 0;
 
         // Header
-        JLabel header = new JLabel("Customer Profile Found", SwingConstants.CENTER);
+        JLabel header = new JLabel("Customer Search Results", SwingConstants.CENTER);
         header.setFont(new Font("Arial", Font.BOLD, 16));
         gbc.gridy = 0;
         gbc.gridwidth = 2;
         add(header, gbc);
 
-        // Execute Search
-        String resultString = uiManager.searchCustomers(criteria, keyword);
-        boolean found = resultString.startsWith("Found:");
-
-        // Profile Details Card
+        // Profile Details Card (shows the selected match)
         JPanel profileCard = new JPanel(new GridLayout(0, 1));
         profileCard.setBorder(BorderFactory.createTitledBorder("Personal Details"));
-        
-        String customerId = "";
-        String customerName = "Customer";
-
-        if (found) {
-            try {
-                // Parse the result string from DatabaseManager
-                // Format: "Found: Name (ID: username) [Status] {DOB: Date}"
-                customerName = resultString.substring(7, resultString.indexOf(" (ID:"));
-                
-                int idStart = resultString.indexOf("(ID: ") + 5;
-                int idEnd = resultString.indexOf(") [");
-                customerId = resultString.substring(idStart, idEnd);
-                
-                String status = resultString.substring(resultString.indexOf("[") + 1, resultString.indexOf("]"));
-                
-                int dobStart = resultString.indexOf("DOB: ") + 5;
-                int dobEnd = resultString.indexOf("}");
-                String dob = resultString.substring(dobStart, dobEnd);
-
-                profileCard.add(new JLabel("Name: " + customerName));
-                profileCard.add(new JLabel("Customer ID: " + customerId));
-                profileCard.add(new JLabel("Status: " + status));
-                profileCard.add(new JLabel("Date of Birth: " + dob));
-            } catch (Exception e) {
-                profileCard.add(new JLabel(resultString)); // Fallback
-            }
-        } else {
-            profileCard.add(new JLabel("No result found."));
-        }
-        
+
+        DefaultListModel<String> listModel = new DefaultListModel<>();
+        JList<String> accountList = new JList<>(listModel);
+        accountList.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
+
+        // Action Button 2: Open New Account for the selected customer (Only if found)
+        JButton addAccBtn = new JButton("Open New Account");
+        addAccBtn.setBackground(new Color(144, 238, 144)); // Green
+        addAccBtn.setOpaque(true);
+        addAccBtn.setBorderPainted(false);
+        addAccBtn.setVisible(false);
+
+        // Execute Search in the background: every match, one page at a time
+        SearchResultsPanel<UserRecord> results = new SearchResultsPanel<>(
+                cursor -> uiManager.async().searchCustomers(criteria, keyword, cursor),
+                user -> user.fullName() + " (ID: " + user.username() + ")",
+                user -> showCustomer(user, profileCard, listModel),
+                found -> {
+                    if (found) {
+                        addAccBtn.setVisible(true);
+                    } else {
+                        profileCard.add(new JLabel("No result found."));
+                        profileCard.revalidate();
+                    }
+                });
+        results.setBorder(BorderFactory.createTitledBorder("Matches"));
         gbc.gridy = 1;
+        add(results, gbc);
+
+        gbc.gridy = 2;
         add(profileCard, gbc);
 
         // Accounts List
         JLabel accountsLbl = new JLabel("Associated Accounts:");
-        gbc.gridy = 2;
+        gbc.gridy = 3;
         add(accountsLbl, gbc);
 
-        DefaultListModel<String> listModel = new DefaultListModel<>();
-        JList<String> accountList = new JList<>(listModel);
-        accountList.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
-        
-        // Fetch Accounts if User Found
-        if (found && !customerId.isEmpty()) {
-            List<String[]> accounts = uiManager.getCustomerAccounts(customerId);
-            if (accounts.isEmpty()) {
-                listModel.addElement("No accounts found for this user.");
-            } else {
-                for (String[] acc : accounts) {
-                    // Format: "Chequing (ID: 853013) - $5000.00"
-                    listModel.addElement(acc[1] + " (ID: " + acc[0] + ") - $" + acc[2]);
-                }
-            }
-        }
-        
         JScrollPane listScroll = new JScrollPane(accountList);
         listScroll.setPreferredSize(new Dimension(400, 100));
-        gbc.gridy = 3;
+        gbc.gridy = 4;
         add(listScroll, gbc);
 
         // Action Button 1: Manage Selected Account
@@ -221,27 +215,21 @@ public class SearchCustomerPage extends JFrame {
             }
         });
         
-        gbc.gridy = 4;
+        gbc.gridy = 5;
         add(viewBtn, gbc);
 
-        // Action Button 2: Open New Account
-        if (found && !customerId.isEmpty()) {
-            JButton addAccBtn = new JButton("Open New Account");
-            addAccBtn.setBackground(new Color(144, 238, 144)); // Green
-            addAccBtn.setOpaque(true);
-            addAccBtn.setBorderPainted(false);
-            
-            final String targetId = customerId;
-            final String targetName = customerName;
-
-            addAccBtn.addActionListener(e -> {
-                dispose();
-                new AddAccountPage(uiManager, targetId, targetName);
-            });
-
-            gbc.gridy = 5;
-            add(addAccBtn, gbc);
-        }
+        addAccBtn.addActionListener(e -> {
+            UserRecord target = results.getSelected();
+            if (target == null) {
+                JOptionPane.showMessageDialog(this, "Please select a customer from the list.");
+                return;
+            }
+            dispose();
+            new AddAccountPage(uiManager, target.username(), target.fullName());
+        });
+
+        gbc.gridy = 6;
+        add(addAccBtn, gbc);
 
         // Navigation: Reset Search
         JButton backButton = new JButton("Back to Search");
@@ -249,10 +237,55 @@ public class SearchCustomerPage extends JFrame {
             dispose();
             new SearchCustomerPage(uiManager);
         });
-        gbc.gridy = 6;
+        gbc.gridy = 7;
         add(backButton, gbc);
 
         revalidate();
         repaint();
     }
-}
\ No newline at end of file
+
+    /**
+     * Fills the profile card and account list for the selected customer, with each
+     * account followed by its latest transactions. Everything comes from one overview load,
+     * which runs in the background; a result that arrives after another customer has been
+     * selected is dropped.
+     */
+    private void showCustomer(UserRecord user, JPanel profileCard, DefaultListModel<String> listModel) {
+        profileCard.removeAll();
+        profileCard.add(new JLabel("Name: " + user.fullName()));
+        profileCard.add(new JLabel("Customer ID: " + user.username()));
+        profileCard.add(new JLabel("Status: " + (user.active() ? "Active" : "Inactive")));
+        profileCard.add(new JLabel("Date of Birth: " + (user.dateOfBirth() != null ? user.dateOfBirth() : "N/A")));
+        profileCard.revalidate();
+        profileCard.repaint();
+
+        listModel.clear();
+        listModel.addElement("Loading accounts...");
+        String username = user.username();
+        shownCustomer = username;
+        AsyncUIManager.onEdt(uiManager.async().getCustomerOverview(username), overview -> {
+            if (username.equals(shownCustomer)) showAccounts(overview, listModel);
+        }, error -> {
+            if (!username.equals(shownCustomer)) return;
+            listModel.clear();
+            listModel.addElement("Could not load accounts.");
+        });
+    }
+
+    private void showAccounts(CustomerOverview overview, DefaultListModel<String> listModel) {
+        listModel.clear();
+        if (overview == null || overview.accounts().isEmpty()) {
+            listModel.addElement("No accounts found for this user.");
+            return;
+        }
+        for (AccountRecord acc : overview.accounts()) {
+            // Format: "Chequing (ID: 853013) - $5000.00"
+            listModel.addElement(acc.type() + " (ID: " + acc.accountId() + ") - " + Money.format(acc.balanceCents()));
+            for (String[] tx : overview.recentActivity().get(acc.accountId())) {
+                // Format: "    DEPOSIT $10.00 on 2025-01-31"
+                String date = tx[3] != null && tx[3].length() >= 10 ? tx[3].substring(0, 10) : "N/A";
+                listModel.addElement("    " + tx[0] + " $" + tx[1] + " on " + date);
+            }
+        }
+    }
+}
@@ -14,7 +14,10 @@ import javax.swing.JOptionPane;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 
+import bank.AsyncUIManager;
+import bank.SearchResults;
 import bank.UIManager;
+import bank.UserRecord;
 
 /**
  * The UI screen for searching internal employee accounts.
@@ -80,9 +83,15 @@ public class SearchEmployeePage extends JFrame {
             String criteria = (String) searchBox.getSelectedItem();
             String keyword = keywordField.getText();
             
-            // Execute search via Facade
-            String result = uiManager.searchEmployees(criteria, keyword);
-            JOptionPane.showMessageDialog(this, result);
+            // Execute search via Facade in the background; the dialog lists the first page of matches
+            searchButton.setEnabled(false);
+            AsyncUIManager.onEdt(uiManager.async().searchEmployees(criteria, keyword, null), results -> {
+                searchButton.setEnabled(true);
+                JOptionPane.showMessageDialog(this, describe(results));
+            }, error -> {
+                searchButton.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Error: The bank could not be reached. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+            });
         });
 
         gbc.gridy = 5;
@@ -105,4 +114,23 @@ public class SearchEmployeePage extends JFrame {
 
         setVisible(true);
     }
-}
\ No newline at end of file
+
+    /**
+     * Formats a page of employee matches for the result dialog.
+     */
+    private static String describe(SearchResults<UserRecord> results) {
+        if (results.getItems().isEmpty()) return "No employee found.";
+
+        StringBuilder text = new StringBuilder();
+        for (UserRecord employee : results.getItems()) {
+            text.append("Found Employee: ").append(employee.username())
+                .append(" (").append(employee.role()).append(") - ")
+                .append(employee.active() ? "Active" : "Inactive").append('\n');
+        }
+        if (results.hasMore()) {
+            text.append("Showing ").append(results.getItems().size())
+                .append(" of ").append(results.getTotalCount()).append(" matches");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,135 @@
+package bank.ui;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.ListSelectionModel;
+
+import bank.AsyncUIManager;
+import bank.SearchResults;
+
+/**
+ * A scrollable list of search results that loads one page at a time.
+ * <p>
+ * The first page is fetched in the background when the panel is created; once it arrives
+ * its first result is selected. The "Load More" button fetches the next page with the
+ * cursor returned by the previous one. A label shows how many of the total matches are listed.
+ * </p>
+ *
+ * @param <T> The result type, e.g. {@link bank.UserRecord}.
+ */
+public class SearchResultsPanel<T> extends JPanel {
+    private final Function<String, CompletableFuture<SearchResults<T>>> loader;
+    private final Consumer<Boolean> onFirstPage;
+
+    private final DefaultListModel<T> listModel = new DefaultListModel<>();
+    private final JList<T> resultList = new JList<>(listModel);
+    private final JLabel countLabel = new JLabel();
+    private final JButton loadMoreButton = new JButton("Load More");
+    private String nextCursor;
+    private boolean firstPageShown;
+
+    /**
+     * Creates the panel and starts loading the first page of results.
+     *
+     * @param loader      Fetches the page after the given cursor (null for the first page), e.g.
+     *                    through {@link AsyncUIManager}.
+     * @param formatter   Turns a result into the text shown in the list.
+     * @param onSelect    Called with the selected result whenever the selection changes.
+     * @param onFirstPage Called on the event dispatch thread once the first page is shown,
+     *                    with whether the search found anything.
+     */
+    public SearchResultsPanel(Function<String, CompletableFuture<SearchResults<T>>> loader, Function<T, String> formatter,
+                              Consumer<T> onSelect, Consumer<Boolean> onFirstPage) {
+        super(new BorderLayout(0, 5));
+        this.loader = loader;
+        this.onFirstPage = onFirstPage;
+
+        resultList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        resultList.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
+        resultList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                return super.getListCellRendererComponent(list, formatter.apply((T) value), index, isSelected, cellHasFocus);
+            }
+        });
+        resultList.addListSelectionListener(e -> {
+            T selected = resultList.getSelectedValue();
+            if (!e.getValueIsAdjusting() && selected != null) onSelect.accept(selected);
+        });
+
+        JScrollPane scroll = new JScrollPane(resultList);
+        scroll.setPreferredSize(new Dimension(400, 100));
+        add(countLabel, BorderLayout.NORTH);
+        add(scroll, BorderLayout.CENTER);
+
+        loadMoreButton.addActionListener(e -> loadNextPage());
+        loadMoreButton.setVisible(false);
+        add(loadMoreButton, BorderLayout.SOUTH);
+
+        countLabel.setText("Searching...");
+        loadNextPage();
+    }
+
+    /**
+     * Returns whether the search found anything.
+     */
+    public boolean hasResults() {
+        return !listModel.isEmpty();
+    }
+
+    /**
+     * Returns the selected result, or null.
+     */
+    public T getSelected() {
+        return resultList.getSelectedValue();
+    }
+
+    /**
+     * Fetches the next page of results and appends it to the list when it arrives.
+     */
+    private void loadNextPage() {
+        loadMoreButton.setEnabled(false);
+        AsyncUIManager.onEdt(loader.apply(nextCursor), this::showPage, error -> {
+            countLabel.setText("The search failed. Please try again.");
+            loadMoreButton.setEnabled(true);
+            if (!firstPageShown) {
+                firstPageShown = true;
+                onFirstPage.accept(false);
+            }
+        });
+    }
+
+    private void showPage(SearchResults<T> page) {
+        for (T item : page.getItems()) {
+            listModel.addElement(item);
+        }
+        countLabel.setText("Showing " + listModel.size() + " of " + page.getTotalCount() + " matches");
+
+        nextCursor = page.getNextCursor();
+        loadMoreButton.setEnabled(true);
+        loadMoreButton.setVisible(page.hasMore());
+        revalidate();
+
+        if (!firstPageShown) {
+            firstPageShown = true;
+            if (!listModel.isEmpty()) resultList.setSelectedIndex(0);
+            onFirstPage.accept(hasResults());
+        }
+    }
+}
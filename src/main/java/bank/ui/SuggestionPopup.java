@@ -0,0 +1,139 @@
+package bank.ui;
+
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import javax.swing.DefaultListModel;
+import javax.swing.JList;
+import javax.swing.JPopupMenu;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import bank.AsyncUIManager;
+
+/**
+ * Type-ahead suggestions shown below a text field.
+ * <p>
+ * Suggestions are looked up in the background once typing pauses for {@link #DELAY_MS}
+ * milliseconds, so a burst of keystrokes costs one lookup; an answer for text that has
+ * since changed is dropped. Clicking a suggestion, or choosing it with the
+ * arrow keys and Enter, copies it into the field; Escape closes the list.
+ * </p>
+ */
+public class SuggestionPopup {
+    /** Pause in typing after which suggestions are refreshed. */
+    static final int DELAY_MS = 250;
+
+    private final JTextField field;
+    private final Function<String, CompletableFuture<List<String>>> source;
+
+    private final DefaultListModel<String> listModel = new DefaultListModel<>();
+    private final JList<String> list = new JList<>(listModel);
+    private final JPopupMenu popup = new JPopupMenu();
+    private final Timer debounce;
+    private boolean accepting;
+
+    /**
+     * Attaches suggestions to the field.
+     *
+     * @param field  The text field being typed into.
+     * @param source Looks up the suggestions for the typed text, e.g. through
+     *               {@link AsyncUIManager}; an empty list shows nothing.
+     */
+    public SuggestionPopup(JTextField field, Function<String, CompletableFuture<List<String>>> source) {
+        this.field = field;
+        this.source = source;
+
+        debounce = new Timer(DELAY_MS, e -> refresh());
+        debounce.setRepeats(false);
+
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setFocusable(false);
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                accept(list.getSelectedValue());
+            }
+        });
+        popup.setFocusable(false);
+        popup.add(new JScrollPane(list));
+
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { typed(); }
+            @Override public void removeUpdate(DocumentEvent e) { typed(); }
+            @Override public void changedUpdate(DocumentEvent e) { }
+        });
+        field.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!popup.isVisible()) return;
+                int selected = list.getSelectedIndex();
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_DOWN -> select(Math.min(selected + 1, listModel.size() - 1));
+                    case KeyEvent.VK_UP -> select(Math.max(selected - 1, 0));
+                    case KeyEvent.VK_ENTER -> {
+                        if (selected >= 0) {
+                            accept(list.getSelectedValue());
+                            e.consume();
+                        }
+                    }
+                    case KeyEvent.VK_ESCAPE -> popup.setVisible(false);
+                    default -> { }
+                }
+            }
+        });
+    }
+
+    private void typed() {
+        if (!accepting) debounce.restart();
+    }
+
+    private void refresh() {
+        String text = field.getText().strip();
+        if (text.isEmpty()) {
+            popup.setVisible(false);
+            return;
+        }
+        AsyncUIManager.onEdt(source.apply(text), suggestions -> {
+            if (text.equals(field.getText().strip())) show(text, suggestions);
+        }, error -> popup.setVisible(false));
+    }
+
+    private void show(String text, List<String> suggestions) {
+        if (suggestions.isEmpty() || (suggestions.size() == 1 && suggestions.get(0).equals(text)) || !field.isShowing()) {
+            popup.setVisible(false);
+            return;
+        }
+        listModel.clear();
+        for (String s : suggestions) listModel.addElement(s);
+        list.setVisibleRowCount(Math.min(suggestions.size(), 8));
+        popup.setPopupSize(field.getWidth(), popup.getPreferredSize().height);
+        popup.show(field, 0, field.getHeight());
+    }
+
+    private void select(int index) {
+        list.setSelectedIndex(index);
+        list.ensureIndexIsVisible(index);
+    }
+
+    private void accept(String suggestion) {
+        popup.setVisible(false);
+        if (suggestion == null) return;
+        accepting = true;
+        try {
+            field.setText(suggestion);
+        } finally {
+            accepting = false;
+        }
+        field.requestFocusInWindow();
+    }
+}
@@ -6,7 +6,6 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.GridLayout;
 import java.awt.Insets;
-import java.util.List;
 
 import javax.swing.JButton;
 import javax.swing.JFrame;
@@ -14,6 +13,7 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.SwingConstants;
 
+import bank.AsyncUIManager;
 import bank.UIManager;
 
 /**
@@ -56,11 +56,12 @@ public class TellerAccountPage extends JFrame {
         add(header, gbc);
 
         // Account Information
-        // Fetch the latest balance from the database
-        String balance = uiManager.getFormattedBalance(accountId);
-
+        // Fetch the latest balance from the database off the EDT
         addLabel(gbc, 1, "Account ID: " + accountId);
-        addLabel(gbc, 2, "Current Balance: " + balance);
+        JLabel balanceLabel = addLabel(gbc, 2, "Current Balance: Loading...");
+        AsyncUIManager.onEdt(uiManager.async().getFormattedBalance(accountId),
+                balance -> balanceLabel.setText("Current Balance: " + balance),
+                error -> balanceLabel.setText("Current Balance: unavailable"));
         
         // Transaction History Section
         JLabel historyHeader = new JLabel("Transaction History:");
@@ -69,26 +70,11 @@ public class TellerAccountPage extends JFrame {
         gbc.insets = new Insets(15, 10, 5, 10);
         add(historyHeader, gbc);
 
-        // Load History
-        List<String[]> history = uiManager.getAccountHistory(accountId);
-        int currentRow = 5;
-        
-        if (history.isEmpty()) {
-            gbc.gridy = currentRow++;
-            gbc.insets = new Insets(2, 20, 2, 10);
-            JLabel noTrans = new JLabel("No recent transactions.");
-            noTrans.setForeground(Color.GRAY);
-            add(noTrans, gbc);
-        } else {
-            gbc.insets = new Insets(2, 20, 2, 10);
-            
-            for (String[] tx : history) {
-                // Format: [Type, Amount, To_Acc, Timestamp]
-                String date = tx[3].length() > 10 ? tx[3].substring(0, 10) : tx[3];
-                String labelText = String.format("%s $%s (%s)", tx[0], tx[1], date);
-                addLabel(gbc, currentRow++, labelText);
-            }
-        }
+        // Load the first page of History; older pages load on demand
+        gbc.gridy = 5;
+        gbc.insets = new Insets(2, 20, 2, 10);
+        add(new HistoryListPanel(uiManager, accountId, "No recent transactions."), gbc);
+        int currentRow = 6;
 
         // Actions Panel (Deposit, Transfer, Withdraw)
         JPanel btnPanel = new JPanel(new GridLayout(1, 3, 10, 0));
@@ -146,9 +132,10 @@ public class TellerAccountPage extends JFrame {
     /**
      * Helper method to add a standard text label to the grid.
      */
-    private void addLabel(GridBagConstraints gbc, int row, String text) {
+    private JLabel addLabel(GridBagConstraints gbc, int row, String text) {
         JLabel label = new JLabel(text);
         gbc.gridy = row;
         add(label, gbc);
+        return label;
     }
 }
\ No newline at end of file
@@ -13,6 +13,7 @@ import javax.swing.JOptionPane;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 
+import bank.AsyncUIManager;
 import bank.UIManager;
 
 /**
@@ -80,19 +81,24 @@ public class TellerDepositPage extends JFrame {
             String amount = amountField.getText();
             
             // Call backend and handle status response (Success vs Pending vs Error)
-            String status = uiManager.processDeposit(accountId, amount);
-            
-            if ("SUCCESS".equals(status)) {
-                JOptionPane.showMessageDialog(this, "Deposit Successful!");
-                dispose();
-                new TellerAccountPage(uiManager, accountId);
-            } else if ("PENDING".equals(status)) {
-                JOptionPane.showMessageDialog(this, "Large Deposit Queued for Review.");
-                dispose();
-                new TellerAccountPage(uiManager, accountId);
-            } else {
-                JOptionPane.showMessageDialog(this, "Error: Invalid Amount.", "Deposit Failed", JOptionPane.ERROR_MESSAGE);
-            }
+            completeButton.setEnabled(false);
+            AsyncUIManager.onEdt(uiManager.async().processDeposit(accountId, amount), status -> {
+                completeButton.setEnabled(true);
+                if ("SUCCESS".equals(status)) {
+                    JOptionPane.showMessageDialog(this, "Deposit Successful!");
+                    dispose();
+                    new TellerAccountPage(uiManager, accountId);
+                } else if ("PENDING".equals(status)) {
+                    JOptionPane.showMessageDialog(this, "Large Deposit Queued for Review.");
+                    dispose();
+                    new TellerAccountPage(uiManager, accountId);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Error: Invalid Amount.", "Deposit Failed", JOptionPane.ERROR_MESSAGE);
+                }
+            }, error -> {
+                completeButton.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Error: The bank could not be reached. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+            });
         });
 
         gbc.gridy = 4;
@@ -14,6 +14,7 @@ import javax.swing.JOptionPane;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 
+import bank.AsyncUIManager;
 import bank.UIManager;
 
 /**
@@ -110,21 +111,26 @@ public class TellerTransactionPage extends JFrame {
             }
 
             // Call backend and handle the returned status string
-            String status = uiManager.performTransfer(fromAccountId, toAcc, amount);
-            
-            if ("SUCCESS".equals(status)) {
-                JOptionPane.showMessageDialog(this, "Transaction Successful!");
-                dispose();
-                new TellerAccountPage(uiManager, fromAccountId);
-            } else if ("PENDING".equals(status)) {
-                JOptionPane.showMessageDialog(this, "Transaction queued for review (Amount > $10,000).");
-                dispose();
-                new TellerAccountPage(uiManager, fromAccountId);
-            } else if ("INSUFFICIENT".equals(status)) {
-                JOptionPane.showMessageDialog(this, "Error: Insufficient Funds!", "Failed", JOptionPane.ERROR_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this, "Error: Transaction failed (Check Account ID).", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            submitBtn.setEnabled(false);
+            AsyncUIManager.onEdt(uiManager.async().performTransfer(fromAccountId, toAcc, amount), status -> {
+                submitBtn.setEnabled(true);
+                if ("SUCCESS".equals(status)) {
+                    JOptionPane.showMessageDialog(this, "Transaction Successful!");
+                    dispose();
+                    new TellerAccountPage(uiManager, fromAccountId);
+                } else if ("PENDING".equals(status)) {
+                    JOptionPane.showMessageDialog(this, "Transaction queued for review (Amount > $10,000).");
+                    dispose();
+                    new TellerAccountPage(uiManager, fromAccountId);
+                } else if ("INSUFFICIENT".equals(status)) {
+                    JOptionPane.showMessageDialog(this, "Error: Insufficient Funds!", "Failed", JOptionPane.ERROR_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Error: Transaction failed (Check Account ID).", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }, error -> {
+                submitBtn.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Error: The bank could not be reached. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+            });
         });
 
         gbc.gridy = 5;
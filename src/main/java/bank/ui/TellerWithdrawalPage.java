@@ -13,6 +13,7 @@ import javax.swing.JOptionPane;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 
+import bank.AsyncUIManager;
 import bank.UIManager;
 
 /**
@@ -81,21 +82,26 @@ public class TellerWithdrawalPage extends JFrame {
             String amount = amountField.getText();
             
             // Call Facade and handle the specific result status
-            String status = uiManager.processWithdrawal(accountId, amount);
-            
-            if ("SUCCESS".equals(status)) {
-                JOptionPane.showMessageDialog(this, "Withdrawal Successful!");
-                dispose();
-                new TellerAccountPage(uiManager, accountId);
-            } else if ("PENDING".equals(status)) {
-                JOptionPane.showMessageDialog(this, "Large Withdrawal Queued for Review.");
-                dispose();
-                new TellerAccountPage(uiManager, accountId);
-            } else if ("INSUFFICIENT".equals(status)) {
-                JOptionPane.showMessageDialog(this, "Error: Insufficient Funds.", "Failed", JOptionPane.ERROR_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this, "Error: Invalid Amount.", "Failed", JOptionPane.ERROR_MESSAGE);
-            }
+            completeButton.setEnabled(false);
+            AsyncUIManager.onEdt(uiManager.async().processWithdrawal(accountId, amount), status -> {
+                completeButton.setEnabled(true);
+                if ("SUCCESS".equals(status)) {
+                    JOptionPane.showMessageDialog(this, "Withdrawal Successful!");
+                    dispose();
+                    new TellerAccountPage(uiManager, accountId);
+                } else if ("PENDING".equals(status)) {
+                    JOptionPane.showMessageDialog(this, "Large Withdrawal Queued for Review.");
+                    dispose();
+                    new TellerAccountPage(uiManager, accountId);
+                } else if ("INSUFFICIENT".equals(status)) {
+                    JOptionPane.showMessageDialog(this, "Error: Insufficient Funds.", "Failed", JOptionPane.ERROR_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Error: Invalid Amount.", "Failed", JOptionPane.ERROR_MESSAGE);
+                }
+            }, error -> {
+                completeButton.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Error: The bank could not be reached. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+            });
         });
 
         gbc.gridy = 4;
@@ -5,7 +5,6 @@ import java.awt.Font;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
-import java.util.List;
 
 import javax.swing.JButton;
 import javax.swing.JComboBox;
@@ -15,6 +14,7 @@ import javax.swing.JOptionPane;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 
+import bank.AsyncUIManager;
 import bank.UIManager;
 
 /**
@@ -57,22 +57,8 @@ public class TransactionPage extends JFrame {
         gbc.gridy = 1;
         add(new JLabel("Select the account you would like to pay from:"), gbc);
         
-        // Fetch user's real accounts to populate the dropdown
-        List<String[]> userAccounts = uiManager.getUserAccounts();
-        String[] accountOptions;
-        
-        if (userAccounts.isEmpty()) {
-            accountOptions = new String[]{"No Accounts Found"};
-        } else {
-            accountOptions = new String[userAccounts.size()];
-            for (int i = 0; i < userAccounts.size(); i++) {
-                String[] acc = userAccounts.get(i);
-                // Format: "Chequing (853013)"
-                accountOptions[i] = acc[1] + " (" + acc[0] + ")"; 
-            }
-        }
-        
-        JComboBox<String> accountBox = new JComboBox<>(accountOptions);
+        // The dropdown is filled once the user's real accounts arrive (see below)
+        JComboBox<String> accountBox = new JComboBox<>(new String[]{"Loading accounts..."});
         gbc.gridy = 2;
         add(accountBox, gbc);
 
@@ -117,31 +103,55 @@ public class TransactionPage extends JFrame {
             String fromId = selected.substring(selected.lastIndexOf("(") + 1, selected.lastIndexOf(")"));
 
             // Execute Transfer and Handle Response Status
-            String status = uiManager.performTransfer(fromId, toId, amount);
-            
-            if ("SUCCESS".equals(status)) {
-                dispose();
-                // Redirect to the specific status receipt page
-                new TransactionStatusPage(uiManager, fromId, toId, amount);
+            completeButton.setEnabled(false);
+            AsyncUIManager.onEdt(uiManager.async().performTransfer(fromId, toId, amount), status -> {
+                completeButton.setEnabled(true);
+                if ("SUCCESS".equals(status)) {
+                    dispose();
+                    // Redirect to the specific status receipt page
+                    new TransactionStatusPage(uiManager, fromId, toId, amount);
                 
-            } else if ("PENDING".equals(status)) {
-                // Risk Verification Triggered
-                JOptionPane.showMessageDialog(this, "Transaction amount is large (> $10,000). Sent for Teller Review.");
-                dispose();
-                new CustomerDashboard(uiManager);
+                } else if ("PENDING".equals(status)) {
+                    // Risk Verification Triggered
+                    JOptionPane.showMessageDialog(this, "Transaction amount is large (> $10,000). Sent for Teller Review.");
+                    dispose();
+                    new CustomerDashboard(uiManager);
                 
-            } else if ("INSUFFICIENT".equals(status)) {
-                JOptionPane.showMessageDialog(this, "Error: Insufficient Funds in account " + fromId, "Transaction Failed", JOptionPane.ERROR_MESSAGE);
+                } else if ("INSUFFICIENT".equals(status)) {
+                    JOptionPane.showMessageDialog(this, "Error: Insufficient Funds in account " + fromId, "Transaction Failed", JOptionPane.ERROR_MESSAGE);
                 
-            } else {
-                JOptionPane.showMessageDialog(this, "Error: Transaction failed. Check Account ID.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+                } else {
+                    JOptionPane.showMessageDialog(this, "Error: Transaction failed. Check Account ID.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }, error -> {
+                completeButton.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Error: The bank could not be reached. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+            });
         });
         
         gbc.gridy = 7;
         gbc.insets = new Insets(20, 10, 5, 10);
         add(completeButton, gbc);
 
+        // Fetch user's real accounts off the EDT to populate the dropdown
+        completeButton.setEnabled(false);
+        AsyncUIManager.onEdt(uiManager.async().getUserAccounts(), userAccounts -> {
+            accountBox.removeAllItems();
+            if (userAccounts.isEmpty()) {
+                accountBox.addItem("No Accounts Found");
+            } else {
+                for (String[] acc : userAccounts) {
+                    // Format: "Chequing (853013)"
+                    accountBox.addItem(acc[1] + " (" + acc[0] + ")");
+                }
+            }
+            completeButton.setEnabled(true);
+        }, error -> {
+            accountBox.removeAllItems();
+            accountBox.addItem("No Accounts Found");
+            JOptionPane.showMessageDialog(this, "Error: The bank could not be reached. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+        });
+
         // Cancel Button
         JButton cancelButton = new JButton("Cancel");
         cancelButton.setBackground(new Color(255, 102, 102)); // Light Red
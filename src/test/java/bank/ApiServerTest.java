@@ -0,0 +1,72 @@
+package bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import bank.api.ApiServer;
+
+class ApiServerTest {
+    @TempDir
+    Path dir;
+
+    private DatabaseManager db;
+    private ApiServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String token;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        db = TestDatabases.open(dir);
+        server = new ApiServer(new UIManager(db), 0);
+        server.start();
+        String login = post("/api/login", "{\"username\": \"teller\", \"password\": \"123\"}").body();
+        token = login.replaceAll(".*\"token\":\\s*\"([^\"]+)\".*", "$1");
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        db.close();
+    }
+
+    @Test
+    void denyingACompletedTransactionLeavesItCompleted() throws Exception {
+        db.saveTransaction("done", "DEPOSIT", 500L, null, "853013", "COMPLETED");
+
+        assertEquals(409, post("/api/pending/done/deny", "").statusCode());
+        assertEquals("COMPLETED", db.getTransactionStatus("done"));
+    }
+
+    @Test
+    void denyingAnUnknownTransactionIsNotFound() throws Exception {
+        assertEquals(404, post("/api/pending/missing/deny", "").statusCode());
+    }
+
+    @Test
+    void denyingAPendingTransactionCancelsIt() throws Exception {
+        db.saveTransaction("held", "TRANSFER", 2_000_000L, "853013", null, "PENDING_REVIEW");
+
+        assertEquals(200, post("/api/pending/held/deny", "").statusCode());
+        assertEquals("CANCELLED", db.getTransactionStatus("held"));
+        // A second denial finds nothing left to cancel
+        assertEquals(409, post("/api/pending/held/deny", "").statusCode());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) request.header("Authorization", "Bearer " + token);
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
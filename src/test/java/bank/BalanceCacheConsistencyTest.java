@@ -0,0 +1,135 @@
+package bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Runs concurrent postings on every write path against concurrent cached reads, then
+ * checks that every cached balance matches the database once the writers have stopped.
+ */
+class BalanceCacheConsistencyTest {
+    private static final int ACCOUNTS = 24;
+    private static final int CACHE_SIZE = 64; // Holds every account, so a stale entry is never evicted by chance
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void cachedBalancesMatchTheDatabaseAfterConcurrentPostings() throws Exception {
+        DatabaseManager db;
+        String previous = System.setProperty("bank.cache.balance.size", Integer.toString(CACHE_SIZE));
+        try {
+            db = TestDatabases.open(dir, StorageProfile.THROUGHPUT);
+        } finally {
+            if (previous == null) System.clearProperty("bank.cache.balance.size");
+            else System.setProperty("bank.cache.balance.size", previous);
+        }
+
+        LedgerWriter writer = new LedgerWriter(db, new PostingEngine(db));
+        try {
+            db.saveUser("owner", "pw", "CUSTOMER", "Owner", "1990-01-01", "555", "o@bank.com");
+            for (int i = 0; i < ACCOUNTS; i++) db.saveAccount(account(i), "owner", "Chequing", 1_000_00L);
+
+            AtomicBoolean writing = new AtomicBoolean(true);
+            AtomicInteger txIds = new AtomicInteger();
+            List<Thread> threads = new ArrayList<>();
+
+            // Group-committed postings through the ledger writer
+            for (int t = 0; t < 4; t++) {
+                threads.add(new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 400; i++) {
+                        String from = account(random.nextInt(ACCOUNTS));
+                        String to = account(random.nextInt(ACCOUNTS));
+                        String id = "w" + txIds.incrementAndGet();
+                        long amount = 1 + random.nextInt(5_00);
+                        Posting posting = switch (i % 3) {
+                            case 0 -> Posting.deposit(id, to, amount, "COMPLETED");
+                            case 1 -> Posting.withdrawal(id, from, amount, "COMPLETED");
+                            default -> Posting.transfer(id, from, to, amount, "COMPLETED");
+                        };
+                        writer.post(posting);
+                    }
+                }));
+            }
+            // Postings committed one at a time on their own connections
+            threads.add(new Thread(() -> {
+                PostingEngine engine = new PostingEngine(db);
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 300; i++) {
+                    engine.transfer("e" + txIds.incrementAndGet(), account(random.nextInt(ACCOUNTS)),
+                            account(random.nextInt(ACCOUNTS)), 1 + random.nextInt(5_00), "COMPLETED");
+                }
+            }));
+            // The direct transfer and balance write paths
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 200; i++) {
+                    db.transfer(account(random.nextInt(ACCOUNTS)), account(random.nextInt(ACCOUNTS)), 1 + random.nextInt(5_00));
+                    if (i % 20 == 0) db.updateBalance(account(random.nextInt(ACCOUNTS)), 1_000_00L);
+                }
+            }));
+            List<Thread> writers = List.copyOf(threads);
+
+            // Readers keep the cache populated while the balances change underneath it
+            for (int r = 0; r < 4; r++) {
+                threads.add(new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (writing.get()) db.getBalance(account(random.nextInt(ACCOUNTS)));
+                }));
+            }
+
+            threads.forEach(Thread::start);
+            for (Thread w : writers) w.join();
+            writing.set(false);
+            for (Thread t : threads) t.join();
+
+            BalanceCache cache = db.getBalanceCache();
+            assertTrue(cache.getHitCount() > 0 && cache.getInvalidationCount() > 0, cache.toString());
+            int cachedChecked = 0;
+            for (int i = 0; i < ACCOUNTS; i++) {
+                String id = account(i);
+                long stored = storedBalance(db, id);
+                Long cached = cache.get(id);
+                if (cached != null) {
+                    assertEquals(stored, cached.longValue(), "Stale cached balance for " + id);
+                    cachedChecked++;
+                }
+                assertEquals(stored, db.getBalance(id), "getBalance disagrees with the database for " + id);
+            }
+            assertTrue(cachedChecked > 0, "No balance was left in the cache to check");
+        } finally {
+            writer.close();
+            db.close();
+        }
+    }
+
+    private static String account(int i) {
+        return "ACC" + i;
+    }
+
+    private static long storedBalance(DatabaseManager db, String accountId) throws SQLException {
+        try (Connection conn = db.connect();
+             PreparedStatement stmt = conn.prepareStatement("SELECT balance_cents FROM accounts WHERE account_id = ?")) {
+            stmt.setString(1, accountId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                return rs.getLong(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Many tellers posting to a few accounts at once must neither lose an update nor
+ * overdraw an account. Postings go through the {@link LedgerWriter} and wait for their
+ * commit, as {@link UIManager} does.
+ */
+class ConcurrentPostingTest {
+    private static final int THREADS = 64;
+    private static final int POSTINGS_PER_THREAD = 300;
+    private static final int ACCOUNTS = 8;
+    private static final long OPENING_CENTS = 10_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void balancesStayConsistentUnderContention() throws Exception {
+        DatabaseManager db = TestDatabases.open(dir);
+        LedgerWriter writer = new LedgerWriter(db, new PostingEngine(db));
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            db.saveUser("hot", "pw", "CUSTOMER", "Hot Accounts", "1990-01-01", "555-0100", "h@bank.com");
+            for (int i = 0; i < ACCOUNTS; i++) db.saveAccount("H" + i, "hot", "Chequing", OPENING_CENTS);
+
+            AtomicLong deposited = new AtomicLong();
+            AtomicLong withdrawn = new AtomicLong();
+            AtomicLong refused = new AtomicLong();
+            List<CompletableFuture<Void>> done = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                String prefix = "T" + t + "-";
+                done.add(CompletableFuture.runAsync(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                        String from = "H" + random.nextInt(ACCOUNTS);
+                        String to = "H" + random.nextInt(ACCOUNTS);
+                        // Large enough that hot accounts regularly run short
+                        long amount = 1 + random.nextInt(3_000);
+                        int kind = random.nextInt(10);
+                        Posting posting = kind == 0 ? Posting.deposit(prefix + i, to, amount, "COMPLETED")
+                                : kind == 1 ? Posting.withdrawal(prefix + i, from, amount, "COMPLETED")
+                                : Posting.transfer(prefix + i, from, to, amount, "COMPLETED");
+                        PostingResult result = writer.post(posting);
+                        if (result == PostingResult.SUCCESS) {
+                            if (kind == 0) deposited.addAndGet(amount);
+                            if (kind == 1) withdrawn.addAndGet(amount);
+                        } else {
+                            assertEquals(PostingResult.INSUFFICIENT, result);
+                            refused.incrementAndGet();
+                        }
+                    }
+                }, pool));
+            }
+            CompletableFuture.allOf(done.toArray(new CompletableFuture<?>[0])).join();
+
+            long total = 0;
+            for (int i = 0; i < ACCOUNTS; i++) {
+                String account = "H" + i;
+                long balance = db.getBalance(account);
+                assertTrue(balance >= 0, account + " overdrawn: " + balance);
+                assertEquals(OPENING_CENTS + ledgerNet(db, account), balance, account + " disagrees with its ledger");
+                total += balance;
+            }
+            assertEquals(ACCOUNTS * OPENING_CENTS + deposited.get() - withdrawn.get(), total);
+            assertTrue(refused.get() > 0, "no posting ran short of funds; the test is too gentle");
+        } finally {
+            pool.shutdown();
+            writer.close();
+            db.close();
+        }
+    }
+
+    /**
+     * Credits minus debits of an account's completed ledger entries.
+     */
+    private static long ledgerNet(DatabaseManager db, String account) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(CASE WHEN to_acc = ? THEN amount_cents ELSE 0 END), 0) "
+                + "- COALESCE(SUM(CASE WHEN from_acc = ? THEN amount_cents ELSE 0 END), 0) "
+                + "FROM transactions WHERE status = 'COMPLETED' AND (from_acc = ? OR to_acc = ?)";
+        try (Connection conn = db.connect();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= 4; i++) pstmt.setString(i, account);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.getLong(1);
+            }
+        }
+    }
+}
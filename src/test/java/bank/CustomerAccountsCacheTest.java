@@ -0,0 +1,56 @@
+package bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * A customer's cached account list must only ever be served for that exact username,
+ * and callers must not be able to change what the next caller sees.
+ */
+class CustomerAccountsCacheTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void usernamesDifferingInCaseDoNotShareAnEntry() {
+        DatabaseManager db = TestDatabases.open(dir);
+        try {
+            db.saveUser("bob", "pw", "CUSTOMER", "Bob Lower", "1990-01-01", "555-0101", "b@bank.com");
+            db.saveUser("Bob", "pw", "TELLER", "Bob Upper", "1990-01-01", "555-0102", "B@bank.com");
+            db.saveAccount("LOWER", "bob", "Chequing", 100L);
+            SearchHandler search = new SearchHandler(db);
+
+            assertEquals(1, search.getCustomerAccounts("bob").size());
+            assertEquals(0, search.getCustomerAccounts("Bob").size());
+            assertEquals(0, search.getCustomerAccounts(" bob").size());
+        } finally {
+            db.close();
+        }
+    }
+
+    @Test
+    void changingAReturnedRowDoesNotReachTheCache() {
+        DatabaseManager db = TestDatabases.open(dir);
+        try {
+            db.saveUser("alice", "pw", "CUSTOMER", "Alice", "1990-01-01", "555-0101", "a@bank.com");
+            db.saveAccount("A1", "alice", "Chequing", 100L);
+            SearchHandler search = new SearchHandler(db);
+
+            List<String[]> first = search.getCustomerAccounts("alice");
+            first.get(0)[0] = "SOMEONE-ELSE";
+            first.clear();
+
+            List<String[]> second = search.getCustomerAccounts("alice");
+            assertEquals(1, second.size());
+            assertEquals("A1", second.get(0)[0]);
+            assertEquals(1, search.getResultCache().getHitCount());
+        } finally {
+            db.close();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * loadCustomerOverview must cost one connection and a fixed number of statements,
+ * however many accounts and transactions the customer has.
+ */
+class CustomerOverviewQueryCountTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void usesOneConnectionAndAtMostThreeStatements() {
+        DatabaseManager db = TestDatabases.open(dir);
+        try {
+            db.saveUser("empty", "pw", "CUSTOMER", "No Accounts", "1990-01-01", "555-0100", "e@bank.com");
+            db.saveUser("busy", "pw", "CUSTOMER", "Many Accounts", "1990-01-01", "555-0101", "b@bank.com");
+            db.saveAccount("ONE", "busy", "Chequing", 10_000L);
+            for (int i = 0; i < 40; i++) db.saveAccount("N" + i, "busy", "Savings", 0L);
+            PostingEngine engine = new PostingEngine(db);
+            for (int i = 0; i < 40; i++) {
+                assertEquals(PostingResult.SUCCESS, engine.post(Posting.transfer("T" + i, "ONE", "N" + i, 100L, "COMPLETED")));
+            }
+
+            CustomerOverview busy = load(db, "busy", 5, 3);
+            assertEquals(41, busy.accounts().size());
+            assertEquals(5, busy.recentActivity().get("ONE").size());
+            // The activity query is skipped when there is no activity to show
+            assertEquals(0, load(db, "empty", 5, 2).accounts().size());
+            assertEquals(41, load(db, "busy", 0, 2).accounts().size());
+        } finally {
+            db.close();
+        }
+    }
+
+    private static CustomerOverview load(DatabaseManager db, String username, int recentPerAccount, int statements) {
+        ConnectionPool pool = db.getConnectionPool();
+        long borrows = pool.getBorrowCount();
+        long prepared = pool.getStatementCacheHits() + pool.getStatementCacheMisses();
+
+        CustomerOverview overview = db.loadCustomerOverview(username, recentPerAccount);
+
+        assertEquals(1, pool.getBorrowCount() - borrows, "connections borrowed");
+        assertEquals(statements, pool.getStatementCacheHits() + pool.getStatementCacheMisses() - prepared, "statements prepared");
+        return overview;
+    }
+}
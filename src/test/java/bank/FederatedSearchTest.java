@@ -0,0 +1,33 @@
+package bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FederatedSearchTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void countsARecordFoundBySeveralSearchesOnce() {
+        DatabaseManager db = TestDatabases.open(dir);
+        try {
+            // Found by the customer name and customer ID searches
+            db.saveUser("smithj", "pw", "CUSTOMER", "Jane Smith", "1990-01-01", "555-0101", "j@bank.com");
+            db.saveUser("blackk", "pw", "CUSTOMER", "Kim Smithers", "1990-01-01", "555-0102", "k@bank.com");
+            // Found by the employee name and employee ID searches
+            db.saveUser("smitht", "pw", "TELLER", "Tom Smith", "1990-01-01", "555-0103", "t@bank.com");
+            db.saveUser("nobody", "pw", "CUSTOMER", "No Match", "1990-01-01", "555-0104", "n@bank.com");
+
+            FederatedSearchResults results = new SearchHandler(db).searchAll("smith", 10);
+
+            assertEquals(3, results.getHits().size());
+            assertEquals(3, results.getTotalCount());
+        } finally {
+            db.close();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LedgerWriterTest {
+    @TempDir
+    Path dir;
+
+    private DatabaseManager db;
+
+    @BeforeEach
+    void openDatabase() {
+        db = TestDatabases.open(dir, StorageProfile.THROUGHPUT);
+        db.saveUser("alice", "pw", "CUSTOMER", "Alice", "1990-01-01", "555", "a@bank.com");
+        db.saveAccount("A1", "alice", "Chequing", 0L);
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        db.close();
+    }
+
+    @Test
+    void groupsConcurrentPostingsIntoSharedCommits() {
+        LedgerWriter writer = new LedgerWriter(db, new PostingEngine(db), 64, 5_000);
+        List<CompletableFuture<PostingResult>> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            results.add(writer.submit(Posting.deposit("d" + i, "A1", 100, "COMPLETED")));
+        }
+        results.forEach(f -> assertEquals(PostingResult.SUCCESS, f.join()));
+        writer.close();
+
+        db.getBalanceCache().invalidate(List.of("A1"));
+        assertEquals(200 * 100, db.getBalance("A1"));
+        assertTrue(writer.getBatchCount() < 200, writer.toString());
+    }
+
+    @Test
+    void completesEveryPostingThatRacesWithClose() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            LedgerWriter writer = new LedgerWriter(db, new PostingEngine(db), 16, 0);
+            ConcurrentLinkedQueue<CompletableFuture<PostingResult>> futures = new ConcurrentLinkedQueue<>();
+            CountDownLatch started = new CountDownLatch(4);
+            String prefix = "r" + round + "-";
+            Thread[] tellers = new Thread[4];
+            for (int t = 0; t < tellers.length; t++) {
+                String tellerPrefix = prefix + t + "-";
+                tellers[t] = new Thread(() -> {
+                    started.countDown();
+                    for (int i = 0; i < 500; i++) {
+                        futures.add(writer.submit(Posting.deposit(tellerPrefix + i, "A1", 1, "COMPLETED")));
+                    }
+                });
+                tellers[t].start();
+            }
+            started.await();
+            writer.close();
+            for (Thread teller : tellers) teller.join();
+
+            for (CompletableFuture<PostingResult> future : futures) {
+                PostingResult result = future.get(10, TimeUnit.SECONDS);
+                assertTrue(result == PostingResult.SUCCESS || result == PostingResult.ERROR, result.name());
+            }
+        }
+    }
+
+    @Test
+    void rejectsPostingsAfterClose() {
+        LedgerWriter writer = new LedgerWriter(db, new PostingEngine(db));
+        writer.close();
+        assertEquals(PostingResult.ERROR, writer.post(Posting.deposit("late", "A1", 100, "COMPLETED")));
+    }
+}
@@ -0,0 +1,170 @@
+package bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MemoryLedgerTest {
+    @TempDir
+    Path dir;
+
+    private DatabaseManager db;
+    private LedgerWriter writer;
+
+    @BeforeEach
+    void openDatabase() {
+        db = TestDatabases.open(dir, StorageProfile.THROUGHPUT);
+        db.saveUser("alice", "pw", "CUSTOMER", "Alice", "1990-01-01", "555", "a@bank.com");
+        db.saveAccount("A1", "alice", "Chequing", 0L);
+        db.saveAccount("A2", "alice", "Savings", 0L);
+        writer = new LedgerWriter(db, new PostingEngine(db));
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        writer.close();
+        db.close();
+    }
+
+    private MemoryLedger openLedger() {
+        return new MemoryLedger(db, writer, dir.resolve("ledger"), 256, 100_000, true);
+    }
+
+    @Test
+    void cancelQueuedBehindItsPendingPostingReachesSqlite() throws SQLException {
+        MemoryLedger ledger = openLedger();
+        for (int round = 0; round < 10; round++) {
+            // Keep the ledger thread busy so the pending posting and its cancel share a batch
+            List<CompletableFuture<PostingResult>> busy = new ArrayList<>();
+            for (int i = 0; i < 50; i++) busy.add(ledger.submit(Posting.deposit("b" + round + "-" + i, "A2", 1, "COMPLETED")));
+            String txId = "p" + round;
+            CompletableFuture<PostingResult> pending = ledger.submit(Posting.deposit(txId, "A1", 100, "PENDING_REVIEW"));
+            ledger.cancel(txId);
+
+            assertEquals(PostingResult.PENDING, pending.join());
+            busy.forEach(CompletableFuture::join);
+            ledger.post(Posting.deposit("sync" + round, "A2", 1, "COMPLETED"));
+            awaitWriteBehind();
+            assertEquals("CANCELLED", status(txId), "round " + round);
+        }
+        ledger.close();
+    }
+
+    @Test
+    void resyncQueuedBehindPostingsKeepsThem() {
+        MemoryLedger ledger = openLedger();
+        List<CompletableFuture<PostingResult>> deposits = new ArrayList<>();
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 50; i++) deposits.add(ledger.submit(Posting.deposit("d" + round + "-" + i, "A1", 1, "COMPLETED")));
+            // Reported by a writer other than the write-behind: reload A1 from SQLite
+            db.balancesChanged(List.of("A1"));
+        }
+        deposits.forEach(f -> assertEquals(PostingResult.SUCCESS, f.join()));
+        ledger.post(Posting.deposit("sync", "A2", 1, "COMPLETED"));
+
+        assertEquals(500, ledger.getBalance("A1"));
+        ledger.close();
+        assertEquals(500, sqliteBalance("A1"));
+    }
+
+    @Test
+    void reloadsBalancesWrittenOutsideTheLedger() {
+        MemoryLedger ledger = openLedger();
+        ledger.post(Posting.deposit("d1", "A1", 100, "COMPLETED"));
+        awaitWriteBehind();
+
+        db.updateBalance("A1", 7_000);
+        // Postings run in queue order, so the reload has happened once this one completes
+        ledger.post(Posting.deposit("sync", "A2", 1, "COMPLETED"));
+
+        assertEquals(7_000, ledger.getBalance("A1"));
+        ledger.close();
+    }
+
+    @Test
+    void ignoresASnapshotOlderThanSqlite() {
+        MemoryLedger ledger = openLedger();
+        ledger.post(Posting.deposit("d1", "A1", 100, "COMPLETED"));
+        ledger.close();
+
+        // Written while no ledger was running, e.g. by an import
+        new PostingEngine(db).post(Posting.deposit("import-1", "A1", 2_500, "COMPLETED"));
+
+        MemoryLedger reopened = openLedger();
+        assertEquals(2_600, reopened.getBalance("A1"));
+        reopened.close();
+    }
+
+    @Test
+    void replaysTheJournalAfterACrash() throws IOException {
+        // A write-behind that acknowledges postings without writing them, as if the
+        // process died before SQLite caught up
+        LedgerWriter lost = new LedgerWriter(db, new PostingEngine(db) {
+            @Override
+            public PostingResult apply(Connection conn, Posting posting, Collection<String> touchedAccounts) {
+                return "PENDING_REVIEW".equals(posting.status()) ? PostingResult.PENDING : PostingResult.SUCCESS;
+            }
+        });
+        Path ledgerDir = dir.resolve("ledger");
+        MemoryLedger crashed = new MemoryLedger(db, lost, ledgerDir, 256, 100_000, true);
+        crashed.post(Posting.deposit("c1", "A1", 1_000, "COMPLETED"));
+        crashed.post(Posting.transfer("c2", "A1", "A2", 300, "COMPLETED"));
+        crashed.post(Posting.deposit("c3", "A2", 50_000_00, "PENDING_REVIEW"));
+
+        // What was on disk when it died, plus a record torn halfway through
+        Path recovered = dir.resolve("recovered");
+        Files.createDirectories(recovered);
+        for (String file : new String[]{"ledger.journal", "ledger.snapshot"}) {
+            Files.copy(ledgerDir.resolve(file), recovered.resolve(file));
+        }
+        Files.writeString(recovered.resolve("ledger.journal"), "4\tDEPOSIT\tc4\t99", StandardOpenOption.APPEND);
+        crashed.close();
+        lost.close();
+        assertEquals(0, sqliteBalance("A1"));
+
+        MemoryLedger reopened = new MemoryLedger(db, writer, recovered, 256, 100_000, true);
+        assertEquals(700, reopened.getBalance("A1"));
+        assertEquals(300, reopened.getBalance("A2"));
+        reopened.close();
+        assertEquals(700, sqliteBalance("A1"));
+        assertEquals(300, sqliteBalance("A2"));
+        assertEquals("PENDING_REVIEW", db.getTransactionStatus("c3"));
+        assertNull(db.getTransactionStatus("c4"));
+    }
+
+    private void awaitWriteBehind() {
+        writer.post(Posting.deposit("w" + System.nanoTime(), "A2", 1, "COMPLETED"));
+    }
+
+    private String status(String txId) throws SQLException {
+        try (Connection conn = db.connect();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT status FROM transactions WHERE id = ?")) {
+            pstmt.setString(1, txId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private long sqliteBalance(String accountId) {
+        db.getBalanceCache().invalidate(List.of(accountId));
+        return db.getBalance(accountId);
+    }
+}
@@ -0,0 +1,65 @@
+package bank;
+
+/**
+ * Compares the integer-cents money path with the {@code double} path it replaced.
+ * <p>
+ * Each iteration does what a teller posting did end to end: parse the entered amount,
+ * credit the balance (even iterations) or check and debit it (odd ones), and format the
+ * new balance for display. The double path is the
+ * original code ({@code Double.parseDouble} and {@code String.format("$%.2f")}). It also
+ * reports the drift the double path accumulates over the same postings.
+ * </p>
+ * Usage: {@code MoneyBenchmark [iterations]} (default 5,000,000).
+ */
+public class MoneyBenchmark {
+    private static final String[] AMOUNTS = {"$12.34", "0.10", "1,250.00", "99.99", "$0.01", "40", "7.5", "310.25"};
+
+    private static long sink; // Keeps the JIT from removing the work
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+
+        // Warm up both paths
+        for (int i = 0; i < 3; i++) {
+            cents(iterations / 10);
+            doubles(iterations / 10);
+        }
+
+        long start = System.nanoTime();
+        long centsBalance = cents(iterations);
+        double centsNanos = (double) (System.nanoTime() - start) / iterations;
+
+        start = System.nanoTime();
+        double doubleBalance = doubles(iterations);
+        double doubleNanos = (double) (System.nanoTime() - start) / iterations;
+
+        System.out.printf("%-8s %10s %18s%n", "path", "ns/op", "final balance");
+        System.out.printf("%-8s %10.1f %18s%n", "cents", centsNanos, Money.format(centsBalance));
+        System.out.printf("%-8s %10.1f %18s%n", "double", doubleNanos, String.format("$%.2f", doubleBalance));
+        System.out.printf("speed-up %.1fx, drift after %,d postings: %s%n", doubleNanos / centsNanos, iterations,
+                String.format("%.6f", Math.abs(doubleBalance - centsBalance / 100.0)));
+        if (sink == 42) System.out.println();
+    }
+
+    private static long cents(int iterations) {
+        long balance = 1_000_000_00L;
+        for (int i = 0; i < iterations; i++) {
+            long amount = Money.parseCents(AMOUNTS[i & 7]);
+            if ((i & 1) == 0) balance += amount;
+            else if (balance >= amount) balance -= amount;
+            sink += Money.format(balance).length();
+        }
+        return balance;
+    }
+
+    private static double doubles(int iterations) {
+        double balance = 1_000_000.00;
+        for (int i = 0; i < iterations; i++) {
+            double amount = Double.parseDouble(AMOUNTS[i & 7].replace("$", "").replace(",", "").trim());
+            if ((i & 1) == 0) balance += amount;
+            else if (balance >= amount) balance -= amount;
+            sink += String.format("$%.2f", balance).length();
+        }
+        return balance;
+    }
+}
@@ -0,0 +1,51 @@
+package bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+    @Test
+    void parsesUserEnteredAmounts() {
+        assertEquals(123456, Money.parseCents("$1,234.56"));
+        assertEquals(1250, Money.parseCents(" 12.5 "));
+        assertEquals(4000, Money.parseCents("40"));
+        assertEquals(-199, Money.parseCents("-$1.99"));
+    }
+
+    @Test
+    void rejectsMalformedAmounts() {
+        assertThrows(NumberFormatException.class, () -> Money.parseCents(""));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("$"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("1.234"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("12a"));
+    }
+
+    @Test
+    void acceptsTheLargestAmount() {
+        long maxDollars = Long.MAX_VALUE / 100 - 1;
+        assertEquals(maxDollars * 100 + 99, Money.parseCents(maxDollars + ".99"));
+        assertEquals(-(maxDollars * 100 + 99), Money.parseCents("-" + maxDollars + ".99"));
+    }
+
+    @Test
+    void rejectsAmountsThatWouldOverflow() {
+        long maxDollars = Long.MAX_VALUE / 100 - 1;
+        // One more dollar than the limit: the last digit pushes it over
+        assertThrows(NumberFormatException.class, () -> Money.parseCents(Long.toString(maxDollars + 1)));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("92233720368547759"));
+        // A negative input must never wrap around to a positive amount
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("-92233720368547759"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("99999999999999999999"));
+    }
+
+    @Test
+    void formatsCents() {
+        assertEquals("$1234.56", Money.format(123456));
+        assertEquals("$0.05", Money.format(5));
+        assertEquals("-$10.00", Money.format(-1000));
+        assertEquals("1234.50", Money.toPlainString(123450));
+    }
+}
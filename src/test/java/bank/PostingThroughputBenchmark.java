@@ -0,0 +1,71 @@
+package bank;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures transfers per second against the number of teller threads.
+ * <p>
+ * Each thread count gets a fresh database. Every teller posts random transfers one at a
+ * time through the {@link LedgerWriter} and waits for each commit, as
+ * {@link UIManager#performTransfer(String, String, String)} does. The curve is measured
+ * twice: over a few hot accounts, where every transfer contends with the others, and
+ * over many accounts, where they rarely meet.
+ * </p>
+ * Usage: {@code PostingThroughputBenchmark [maxThreads] [transfersPerThread]} (defaults 128 and 200).
+ */
+public class PostingThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 128;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        System.out.printf("%d transfers per thread%n", perThread);
+        System.out.printf("%8s %16s %16s%n", "threads", "8 accounts/s", "1000 accounts/s");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double hot = run(threads, perThread, 8);
+            double spread = run(threads, perThread, 1000);
+            System.out.printf("%8d %16.0f %16.0f%n", threads, hot, spread);
+        }
+    }
+
+    private static double run(int threads, int perThread, int accounts) throws Exception {
+        Path dir = TestDatabases.tempDir("bank-posting-bench-");
+        DatabaseManager database = TestDatabases.open(dir);
+        LedgerWriter writer = new LedgerWriter(database, new PostingEngine(database));
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            database.saveUser("bench", "x", "CUSTOMER", "Bench Customer", "2000-01-01", "555", "b@bank.com");
+            for (int i = 0; i < accounts; i++) database.saveAccount("A" + i, "bench", "Chequing", 1_000_000_00L);
+
+            // Warm up connections, statement caches and the JIT
+            for (int i = 0; i < 200; i++) writer.post(Posting.transfer("W" + i, "A0", "A1", 1, "COMPLETED"));
+
+            long start = System.nanoTime();
+            List<CompletableFuture<Void>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String prefix = "T" + t + "-";
+                done.add(CompletableFuture.runAsync(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < perThread; i++) {
+                        String from = "A" + random.nextInt(accounts);
+                        String to = "A" + random.nextInt(accounts);
+                        writer.post(Posting.transfer(prefix + i, from, to, 100, "COMPLETED"));
+                    }
+                }, pool));
+            }
+            CompletableFuture.allOf(done.toArray(new CompletableFuture<?>[0])).join();
+            return threads * perThread / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            pool.shutdown();
+            writer.close();
+            database.close();
+            TestDatabases.delete(dir);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package bank;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Runs every query the database layer issues through EXPLAIN QUERY PLAN and fails if
+ * one of them reads the whole {@code transactions} or {@code accounts} table.
+ * <p>
+ * The statements are not listed here: the test drives the public {@link DatabaseManager}
+ * and {@link PostingEngine} operations and records the SQL they prepare, so a new or
+ * rewritten query is checked without touching this test.
+ * </p>
+ */
+class QueryPlanTest {
+    /** A ledger table in a FROM or JOIN clause, with the alias the plan will report it under. */
+    private static final Pattern LEDGER_TABLE = Pattern.compile("\\b(transactions|accounts)(?:\\s+(?:AS\\s+)?(\\w+))?",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Account ID substring search has no usable index (a leading wildcard cannot seek)
+     * and is intentionally a scan of the accounts table.
+     */
+    private static final Set<String> INTENDED_SCANS = Set.of(
+            "SELECT COUNT(*) FROM accounts WHERE account_id LIKE ?",
+            "SELECT rowid, account_id, owner_username, type, balance_cents FROM accounts "
+                    + "WHERE account_id LIKE ? AND rowid > ? ORDER BY rowid LIMIT ?");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void noQueryScansTheLedgerTables() throws SQLException {
+        DatabaseManager db = TestDatabases.open(dir);
+        Set<String> statements = Collections.synchronizedSet(new LinkedHashSet<>());
+        try {
+            db.getConnectionPool().observeStatements(statements::add);
+            exerciseEveryQuery(db);
+            db.getConnectionPool().observeStatements(null);
+
+            assertTrue(statements.size() > 30, "Expected the workload to prepare most queries, got " + statements.size());
+
+            List<String> scans = new ArrayList<>();
+            try (Connection conn = db.connect()) {
+                for (String sql : statements) {
+                    if (INTENDED_SCANS.contains(sql)) continue;
+                    for (String step : plan(conn, sql)) {
+                        if (isLedgerScan(sql, step)) scans.add(step + "  <-  " + sql);
+                    }
+                }
+            }
+            assertTrue(scans.isEmpty(), "Queries regressed to a table scan:\n" + String.join("\n", scans));
+        } finally {
+            db.close();
+        }
+    }
+
+    @Test
+    void detectsAScan() throws SQLException {
+        DatabaseManager db = TestDatabases.open(dir);
+        try (Connection conn = db.connect()) {
+            assertTrue(scans(conn, "SELECT * FROM transactions WHERE status = ?"));
+            assertTrue(scans(conn, "SELECT a.type FROM accounts a WHERE a.type = ?"));
+            assertFalse(scans(conn, "SELECT type FROM transactions WHERE from_acc = ?"));
+            assertFalse(scans(conn, "SELECT a.type FROM users u CROSS JOIN accounts a ON a.owner_username = u.username"));
+        } finally {
+            db.close();
+        }
+    }
+
+    private static boolean scans(Connection conn, String sql) throws SQLException {
+        return plan(conn, sql).stream().anyMatch(step -> isLedgerScan(sql, step));
+    }
+
+    /**
+     * Whether a plan step reads all of {@code transactions} or {@code accounts}: a scan, or
+     * a search on an automatic index that SQLite has to build by scanning. The plan names
+     * the table by its alias when the query gives one.
+     */
+    private static boolean isLedgerScan(String sql, String step) {
+        String[] words = step.split(" ");
+        boolean full = words[0].equals("SCAN") || (words[0].equals("SEARCH") && step.contains(" AUTOMATIC "));
+        if (!full || words.length < 2) return false;
+        String scanned = words[1];
+        Matcher m = LEDGER_TABLE.matcher(sql);
+        while (m.find()) {
+            if (scanned.equalsIgnoreCase(m.group(1)) || scanned.equalsIgnoreCase(m.group(2))) return true;
+        }
+        return false;
+    }
+
+    private static List<String> plan(Connection conn, String sql) throws SQLException {
+        List<String> steps = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) steps.add(rs.getString("detail"));
+        }
+        return steps;
+    }
+
+    /**
+     * Calls every read and write operation, with keywords long and short enough to take
+     * both the full-text and the LIKE search paths, and with follow-up cursors.
+     */
+    private static void exerciseEveryQuery(DatabaseManager db) {
+        db.saveUser("alice", "pw", "CUSTOMER", "Alice Smith", "1990-02-03", "555-0101", "alice@bank.com");
+        db.saveUser("bob", "pw", "CUSTOMER", "Bob Smyth", "03/04/1985", "555-0202", "bob@bank.com");
+        db.saveUser("tina", "pw", "TELLER", "Tina Teller", "1980-01-01", "555-0303", "tina@bank.com");
+        db.saveAccount("100001", "alice", "Chequing", 500_00L);
+        db.saveAccount("100002", "alice", "Savings", 0L);
+        db.saveAccount("200001", "bob", "Chequing", 50_00L);
+
+        PostingEngine engine = new PostingEngine(db);
+        engine.deposit("t1", "100001", 10_00L, "COMPLETED");
+        engine.withdraw("t2", "100001", 5_00L, "COMPLETED");
+        engine.transfer("t3", "100001", "200001", 20_00L, "COMPLETED");
+        engine.transfer("t4", "200001", "100002", 15_000_00L, "PENDING_REVIEW");
+        engine.settle("t4");
+        engine.transfer("t5", "100001", "100002", 11_000_00L, "PENDING_REVIEW");
+        for (int i = 0; i < 5; i++) engine.deposit("d" + i, "100001", 1_00L, "COMPLETED");
+
+        db.validateLogin("alice", "pw");
+        db.getUserRole("alice");
+        db.userExists("alice");
+        db.getBalanceCache().invalidate(List.of("100001"));
+        db.getBalance("100001");
+        db.updateBalance("100002", 1_00L);
+        db.getUserAccounts("alice");
+        db.getTransactionHistory("100001");
+        db.streamTransactionHistory("100001", row -> { });
+        HistoryPage page = db.getTransactionHistoryPage("100001", null, 2);
+        db.getTransactionHistoryPage("100001", page.getNextCursor(), 2);
+        db.loadCustomerOverview("alice", 3);
+        db.getPendingTransactions();
+        db.getTransactionAmount("t5");
+        db.getTransactionParties("t5");
+        db.updateTransactionStatus("t5", "CANCELLED");
+        db.transfer("100001", "200001", 1_00L);
+
+        for (String criteria : List.of("Name", "Customer ID", "Phone", "Date of Birth")) {
+            for (String keyword : List.of("Sm", "Smith", "al", "alice", "55", "555-01", "1990")) {
+                SearchResults<UserRecord> users = db.findUsers(criteria, keyword, null, 1);
+                if (users.getNextCursor() != null) db.findUsers(criteria, keyword, users.getNextCursor(), 1);
+                db.findEmployees(criteria, keyword, null, 1);
+            }
+        }
+        for (String criteria : List.of("Account ID", "Name", "Phone")) {
+            for (String keyword : List.of("10", "100001", "Al", "Alice", "55", "555-01")) {
+                SearchResults<AccountRecord> accounts = db.findAccounts(criteria, keyword, null, 1);
+                if (accounts.getNextCursor() != null) db.findAccounts(criteria, keyword, accounts.getNextCursor(), 1);
+            }
+        }
+        SearchResults<UserRecord> born = db.findUsersBornBetween(BirthDates.parseQuery("1980-01-01..1995-12-31"), false, null, 1);
+        if (born.getNextCursor() != null) db.findUsersBornBetween(BirthDates.parseQuery("1980-01-01..1995-12-31"), false, born.getNextCursor(), 1);
+        db.findUsersBornBetween(BirthDates.parseQuery("1990-02-03 Alice"), true, null, 1);
+        SearchResults<UserRecord> similar = db.findUsersByNameSound("Smithe", null, 1);
+        if (similar.getNextCursor() != null) db.findUsersByNameSound("Smithe", similar.getNextCursor(), 1);
+
+        db.streamUsers(row -> { });
+        db.streamUsernames(name -> { });
+        db.streamAccountIds(id -> { });
+        db.streamAccountBalances((id, cents) -> { });
+        db.activateUser("tina");
+        db.deleteUser("tina");
+    }
+}
@@ -0,0 +1,74 @@
+package bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import bank.SchemaMigrator.Backfill;
+import bank.SchemaMigrator.Migration;
+
+class SchemaMigratorTest {
+    private static final int ROWS = 1000;
+    private static final int BATCH = 64;
+
+    @TempDir
+    Path dir;
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void openPool() throws SQLException {
+        pool = ConnectionPool.fromSystemProperties("jdbc:sqlite:" + dir.resolve("migrate.db"), StorageProfile.DEFAULT);
+        try (Connection conn = pool.borrow(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE t (v INTEGER)");
+            stmt.execute("WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < " + ROWS + ") "
+                    + "INSERT INTO t(v) SELECT i FROM n");
+        }
+    }
+
+    @AfterEach
+    void closePool() {
+        pool.close();
+    }
+
+    @Test
+    void sqlBackfillVisitsEachRowOnce() throws SQLException {
+        // Row 500 stays pending after its update; a batch that rescanned from the start would find it forever
+        Backfill doubling = Backfill.sql("t", "w = CASE WHEN v = 500 THEN NULL ELSE v * 2 END", "w IS NULL");
+        AtomicInteger batches = new AtomicInteger();
+        Backfill counted = (conn, limit) -> {
+            batches.incrementAndGet();
+            return doubling.runBatch(conn, limit);
+        };
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> new SchemaMigrator(pool, BATCH, 0).migrate(List.of(
+                Migration.of(1, "Add t.w", "ALTER TABLE t ADD COLUMN w INTEGER").withBackfill(counted))));
+
+        // Full batches, then the empty one that ends the backfill
+        assertEquals((ROWS + BATCH - 1) / BATCH + 1, batches.get());
+        assertEquals(1, count("SELECT COUNT(*) FROM t WHERE w IS NULL"));
+        assertEquals(ROWS - 1, count("SELECT COUNT(*) FROM t WHERE w = v * 2"));
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SessionRegistryTest {
+    @TempDir
+    Path dir;
+
+    private DatabaseManager db;
+    private SessionRegistry sessions;
+
+    @BeforeEach
+    void openDatabase() {
+        db = TestDatabases.open(dir);
+        db.saveUser("teller", "pw", "TELLER", "Branch Teller", "1990-01-01", "555", "t@bank.com");
+        sessions = new SessionRegistry(1);
+        sessions.register(db);
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        db.close();
+    }
+
+    @Test
+    void sessionWithoutIdleExpiryOutlivesTheTimeout() throws InterruptedException {
+        Session web = sessions.open("teller", "TELLER");
+        Session desktop = sessions.open("teller", "TELLER", false);
+        Thread.sleep(20);
+
+        assertNull(sessions.get(web.token()));
+        assertEquals(desktop, sessions.get(desktop.token()));
+    }
+
+    @Test
+    void deactivationEndsASessionWithoutIdleExpiry() {
+        Session desktop = sessions.open("teller", "TELLER", false);
+        assertNotNull(sessions.get(desktop.token()));
+
+        db.deleteUser("teller");
+
+        assertNull(sessions.get(desktop.token()));
+    }
+
+    @Test
+    void roleChangeEndsASessionWithoutIdleExpiry() {
+        Session desktop = sessions.open("teller", "TELLER", false);
+
+        db.saveUser("teller", "pw", "ADMIN", "Branch Teller", "1990-01-01", "555", "t@bank.com");
+
+        assertNull(sessions.get(desktop.token()));
+    }
+}
@@ -0,0 +1,67 @@
+package bank;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures deposits per second under each {@link StorageProfile}.
+ * <p>
+ * Each profile gets a fresh database with one account per teller thread. Every teller
+ * posts its deposits one at a time through the {@link LedgerWriter} and waits for each
+ * commit, the same path {@link UIManager#processDeposit(String, String)} takes.
+ * </p>
+ * Usage: {@code StorageProfileBenchmark [tellers] [depositsPerTeller]} (defaults 8 and 500).
+ */
+public class StorageProfileBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int tellers = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int perTeller = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        System.out.printf("%d tellers x %d deposits%n", tellers, perTeller);
+        System.out.printf("%-12s %12s %14s%n", "profile", "deposits/s", "avg batch");
+        for (StorageProfile profile : StorageProfile.values()) {
+            run(profile, tellers, perTeller);
+        }
+    }
+
+    private static void run(StorageProfile profile, int tellers, int perTeller) throws Exception {
+        Path dir = TestDatabases.tempDir("bank-bench-");
+        DatabaseManager database = TestDatabases.open(dir, profile);
+        LedgerWriter writer = new LedgerWriter(database, new PostingEngine(database));
+        ExecutorService pool = Executors.newFixedThreadPool(tellers);
+        try {
+            database.saveUser("bench", "x", "CUSTOMER", "Bench Customer", "2000-01-01", "555", "b@bank.com");
+            for (int t = 0; t < tellers; t++) database.saveAccount("B" + t, "bench", "Chequing", 0L);
+
+            // Warm up connections, statement caches and the JIT
+            for (int i = 0; i < 200; i++) writer.post(Posting.deposit("W" + i, "B0", 1, "COMPLETED"));
+
+            long start = System.nanoTime();
+            List<CompletableFuture<Void>> done = new ArrayList<>();
+            for (int t = 0; t < tellers; t++) {
+                String account = "B" + t;
+                String prefix = "T" + t + "-";
+                done.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < perTeller; i++) {
+                        writer.post(Posting.deposit(prefix + i, account, 100, "COMPLETED"));
+                    }
+                }, pool));
+            }
+            CompletableFuture.allOf(done.toArray(new CompletableFuture<?>[0])).join();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%-12s %12.0f %14.1f%n", profile.name().toLowerCase(),
+                    tellers * perTeller / seconds, writer.getAverageBatchSize());
+        } finally {
+            pool.shutdown();
+            writer.close();
+            database.close();
+            TestDatabases.delete(dir);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package bank;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Opens fully migrated databases in temporary directories for tests and benchmarks.
+ */
+final class TestDatabases {
+    private TestDatabases() {
+    }
+
+    /**
+     * Opens (and migrates) a database file in the given directory.
+     */
+    static DatabaseManager open(Path dir, StorageProfile profile) {
+        return new DatabaseManager("jdbc:sqlite:" + dir.resolve("bank.db"), profile);
+    }
+
+    static DatabaseManager open(Path dir) {
+        return open(dir, StorageProfile.DEFAULT);
+    }
+
+    /**
+     * Creates a temporary directory for a benchmark run; remove it with {@link #delete(Path)}.
+     */
+    static Path tempDir(String prefix) {
+        try {
+            return Files.createTempDirectory(prefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void delete(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The users_fts and user_name_keys indexes point at users by id, so they must keep
+ * finding the right users after the users table is rewritten, as a dump and reload does.
+ */
+class UserIdMigrationTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void searchIndexesSurviveReload() throws SQLException {
+        DatabaseManager db = TestDatabases.open(dir);
+        try {
+            for (int i = 0; i < 50; i++) {
+                db.saveUser("user" + i, "pw", "CUSTOMER", "Person Number" + i, "1990-01-01", "555-" + (1000 + i), "u" + i + "@bank.com");
+            }
+            db.saveUser("zelda", "pw", "CUSTOMER", "Zelda Quartermaine", "1990-01-01", "555-7777", "z@bank.com");
+            // On a connection of its own: pooled connections keep cached statements open
+            try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("bank.db"));
+                 Statement stmt = conn.createStatement()) {
+                // Leave gaps before the last users so that a rewrite has something to renumber
+                stmt.execute("DELETE FROM users WHERE username IN ('user0', 'user2', 'user4', 'user6', 'user8', 'user10', 'user12')");
+                // Reload every row the way sqlite3 .dump does: SELECT * carries an INTEGER
+                // PRIMARY KEY across, but an implicit rowid is handed out afresh
+                stmt.execute("CREATE TEMP TABLE users_dump AS SELECT * FROM users");
+                stmt.execute("DELETE FROM users");
+                stmt.execute("INSERT INTO users SELECT * FROM users_dump");
+            }
+
+            assertEquals(List.of("zelda"), usernames(db.findUsers("Name", "Quartermaine", null, 10)));
+            assertEquals(List.of("zelda"), usernames(db.findUsers("Phone", "555-7777", null, 10)));
+            assertEquals(List.of("zelda"), usernames(db.findUsersByNameSound("Zelda Quartermain", null, 10)));
+            assertEquals(List.of("user1", "user11", "user13", "user14", "user15", "user16", "user17", "user18", "user19"),
+                    usernames(db.findUsers("Customer ID", "user1", null, 20)));
+        } finally {
+            db.close();
+        }
+    }
+
+    private static List<String> usernames(SearchResults<UserRecord> results) {
+        return results.getItems().stream().map(UserRecord::username).toList();
+    }
+}
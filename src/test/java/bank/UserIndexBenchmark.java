@@ -0,0 +1,68 @@
+package bank;
+
+import bank.UserSearchIndex.Field;
+
+/**
+ * Measures the heap used by a {@link UserSearchIndex} and its search latency.
+ * <p>
+ * The index is filled directly with generated customers, without a database, and the
+ * heap is compared before and after a full collection. Each keyword is then searched for
+ * a first page of results, which also counts every match.
+ * </p>
+ * Usage: {@code UserIndexBenchmark [users] [rounds]} (defaults 1000000 and 1000).
+ * Run with a heap large enough for the index, e.g. {@code MAVEN_OPTS=-Xmx4g}.
+ */
+public class UserIndexBenchmark {
+    private static final String[] FIRST = {"Olivia", "Liam", "Amara", "Noah", "Chen", "Fatima", "Mateo", "Ingrid", "Kofi", "Priya"};
+    private static final String[] LAST = {"Tremblay", "Nguyen", "Okafor", "Schmidt", "Rossi", "Haddad", "Kowalski", "Silva", "Ito", "Murphy"};
+    private static final int PAGE = 25;
+
+    /** Fields and keywords: a rare name, a common name, a phone and a username fragment. */
+    private static final Object[][] SEARCHES = {
+        {Field.FULL_NAME, "Quartermaine"},
+        {Field.FULL_NAME, "Okafor"},
+        {Field.PHONE, "555-0123"},
+        {Field.USERNAME, "cust4242"},
+    };
+
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+        long before = usedHeap();
+        long start = System.nanoTime();
+        UserSearchIndex index = new UserSearchIndex();
+        for (int i = 0; i < users; i++) {
+            String username = "cust" + i;
+            index.put(username, "CUSTOMER", FIRST[i % FIRST.length] + " " + LAST[(i / FIRST.length) % LAST.length] + " " + i,
+                    "1990-01-01", String.format("555-%04d-%03d", i % 10_000, i / 10_000 % 1000), username + "@bank.com", true);
+        }
+        index.put("zq", "CUSTOMER", "Zelda Quartermaine", "1990-01-01", "555-7777", "zq@bank.com", true);
+        double buildSeconds = (System.nanoTime() - start) / 1e9;
+        long bytes = usedHeap() - before;
+
+        System.out.println(index);
+        System.out.printf("built in %.1f s, %.1f MB heap, %.1f MB per million users%n",
+                buildSeconds, bytes / 1e6, bytes / 1e6 / users * 1_000_000);
+
+        System.out.printf("%-10s %-14s %9s %12s%n", "field", "keyword", "hits", "search us");
+        for (Object[] search : SEARCHES) {
+            Field field = (Field) search[0];
+            String keyword = (String) search[1];
+            int hits = index.search(field, keyword, u -> true, null, PAGE).getTotalCount();
+            for (int i = 0; i < rounds; i++) index.search(field, keyword, u -> true, null, PAGE); // Warm up
+
+            long searchStart = System.nanoTime();
+            for (int i = 0; i < rounds; i++) index.search(field, keyword, u -> true, null, PAGE);
+            double micros = (System.nanoTime() - searchStart) / 1e3 / rounds;
+
+            System.out.printf("%-10s %-14s %9d %12.1f%n", field.name().toLowerCase(), keyword, hits, micros);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,113 @@
+package bank;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Compares user search through the trigram full-text index with the {@code LIKE '%...%'}
+ * scan it replaced.
+ * <p>
+ * The database is filled with generated customers (the users_fts triggers index them as
+ * they are inserted). Each keyword is then searched the way a page of results is loaded:
+ * the total count and the first page, once through {@link DatabaseManager#findUsers} and
+ * once with the same two queries written with {@code LIKE}.
+ * </p>
+ * Usage: {@code UserSearchBenchmark [users] [rounds]} (defaults 1000000 and 20).
+ */
+public class UserSearchBenchmark {
+    private static final String[] FIRST = {"Olivia", "Liam", "Amara", "Noah", "Chen", "Fatima", "Mateo", "Ingrid", "Kofi", "Priya"};
+    private static final String[] LAST = {"Tremblay", "Nguyen", "Okafor", "Schmidt", "Rossi", "Haddad", "Kowalski", "Silva", "Ito", "Murphy"};
+    private static final int PAGE = 25;
+
+    /** Criteria and keyword pairs: a rare name, a common name, a phone and a username fragment. */
+    private static final String[][] SEARCHES = {
+        {"Name", "Quartermaine"},
+        {"Name", "Okafor"},
+        {"Phone", "555-0123"},
+        {"Customer ID", "cust4242"},
+    };
+
+    public static void main(String[] args) throws Exception {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        Path dir = TestDatabases.tempDir("bank-search-bench-");
+        DatabaseManager database = TestDatabases.open(dir);
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("bank.db"))) {
+            long start = System.nanoTime();
+            fill(conn, users);
+            database.saveUser("zq", "x", "CUSTOMER", "Zelda Quartermaine", "1990-01-01", "555-7777", "zq@bank.com");
+            System.out.printf("%d users loaded in %.1f s%n", users, (System.nanoTime() - start) / 1e9);
+
+            System.out.printf("%-12s %-14s %9s %12s %12s%n", "criteria", "keyword", "hits", "fts ms", "like ms");
+            for (String[] search : SEARCHES) {
+                String criteria = search[0];
+                String keyword = search[1];
+                int hits = database.findUsers(criteria, keyword, null, PAGE).getTotalCount();
+                like(conn, criteria, keyword); // Warm up
+
+                long ftsStart = System.nanoTime();
+                for (int i = 0; i < rounds; i++) database.findUsers(criteria, keyword, null, PAGE);
+                double ftsMs = (System.nanoTime() - ftsStart) / 1e6 / rounds;
+
+                long likeStart = System.nanoTime();
+                for (int i = 0; i < rounds; i++) like(conn, criteria, keyword);
+                double likeMs = (System.nanoTime() - likeStart) / 1e6 / rounds;
+
+                System.out.printf("%-12s %-14s %9d %12.2f %12.2f%n", criteria, keyword, hits, ftsMs, likeMs);
+            }
+        } finally {
+            database.close();
+            TestDatabases.delete(dir);
+        }
+    }
+
+    private static void fill(Connection conn, int users) throws SQLException {
+        conn.setAutoCommit(false);
+        String sql = "INSERT INTO users(username, password, role, full_name, date_of_birth, phone, email) "
+                + "VALUES(?, 'x', 'CUSTOMER', ?, '1990-01-01', ?, ?)";
+        try (PreparedStatement insert = conn.prepareStatement(sql)) {
+            for (int i = 0; i < users; i++) {
+                String username = "cust" + i;
+                insert.setString(1, username);
+                insert.setString(2, FIRST[i % FIRST.length] + " " + LAST[(i / FIRST.length) % LAST.length] + " " + i);
+                insert.setString(3, String.format("555-%04d-%03d", i % 10_000, i / 10_000 % 1000));
+                insert.setString(4, username + "@bank.com");
+                insert.addBatch();
+                if (i % 10_000 == 9_999) {
+                    insert.executeBatch();
+                    conn.commit();
+                }
+            }
+            insert.executeBatch();
+            conn.commit();
+        }
+        conn.setAutoCommit(true);
+    }
+
+    /** The count and first page that searchUsers ran before the full-text index. */
+    private static void like(Connection conn, String criteria, String keyword) throws SQLException {
+        String column = criteria.equals("Name") ? "full_name" : criteria.equals("Phone") ? "phone" : "username";
+        String param = "%" + keyword + "%";
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT COUNT(*) FROM users WHERE " + column + " LIKE ?")) {
+            pstmt.setString(1, param);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.getInt(1);
+            }
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT * FROM users WHERE " + column + " LIKE ? AND id > 0 ORDER BY id LIMIT ?")) {
+            pstmt.setString(1, param);
+            pstmt.setInt(2, PAGE + 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rs.getString("username");
+                }
+            }
+        }
+    }
+}
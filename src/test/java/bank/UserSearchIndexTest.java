@@ -0,0 +1,40 @@
+package bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import bank.UserSearchIndex.Field;
+
+class UserSearchIndexTest {
+
+    @Test
+    void keywordLengthCountsCodePoints() {
+        // Two code points, three chars: too short for the database's trigram index too
+        assertFalse(UserSearchIndex.isSearchable("𝒜b"));
+        assertTrue(UserSearchIndex.isSearchable("𝒜bc"));
+        assertFalse(UserSearchIndex.isSearchable("ab"));
+        assertTrue(UserSearchIndex.isSearchable("abc"));
+    }
+
+    @Test
+    void findsSubstringsIgnoringCase() {
+        UserSearchIndex index = new UserSearchIndex();
+        index.put("zq", "CUSTOMER", "Zelda Quartermaine", "1990-01-01", "555-7777", "zq@bank.com", true);
+        index.put("jd", "CUSTOMER", "John Doe", "1990-01-01", "555-1234", "jd@bank.com", true);
+        index.put("zq", "CUSTOMER", "Zelda Quartermain", "1990-01-01", "555-7777", "zq@bank.com", true);
+
+        assertEquals(List.of("zq"), usernames(index.search(Field.FULL_NAME, "QUARTER", u -> true, null, 10)));
+        assertEquals(List.of(), usernames(index.search(Field.FULL_NAME, "maine", u -> true, null, 10)));
+        assertEquals(List.of("jd"), usernames(index.search(Field.PHONE, "-12", u -> true, null, 10)));
+        assertEquals(2, index.size());
+    }
+
+    private static List<String> usernames(SearchResults<UserRecord> results) {
+        return results.getItems().stream().map(UserRecord::username).toList();
+    }
+}
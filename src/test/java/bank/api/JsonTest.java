@@ -0,0 +1,46 @@
+package bank.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class JsonTest {
+
+    @Test
+    void parsesNestingUpToTheLimit() {
+        String text = "[".repeat(Json.MAX_DEPTH) + "]".repeat(Json.MAX_DEPTH);
+        Object value = Json.parse(text);
+        for (int i = 1; i < Json.MAX_DEPTH; i++) value = ((List<?>) value).get(0);
+        assertEquals(List.of(), value);
+    }
+
+    @Test
+    void rejectsDeeperNestingWithoutOverflowingTheStack() {
+        assertThrows(IllegalArgumentException.class,
+                () -> Json.parse("[".repeat(Json.MAX_DEPTH + 1) + "]".repeat(Json.MAX_DEPTH + 1)));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("[".repeat(1_000_000)));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{\"a\":".repeat(1_000_000)));
+    }
+
+    @Test
+    void siblingsDoNotAddToTheDepth() {
+        // Every level holds an empty array next to the next level
+        String text = "[[],".repeat(Json.MAX_DEPTH - 1) + "[]" + "]".repeat(Json.MAX_DEPTH - 1);
+        Object value = Json.parse(text);
+        for (int i = 1; i < Json.MAX_DEPTH - 1; i++) {
+            List<?> level = (List<?>) value;
+            assertEquals(List.of(), level.get(0));
+            value = level.get(1);
+        }
+        assertEquals(List.of(List.of(), List.of()), value);
+    }
+
+    @Test
+    void keepsNumbersAsTyped() {
+        assertEquals(Map.of("amount", "12.50"), Json.parse("{\"amount\": 12.50}"));
+    }
+}